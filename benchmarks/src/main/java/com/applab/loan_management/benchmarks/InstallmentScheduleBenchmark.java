@@ -0,0 +1,52 @@
+package com.applab.loan_management.benchmarks;
+
+import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.util.LoanMapperUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Installment schedule generation, the in-memory part of LoanService.createLoan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstallmentScheduleBenchmark {
+
+    @Param({"6", "24", "1000"})
+    private int numberOfInstallments;
+
+    private Loan loan;
+    private Money installmentAmount;
+    private LocalDate firstDueDate;
+
+    @Setup
+    public void setUp() {
+        loan = Loan.builder().id(1L).isPaid(false).build();
+        installmentAmount = Money.of(new BigDecimal("514.40"));
+        firstDueDate = LocalDate.of(2025, 2, 1);
+    }
+
+    @Benchmark
+    public List<LoanInstallment> createInstallmentSchedule() {
+        return LoanMapperUtil.createInstallmentSchedule(loan, installmentAmount, numberOfInstallments, firstDueDate);
+    }
+}
@@ -0,0 +1,67 @@
+package com.applab.loan_management.benchmarks;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.security.CustomerUserDetails;
+import com.applab.loan_management.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/* Token generation (login) and verification (every authenticated request), with the claims
+ * the authentication service puts into tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    // Same secret and expiration as application.yml
+    private static final String SECRET = "AppLabLoanManagementSecretKeyThatIsSecureAndLongEnough";
+    private static final long EXPIRATION_MILLIS = 86_400_000;
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private Map<String, Object> claims;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", EXPIRATION_MILLIS);
+
+        Customer customer = Customer.builder().id(1L).email("john.doe@example.com").password("n/a")
+                .name("John").surname("Doe").role(Role.CUSTOMER).build();
+        userDetails = new CustomerUserDetails(customer);
+        claims = Map.of("role", Role.CUSTOMER.name(), "customerId", customer.getId());
+        token = jwtUtil.generateToken(claims, userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(claims, userDetails);
+    }
+
+    @Benchmark
+    public Claims verifyToken() {
+        return jwtUtil.extractAllClaims(token);
+    }
+}
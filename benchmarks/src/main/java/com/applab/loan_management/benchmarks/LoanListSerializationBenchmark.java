@@ -0,0 +1,70 @@
+package com.applab.loan_management.benchmarks;
+
+import com.applab.loan_management.dto.LoanListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* JSON serialization of the GET /api/loans response body, using an ObjectMapper configured
+ * the way Spring Boot configures the one behind the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanListSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int loans;
+
+    private ObjectWriter writer;
+    private List<LoanListResponse> response;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, LoanListResponse.class));
+
+        response = new ArrayList<>(loans);
+        for (int i = 0; i < loans; i++) {
+            response.add(LoanListResponse.builder()
+                    .id(i + 1L)
+                    .customerId(1L)
+                    .customerName("John")
+                    .customerSurname("Doe")
+                    .loanAmount(new BigDecimal("12345.67"))
+                    .interestRate(new BigDecimal("0.25"))
+                    .numberOfInstallments(12)
+                    .createDate(LocalDateTime.of(2025, 1, 15, 10, 30).plusDays(i))
+                    .isPaid(i % 4 == 0)
+                    .totalAmount(new BigDecimal("15432.09"))
+                    .remainingInstallments(i % 4 == 0 ? 0 : 12 - i % 12)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeLoanList() throws Exception {
+        return writer.writeValueAsBytes(response);
+    }
+}
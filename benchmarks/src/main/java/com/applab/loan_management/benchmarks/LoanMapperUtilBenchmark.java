@@ -0,0 +1,96 @@
+package com.applab.loan_management.benchmarks;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanListProjection;
+import com.applab.loan_management.dto.LoanListResponse;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.util.LoanMapperUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Loan totals and the DTO mapping behind the loan list and installment list responses.
+ * The installment count covers the shortest and longest allowed schedules, plus 1000 to expose any
+ * per-installment cost that does not scale linearly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoanMapperUtilBenchmark {
+
+    @Param({"6", "24", "1000"})
+    private int numberOfInstallments;
+
+    private Money loanAmount;
+    private BigDecimal interestRate;
+    private Money totalAmount;
+    private LoanListProjection loanListRow;
+    private List<LoanInstallment> installments;
+
+    @Setup
+    public void setUp() {
+        loanAmount = Money.of(new BigDecimal("12345.67"));
+        interestRate = new BigDecimal("0.25");
+        totalAmount = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
+        Money installmentAmount = LoanMapperUtil.calculateInstallmentAmount(totalAmount, numberOfInstallments);
+
+        loanListRow = new LoanListProjection(1L, 1L, "John", "Doe", loanAmount, interestRate, numberOfInstallments,
+                LocalDateTime.of(2025, 1, 15, 10, 30), false, totalAmount, (long) numberOfInstallments);
+
+        Customer customer = Customer.builder().id(1L).name("John").surname("Doe").role(Role.CUSTOMER).build();
+        Loan loan = Loan.builder()
+                .id(1L)
+                .customer(customer)
+                .loanAmount(loanAmount)
+                .interestRate(interestRate)
+                .numberOfInstallments(numberOfInstallments)
+                .totalAmount(totalAmount)
+                .installmentAmount(installmentAmount)
+                .isPaid(false)
+                .build();
+        installments = LoanMapperUtil.createInstallmentSchedule(loan, installmentAmount, numberOfInstallments,
+                LocalDate.of(2025, 2, 1));
+        for (int i = 0; i < installments.size(); i++) {
+            installments.get(i).setId(i + 1L);
+        }
+    }
+
+    @Benchmark
+    public void calculateTotals(Blackhole blackhole) {
+        Money total = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
+        blackhole.consume(total);
+        blackhole.consume(LoanMapperUtil.calculateInstallmentAmount(total, numberOfInstallments));
+    }
+
+    @Benchmark
+    public LoanListResponse toLoanListResponse() {
+        return LoanMapperUtil.toLoanListResponse(loanListRow);
+    }
+
+    @Benchmark
+    public List<LoanInstallmentResponse> toLoanInstallmentResponseList() {
+        return LoanMapperUtil.toLoanInstallmentResponseList(installments);
+    }
+}
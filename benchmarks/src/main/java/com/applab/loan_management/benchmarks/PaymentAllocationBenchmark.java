@@ -0,0 +1,57 @@
+package com.applab.loan_management.benchmarks;
+
+import com.applab.loan_management.dto.LoanInstallmentProjection;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.util.LoanMapperUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* The allocation loop of LoanService.payLoan, selecting the payable installments a payment covers.
+ * Payments cover half of the payable installments, so the loop also takes its early exit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentAllocationBenchmark {
+
+    // At most three months of installments are payable at once; 1000 stresses the loop itself
+    @Param({"3", "1000"})
+    private int payableInstallments;
+
+    private List<LoanInstallmentProjection> installments;
+    private long paymentMinorUnits;
+
+    @Setup
+    public void setUp() {
+        Money amount = Money.of(new BigDecimal("514.40"));
+        LocalDate dueDate = LocalDate.of(2025, 2, 1);
+        installments = new ArrayList<>(payableInstallments);
+        for (int i = 0; i < payableInstallments; i++) {
+            installments.add(new LoanInstallmentProjection(i + 1L, 1L, 1L, amount, dueDate.plusMonths(i), null, null, false));
+        }
+        paymentMinorUnits = amount.getMinorUnits() * Math.max(1, payableInstallments / 2) + 99;
+    }
+
+    @Benchmark
+    public LoanMapperUtil.PaymentAllocation allocatePayment() {
+        return LoanMapperUtil.allocatePayment(installments, paymentMinorUnits);
+    }
+}
@@ -0,0 +1,100 @@
+package com.applab.loan_management.loadtest;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.util.AuthMapperUtil;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/* Seeds the synthetic data set straight through the repositories and LoanService, bypassing HTTP.
+ * All customers share one password, hashed once, and get a credit limit high enough that loan
+ * creation during the run is never rejected for credit.
+ */
+public class DataSeeder {
+
+    public static final String PASSWORD = "load-test-password";
+    public static final int[] INSTALLMENT_OPTIONS = {6, 9, 12, 24};
+
+    private static final BigDecimal CREDIT_LIMIT = new BigDecimal("99999999.00");
+    private static final int CUSTOMER_BATCH_SIZE = 500;
+
+    private final CustomerRepository customerRepository;
+    private final LoanService loanService;
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+
+    public DataSeeder(ApplicationContext context) {
+        this.customerRepository = context.getBean(CustomerRepository.class);
+        this.loanService = context.getBean(LoanService.class);
+        this.jwtUtil = context.getBean(JwtUtil.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+    }
+
+    public List<SeededCustomer> seed(int customers, int loans, RandomGenerator random) {
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Customer> saved = new ArrayList<>(customers);
+        List<Customer> batch = new ArrayList<>(CUSTOMER_BATCH_SIZE);
+        for (int i = 0; i < customers; i++) {
+            batch.add(Customer.builder()
+                    .email("customer-" + i + "@loadtest.local")
+                    .password(passwordHash)
+                    .role(Role.CUSTOMER)
+                    .name("Load")
+                    .surname("Customer " + i)
+                    .creditLimit(Money.of(CREDIT_LIMIT))
+                    .usedCreditLimit(Money.ZERO)
+                    .build());
+            if (batch.size() == CUSTOMER_BATCH_SIZE || i == customers - 1) {
+                saved.addAll(customerRepository.saveAll(batch));
+                batch.clear();
+            }
+        }
+
+        List<SeededCustomer> seeded = new ArrayList<>(customers);
+        for (Customer customer : saved) {
+            seeded.add(new SeededCustomer(customer.getId(), customer.getEmail(),
+                    AuthMapperUtil.generateJwtToken(customer, jwtUtil), new ArrayList<>()));
+        }
+
+        // Loans are created as an admin, the same way POST /api/loans creates them
+        Customer admin = customerRepository.save(Customer.builder()
+                .email("admin@loadtest.local").password(passwordHash).role(Role.ADMIN).name("Load").surname("Admin").build());
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                admin.getEmail(), AuthMapperUtil.generateJwtToken(admin, jwtUtil), List.of()));
+        try {
+            for (int i = 0; i < loans; i++) {
+                SeededCustomer customer = seeded.get(i % seeded.size());
+                Long loanId = loanService.createLoan(randomLoanRequest(customer.id(), random)).getId();
+                customer.loanIds().add(loanId);
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return seeded;
+    }
+
+    public static CreateLoanRequest randomLoanRequest(Long customerId, RandomGenerator random) {
+        return CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(BigDecimal.valueOf(random.nextInt(100, 50_000)))
+                .interestRate(new BigDecimal("0.1").add(BigDecimal.valueOf(random.nextInt(0, 41), 2)))
+                .numberOfInstallments(INSTALLMENT_OPTIONS[random.nextInt(INSTALLMENT_OPTIONS.length)])
+                .build();
+    }
+
+    // A seeded customer, with a token issued at seeding time and the IDs of its loans
+    public record SeededCustomer(Long id, String email, String token, List<Long> loanIds) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.applab.loan_management.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/* Latencies and status codes of one client's requests, kept per operation without any locking.
+ * Each client owns a recorder; the runner merges them after the clients finished.
+ */
+public class LatencyRecorder {
+
+    // Status recorded when a request failed without a response, e.g. connection refused or timeout
+    public static final int NO_RESPONSE = -1;
+
+    private final Map<Operation, OperationSamples> samples = new EnumMap<>(Operation.class);
+
+    public void record(Operation operation, int status, long latencyNanos) {
+        samples.computeIfAbsent(operation, key -> new OperationSamples()).add(status, latencyNanos);
+    }
+
+    public void mergeInto(LatencyRecorder target) {
+        samples.forEach((operation, operationSamples) ->
+                target.samples.computeIfAbsent(operation, key -> new OperationSamples()).addAll(operationSamples));
+    }
+
+    public Map<Operation, OperationSamples> getSamples() {
+        return samples;
+    }
+
+    // All operations together, to summarize the run as a whole
+    public OperationSamples combined() {
+        OperationSamples combined = new OperationSamples();
+        samples.values().forEach(combined::addAll);
+        return combined;
+    }
+
+    public static final class OperationSamples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<Integer, Long> statusCounts = new TreeMap<>();
+
+        private void add(int status, long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            statusCounts.merge(status, 1L, Long::sum);
+        }
+
+        private void addAll(OperationSamples other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            other.statusCounts.forEach((status, statusCount) -> statusCounts.merge(status, statusCount, Long::sum));
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<Integer, Long> getStatusCounts() {
+            return statusCounts;
+        }
+
+        // Latencies in ascending order, for percentiles
+        public long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.applab.loan_management.loadtest;
+
+import com.applab.loan_management.loadtest.DataSeeder.SeededCustomer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* One simulated user: acts as a seeded customer and replays operations from the mix back to back
+ * until the run ends. Requests sent before the warmup ended are not recorded.
+ */
+public class LoadClient implements Callable<LatencyRecorder> {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final AtomicLong REGISTRATIONS = new AtomicLong();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final SeededCustomer customer;
+    private final List<Long> loanIds;
+    private final OperationMix mix;
+    private final SplittableRandom random;
+    private final long measureFromNanos;
+    private final long stopAtNanos;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    public LoadClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, SeededCustomer customer,
+                      OperationMix mix, SplittableRandom random, long measureFromNanos, long stopAtNanos) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.customer = customer;
+        this.loanIds = new ArrayList<>(customer.loanIds());
+        this.mix = mix;
+        this.random = random;
+        this.measureFromNanos = measureFromNanos;
+        this.stopAtNanos = stopAtNanos;
+    }
+
+    @Override
+    public LatencyRecorder call() throws InterruptedException {
+        while (System.nanoTime() < stopAtNanos) {
+            Operation operation = mix.next(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = execute(operation);
+            } catch (IOException ex) {
+                status = LatencyRecorder.NO_RESPONSE;
+            }
+            if (start >= measureFromNanos) {
+                recorder.record(operation, status, System.nanoTime() - start);
+            }
+        }
+        return recorder;
+    }
+
+    private int execute(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case REGISTER -> register();
+            case AUTHENTICATE -> send(post("/api/auth/authenticate", null,
+                    Map.of("email", customer.email(), "password", DataSeeder.PASSWORD))).statusCode();
+            case CREATE_LOAN -> createLoan();
+            case LIST_LOANS -> send(get("/api/loans?customerId=" + customer.id())).statusCode();
+            case LIST_INSTALLMENTS -> send(get("/api/loans/" + randomLoanId() + "/installments")).statusCode();
+            case PAY_LOAN -> send(post("/api/loans/" + randomLoanId() + "/pay", customer.token(),
+                    Map.of("amount", BigDecimal.valueOf(random.nextInt(100, 5_000))))).statusCode();
+        };
+    }
+
+    private int register() throws IOException, InterruptedException {
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("email", "registered-" + REGISTRATIONS.incrementAndGet() + "-" + random.nextInt(1_000_000) + "@loadtest.local");
+        request.put("password", DataSeeder.PASSWORD);
+        request.put("role", "CUSTOMER");
+        request.put("name", "Registered");
+        request.put("surname", "Customer");
+        request.put("creditLimit", new BigDecimal("100000.00"));
+        request.put("usedCreditLimit", BigDecimal.ZERO);
+        return send(post("/api/auth/register", null, request)).statusCode();
+    }
+
+    // Loans this client creates are added to the ones it lists, pays and reads installments of
+    private int createLoan() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post("/api/loans", customer.token(),
+                DataSeeder.randomLoanRequest(customer.id(), random)));
+        if (response.statusCode() == 200) {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id != null) {
+                loanIds.add(id.asLong());
+            }
+        }
+        return response.statusCode();
+    }
+
+    // Loan 0 does not exist; customers without loans then exercise the not-found path
+    private long randomLoanId() {
+        return loanIds.isEmpty() ? 0 : loanIds.get(random.nextInt(loanIds.size()));
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + customer.token())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Object body) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
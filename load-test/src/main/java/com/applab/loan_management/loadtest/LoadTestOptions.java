@@ -0,0 +1,64 @@
+package com.applab.loan_management.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Load test settings, given as --loadtest.<name>=<value> arguments.
+ * Every other argument is passed on to the application, e.g. --spring.threads.virtual.enabled=true.
+ */
+public record LoadTestOptions(int customers,
+                              int loans,
+                              int clients,
+                              Duration warmup,
+                              Duration duration,
+                              OperationMix mix,
+                              Path dataDirectory,
+                              Path report,
+                              long seed,
+                              List<String> applicationArgs) {
+
+    private static final String PREFIX = "--loadtest.";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith(PREFIX) && arg.indexOf('=') > PREFIX.length()) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(PREFIX.length(), separator), arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        LoadTestOptions loadTestOptions = new LoadTestOptions(
+                positive(options, "customers", 200),
+                positive(options, "loans", 1000),
+                positive(options, "clients", 200),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "10"))),
+                Duration.ofSeconds(positive(options, "duration-seconds", 30)),
+                OperationMix.parse(options.getOrDefault("mix", "register=1,authenticate=2,create=2,list=10,installments=10,pay=5")),
+                Path.of(options.getOrDefault("data-dir", "target/load-test-db")).toAbsolutePath(),
+                Path.of(options.getOrDefault("report", "target/load-test-report.json")).toAbsolutePath(),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                List.copyOf(applicationArgs));
+        options.keySet().removeAll(List.of("customers", "loans", "clients", "warmup-seconds", "duration-seconds",
+                "mix", "data-dir", "report", "seed"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown load test options: " + options.keySet());
+        }
+        return loadTestOptions;
+    }
+
+    private static int positive(Map<String, String> options, String name, int defaultValue) {
+        int value = Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+        if (value <= 0) {
+            throw new IllegalArgumentException("loadtest." + name + " must be positive");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,108 @@
+package com.applab.loan_management.loadtest;
+
+import com.applab.loan_management.loadtest.LatencyRecorder.OperationSamples;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/* Machine-readable result of a run: throughput per second and latency percentiles in milliseconds,
+ * per operation and in total, together with the settings the run used.
+ * A request counts as successful when it got a 2xx response.
+ */
+public final class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private LoadTestReport() {}
+
+    public static Map<String, Object> build(LoadTestOptions options, LatencyRecorder recorder, double measuredSeconds) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("customers", options.customers());
+        settings.put("loans", options.loans());
+        settings.put("clients", options.clients());
+        settings.put("warmupSeconds", options.warmup().toSeconds());
+        settings.put("durationSeconds", options.duration().toSeconds());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().getWeights().forEach((operation, weight) -> mix.put(operation.getKey(), weight));
+        settings.put("mix", mix);
+        settings.put("seed", options.seed());
+        settings.put("applicationArgs", options.applicationArgs());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        recorder.getSamples().forEach((operation, samples) ->
+                operations.put(operation.getKey(), summarize(samples, measuredSeconds)));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("settings", settings);
+        report.put("measuredSeconds", round(measuredSeconds));
+        report.put("total", summarize(recorder.combined(), measuredSeconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    public static void write(Map<String, Object> report, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private static Map<String, Object> summarize(OperationSamples samples, double measuredSeconds) {
+        long[] sorted = samples.sortedLatencies();
+        long successful = samples.getStatusCounts().entrySet().stream()
+                .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + (percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile)),
+                    toMillis(percentileOf(sorted, percentile)));
+        }
+        latency.put("max", toMillis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        long sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        latency.put("mean", toMillis(sorted.length == 0 ? 0 : (double) sum / sorted.length));
+
+        Map<String, Long> statusCodes = new TreeMap<>();
+        samples.getStatusCounts().forEach((status, count) ->
+                statusCodes.put(status == LatencyRecorder.NO_RESPONSE ? "no_response" : String.valueOf(status), count));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", samples.getCount());
+        summary.put("successful", successful);
+        summary.put("throughputPerSecond", round(samples.getCount() / measuredSeconds));
+        summary.put("successfulPerSecond", round(successful / measuredSeconds));
+        summary.put("latencyMillis", latency);
+        summary.put("statusCodes", statusCodes);
+        return summary;
+    }
+
+    // Nearest-rank percentile
+    private static long percentileOf(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double toMillis(double nanos) {
+        return round(nanos / 1_000_000);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,83 @@
+package com.applab.loan_management.loadtest;
+
+import com.applab.loan_management.LoanManagementApplication;
+import com.applab.loan_management.loadtest.DataSeeder.SeededCustomer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/* Self-contained end-to-end load test: boots the application on a random port against a file-backed H2,
+ * seeds customers and loans, replays the operation mix from many concurrent clients on virtual threads
+ * and writes throughput and latency percentiles to a JSON report.
+ *
+ *   java -jar load-test/target/load-test.jar --loadtest.clients=500 --loadtest.duration-seconds=60
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        // Defaults for the embedded server; any application argument overrides them
+        Map<String, Object> defaults = Map.of(
+                "server.port", "0",
+                "spring.datasource.url", "jdbc:h2:file:" + options.dataDirectory().resolve("loandb") + ";DB_CLOSE_ON_EXIT=FALSE",
+                "spring.jpa.hibernate.ddl-auto", "create",
+                "spring.jpa.show-sql", "false",
+                "spring.h2.console.enabled", "false");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanManagementApplication.class)
+                .properties(defaults)
+                .run(options.applicationArgs().toArray(new String[0]))) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            SplittableRandom random = new SplittableRandom(options.seed());
+
+            long seedingStart = System.nanoTime();
+            List<SeededCustomer> customers = new DataSeeder(context).seed(options.customers(), options.loans(), random);
+            System.out.printf("load-test: seeded %d customers and %d loans in %.1f s%n",
+                    options.customers(), options.loans(), (System.nanoTime() - seedingStart) / 1e9);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            double measuredSeconds = run(options, baseUrl, customers, random, recorder);
+
+            Map<String, Object> report = LoadTestReport.build(options, recorder, measuredSeconds);
+            LoadTestReport.write(report, options.report());
+            System.out.printf("load-test: %s%nload-test: report written to %s%n", report.get("total"), options.report());
+        }
+    }
+
+    // Returns the length of the measured part of the run, from the end of the warmup until the last client stopped
+    private static double run(LoadTestOptions options, String baseUrl, List<SeededCustomer> customers,
+                              SplittableRandom random, LatencyRecorder recorder) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long stopAt = measureFrom + options.duration().toNanos();
+
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>(options.clients());
+            for (int i = 0; i < options.clients(); i++) {
+                futures.add(clients.submit(new LoadClient(httpClient, objectMapper, baseUrl,
+                        customers.get(i % customers.size()), options.mix(), random.split(), measureFrom, stopAt)));
+            }
+            for (Future<LatencyRecorder> future : futures) {
+                future.get().mergeInto(recorder);
+            }
+        }
+        return (System.nanoTime() - measureFrom) / 1e9;
+    }
+}
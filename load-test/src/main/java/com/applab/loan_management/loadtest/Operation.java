@@ -0,0 +1,30 @@
+package com.applab.loan_management.loadtest;
+
+// The API calls a load test client replays; the key is the name used in the mix and the report
+public enum Operation {
+    REGISTER("register"),
+    AUTHENTICATE("authenticate"),
+    CREATE_LOAN("create"),
+    LIST_LOANS("list"),
+    LIST_INSTALLMENTS("installments"),
+    PAY_LOAN("pay");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "', expected one of register, authenticate, create, list, installments, pay");
+    }
+}
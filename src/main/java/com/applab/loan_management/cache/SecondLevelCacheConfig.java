@@ -0,0 +1,50 @@
+package com.applab.loan_management.cache;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.UUID;
+
+/* Hibernate second-level cache on Ehcache, through the JCache region factory (see spring.jpa.properties).
+ * Each application context gets a cache manager of its own, built from loan.cache.config. Otherwise the JCache
+ * provider would hand one shared manager to every session factory in the JVM, including test contexts on
+ * different databases, and Hibernate closes that manager as soon as any one of them shuts down.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(
+            @Value("${loan.cache.config:classpath:ehcache.xml}") Resource configuration) {
+        return properties -> {
+            if (Boolean.parseBoolean(String.valueOf(properties.get(CacheSettings.USE_SECOND_LEVEL_CACHE)))) {
+                // Closed by Hibernate together with the session factory
+                properties.put(ConfigSettings.CACHE_MANAGER, createCacheManager(configuration));
+            }
+        };
+    }
+
+    private CacheManager createCacheManager(Resource configuration) {
+        try {
+            ClassLoader classLoader = getClass().getClassLoader();
+            EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                    EhcacheCachingProvider.class.getName(), classLoader);
+            return provider.getCacheManager(URI.create("urn:loan-management:" + UUID.randomUUID()),
+                    new XmlConfiguration(configuration.getURL(), classLoader));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read the second-level cache configuration " + configuration, ex);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.applab.loan_management.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/* Hit and miss counts and the hit ratio of the second-level cache regions and of the query cache:
+ * loan.cache.requests{region, result} and loan.cache.hit_ratio{region}, with region "query" for the query cache.
+ * Read from Hibernate's statistics, so they stay at zero unless hibernate.generate_statistics is enabled.
+ */
+@Component
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    static final List<String> ENTITY_REGIONS = List.of("customers");
+    static final String QUERY_REGION = "query";
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : ENTITY_REGIONS) {
+            CacheRegionStatistics regionStatistics;
+            try {
+                regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            } catch (IllegalArgumentException ex) {
+                // The second-level cache is disabled
+                continue;
+            }
+            bind(registry, region, regionStatistics,
+                    CacheRegionStatistics::getHitCount, CacheRegionStatistics::getMissCount);
+        }
+        bind(registry, QUERY_REGION, statistics, Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private static <T> void bind(MeterRegistry registry, String region, T source,
+                                 ToLongFunction<T> hits, ToLongFunction<T> misses) {
+        FunctionCounter.builder("loan.cache.requests", source, s -> hits.applyAsLong(s))
+                .description("Second-level and query cache lookups")
+                .tags("region", region, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("loan.cache.requests", source, s -> misses.applyAsLong(s))
+                .description("Second-level and query cache lookups")
+                .tags("region", region, "result", "miss")
+                .register(registry);
+        Gauge.builder("loan.cache.hit_ratio", source, s -> hitRatio(hits.applyAsLong(s), misses.applyAsLong(s)))
+                .description("Share of second-level and query cache lookups served from the cache since startup")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    static double hitRatio(long hits, long misses) {
+        long lookups = hits + misses;
+        return lookups == 0 ? Double.NaN : (double) hits / lookups;
+    }
+}
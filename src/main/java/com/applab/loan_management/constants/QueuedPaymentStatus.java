@@ -0,0 +1,7 @@
+package com.applab.loan_management.constants;
+
+public enum QueuedPaymentStatus {
+    PENDING,
+    APPLIED,
+    REJECTED
+}
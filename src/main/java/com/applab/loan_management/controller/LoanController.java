@@ -4,18 +4,33 @@ import com.applab.loan_management.dto.CreateLoanRequest;
 import com.applab.loan_management.dto.CreateLoanResponse;
 import com.applab.loan_management.dto.LoanListResponse;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanPaymentSummaryResponse;
+import com.applab.loan_management.dto.LoanPortfolioReportResponse;
 import com.applab.loan_management.dto.PayLoanRequest;
 import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
 import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.service.GroupCommitExecutor;
+import com.applab.loan_management.service.LoanLedgerService;
+import com.applab.loan_management.service.LoanReportService;
 import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.service.PaymentImportService;
+import com.applab.loan_management.service.PaymentQueueService;
 import com.applab.loan_management.util.LoanMapperUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -25,10 +40,17 @@ import java.util.List;
 public class LoanController {
 
     private final LoanService loanService;
+    private final LoanLedgerService loanLedgerService;
+    private final PaymentImportService paymentImportService;
+    private final PaymentQueueService paymentQueueService;
+    private final GroupCommitExecutor groupCommitExecutor;
+    private final LoanReportService loanReportService;
 
     @PostMapping
     public ResponseEntity<CreateLoanResponse> createLoan(@Valid @RequestBody CreateLoanRequest request) {
-        Loan loan = loanService.createLoan(request);
+        Loan loan = groupCommitExecutor.execute(
+                () -> loanService.originateLoan(request),
+                () -> loanService.createLoan(request));
         CreateLoanResponse response = LoanMapperUtil.toCreateLoanResponse(loan);
         
         return ResponseEntity.ok(response);
@@ -57,7 +79,54 @@ public class LoanController {
             @PathVariable @Min(value = 1, message = "Loan ID must be a positive number") Long loanId,
             @Valid @RequestBody PayLoanRequest request) {
         
-        PayLoanResponse response = loanService.payLoan(loanId, request);
+        PayLoanResponse response = groupCommitExecutor.execute(
+                () -> loanService.applyPayment(loanId, request),
+                () -> loanService.payLoan(loanId, request));
         return ResponseEntity.ok(response);
     }
-} 
\ No newline at end of file
+
+    // Async mode: the payment is queued and applied by a background worker; poll the returned payment ID
+    @PostMapping(value = "/{loanId}/pay", params = "async=true")
+    public ResponseEntity<QueuedPaymentResponse> payLoanAsync(
+            @PathVariable @Min(value = 1, message = "Loan ID must be a positive number") Long loanId,
+            @Valid @RequestBody PayLoanRequest request) {
+        
+        QueuedPaymentResponse response = paymentQueueService.enqueuePayment(loanId, request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/loans/payments/" + response.getPaymentId())
+                .body(response);
+    }
+
+    @GetMapping("/payments/{paymentId}")
+    public ResponseEntity<QueuedPaymentResponse> getQueuedPayment(
+            @PathVariable @Min(value = 1, message = "Payment ID must be a positive number") Long paymentId) {
+        
+        QueuedPaymentResponse response = paymentQueueService.getPaymentStatus(paymentId);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{loanId}/payment-summary")
+    public ResponseEntity<LoanPaymentSummaryResponse> getPaymentSummary(
+            @PathVariable @Min(value = 1, message = "Loan ID must be a positive number") Long loanId) {
+        
+        LoanPaymentSummaryResponse summary = loanLedgerService.getPaymentSummary(loanId);
+        return ResponseEntity.ok(summary);
+    }
+
+    // Portfolio totals across all customers, gathered from every shard
+    @GetMapping("/reports/portfolio")
+    public ResponseEntity<LoanPortfolioReportResponse> getPortfolioReport() {
+        return ResponseEntity.ok(loanReportService.getPortfolioReport());
+    }
+
+    // Streams a "loanId,amount" CSV settlement file and streams back a per-row CSV report
+    @PostMapping(value = "/payments/import", consumes = "text/csv", produces = "text/csv")
+    public void importPayments(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        paymentImportService.importPayments(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8),
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package com.applab.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Aggregate of a loan's payment ledger entries, used for snapshots and snapshot tails
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerTotals {
+    private Long loanId;
+    private Long customerId;
+    private Long entryCount;
+    private BigDecimal totalAmount;
+    private LocalDate lastPaymentDate;
+}
@@ -0,0 +1,35 @@
+package com.applab.loan_management.dto;
+
+import com.applab.loan_management.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Flat read model for installment rows, carrying the owning customer ID for authorization checks
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanInstallmentProjection {
+    private Long id;
+    private Long loanId;
+    private Long customerId;
+    private Money amount;
+    private LocalDate dueDate;
+    private LocalDate paymentDate;
+    private Money paidAmount;
+    private Boolean isPaid;
+
+    // Scheduled installment without its payment state
+    public LoanInstallmentProjection(Long id, Long loanId, Long customerId, Money amount, LocalDate dueDate) {
+        this(id, loanId, customerId, amount, dueDate, (LocalDate) null, null, null);
+    }
+
+    // Installment with the ledger entry that paid it, if any
+    public LoanInstallmentProjection(Long id, Long loanId, Long customerId, Money amount, LocalDate dueDate,
+                                     Long ledgerEntryId, LocalDate paymentDate, BigDecimal paidAmount) {
+        this(id, loanId, customerId, amount, dueDate, paymentDate, Money.ofNullable(paidAmount), ledgerEntryId != null);
+    }
+}
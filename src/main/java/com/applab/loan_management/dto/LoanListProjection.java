@@ -0,0 +1,27 @@
+package com.applab.loan_management.dto;
+
+import com.applab.loan_management.entity.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat read model for loan list rows, with the stored total and the unpaid installment count
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanListProjection {
+    private Long id;
+    private Long customerId;
+    private String customerName;
+    private String customerSurname;
+    private Money loanAmount;
+    private BigDecimal interestRate;
+    private Integer numberOfInstallments;
+    private LocalDateTime createDate;
+    private Boolean isPaid;
+    private Money totalAmount;
+    private Long remainingInstallments;
+}
@@ -0,0 +1,20 @@
+package com.applab.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanPaymentSummaryResponse {
+    private Long loanId;
+    private long installmentsPaid;
+    private BigDecimal totalPaidAmount;
+    private LocalDate lastPaymentDate;
+}
@@ -0,0 +1,35 @@
+package com.applab.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanPortfolioReportResponse {
+    private long loanCount;
+    private long openLoanCount;
+    private long borrowerCount;
+    private BigDecimal totalLoanAmount;
+    private BigDecimal outstandingAmount;
+    private List<ShardTotals> shards;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ShardTotals {
+        private int shard;
+        private long loanCount;
+        private long openLoanCount;
+        private long borrowerCount;
+        private BigDecimal totalLoanAmount;
+        private BigDecimal outstandingAmount;
+    }
+}
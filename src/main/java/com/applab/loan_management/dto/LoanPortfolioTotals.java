@@ -0,0 +1,19 @@
+package com.applab.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Aggregate of all loans of one database (one shard of a sharded loan book); sums are null without loans
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanPortfolioTotals {
+    private Long loanCount;
+    private Long openLoanCount;
+    private Long borrowerCount;
+    private BigDecimal loanAmount;
+    private BigDecimal outstandingAmount;
+}
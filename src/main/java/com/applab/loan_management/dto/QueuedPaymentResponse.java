@@ -0,0 +1,28 @@
+package com.applab.loan_management.dto;
+
+import com.applab.loan_management.constants.QueuedPaymentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedPaymentResponse {
+    private Long paymentId;
+    private Long loanId;
+    private BigDecimal amount;
+    private QueuedPaymentStatus status;
+    private Integer installmentsPaid;
+    private BigDecimal totalAmountSpent;
+    private Boolean isLoanFullyPaid;
+    private String errorCode;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,20 @@
+package com.applab.loan_management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Aggregated executions of one statement shape, as returned by the sqlstats actuator endpoint
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SqlStatementStatistics {
+    private String sql;
+    private long count;
+    private long errors;
+    private double totalMillis;
+    private double meanMillis;
+    private double maxMillis;
+}
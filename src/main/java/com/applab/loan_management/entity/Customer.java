@@ -4,15 +4,23 @@ import com.applab.loan_management.constants.Role;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
 @Table(name = "customers")
-@Data
+// Read by ID on every loan listing and for every loan's name/surname, changed only with a loan or payment.
+// Read-write: an update replaces the cached entry on commit, and until then readers go to the database.
+// Credit changes may start from a stale cached entry: its version then fails them on commit
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -39,11 +47,38 @@ public class Customer {
 
     // Credit fields - only required for CUSTOMER role, null for ADMIN
     @Column(precision = 10, scale = 2)
-    private BigDecimal creditLimit;
+    private Money creditLimit;
 
     @Column(precision = 10, scale = 2)
-    private BigDecimal usedCreditLimit;
+    private Money usedCreditLimit;
+
+    // Optimistic lock version, bumped on every credit change, so that concurrent payments on different loans of
+    // the customer conflict (and are retried) instead of overwriting each other's used credit limit
+    @Version
+    private Long version;
 
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Loan> loans;
-}
\ No newline at end of file
+
+    // ID-based identity, final for the same proxy-safety reason as Loan
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Customer other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return Customer.class.hashCode();
+    }
+
+    @Override
+    public final String toString() {
+        return "Customer(id=" + getId() + ")";
+    }
+}
@@ -3,8 +3,9 @@ package com.applab.loan_management.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,8 +13,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "loans")
-@Data
+@Table(name = "loans", indexes = {
+        @Index(name = "idx_loans_customer_id", columnList = "customer_id, id")
+})
+@Getter
+@Setter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +32,7 @@ public class Loan {
     private Customer customer;
     
     @Column(name = "loan_amount", nullable = false)
-    private BigDecimal loanAmount;
+    private Money loanAmount;
     
     @Column(name = "number_of_installments", nullable = false)
     private Integer numberOfInstallments;
@@ -36,6 +40,14 @@ public class Loan {
     @Column(name = "interest_rate", nullable = false)
     private BigDecimal interestRate;
     
+    // Loan amount plus interest, and the amount of each installment, fixed at origination.
+    // Nullable only for rows created before these columns existed, until LoanTotalsBackfill has run
+    @Column(name = "total_amount")
+    private Money totalAmount;
+    
+    @Column(name = "installment_amount")
+    private Money installmentAmount;
+    
     @Column(name = "create_date", nullable = false)
     private LocalDateTime createDate;
     
@@ -44,4 +56,33 @@ public class Loan {
     
     @OneToMany(mappedBy = "loan", cascade = CascadeType.ALL)
     private List<LoanInstallment> installments = new ArrayList<>();
-} 
\ No newline at end of file
+    
+    // Optimistic lock version, bumped on every payment that touches this row
+    @Version
+    private Long version;
+
+    // Identity is the database ID only, so equality never reads associations or scalar state.
+    // These methods are final so a lazy proxy runs them as-is instead of initializing itself;
+    // getId() is served from the proxy's identifier without a load
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Loan other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    // Constant per entity type so the hash stays stable when a new entity is assigned its ID
+    @Override
+    public final int hashCode() {
+        return Loan.class.hashCode();
+    }
+
+    @Override
+    public final String toString() {
+        return "Loan(id=" + getId() + ")";
+    }
+}
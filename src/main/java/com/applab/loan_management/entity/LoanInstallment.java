@@ -3,22 +3,29 @@ package com.applab.loan_management.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 
+// Scheduled installment of a loan; rows are inserted with their loan and never updated.
+// Whether an installment is paid is derived from the payment ledger (see LoanLedgerService)
 @Entity
-@Table(name = "loan_installments")
-@Data
+@Immutable
+@Table(name = "loan_installments", indexes = {
+        @Index(name = "idx_loan_installments_loan_due", columnList = "loan_id, due_date")
+})
+@Getter
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class LoanInstallment {
     
+    // Sequence-generated so that the installments of a new loan are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_installments_seq")
+    @SequenceGenerator(name = "loan_installments_seq", sequenceName = "loan_installments_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,17 +33,30 @@ public class LoanInstallment {
     private Loan loan;
     
     @Column(nullable = false)
-    private BigDecimal amount;
-    
-    @Column(name = "paid_amount")
-    private BigDecimal paidAmount;
+    private Money amount;
     
     @Column(name = "due_date", nullable = false)
     private LocalDate dueDate;
-    
-    @Column(name = "payment_date")
-    private LocalDate paymentDate;
-    
-    @Column(name = "is_paid", nullable = false)
-    private Boolean isPaid;
-} 
\ No newline at end of file
+
+    // ID-based identity, final for the same proxy-safety reason as Loan
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LoanInstallment other)) {
+            return false;
+        }
+        return getId() != null && getId().equals(other.getId());
+    }
+
+    @Override
+    public final int hashCode() {
+        return LoanInstallment.class.hashCode();
+    }
+
+    @Override
+    public final String toString() {
+        return "LoanInstallment(id=" + getId() + ")";
+    }
+}
@@ -0,0 +1,44 @@
+package com.applab.loan_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Compacted payment state of a loan, covering the ledger entries of its first installmentsPaid installments
+@Entity
+@Table(name = "loan_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanSnapshot {
+
+    @Id
+    @Column(name = "loan_id")
+    private Long loanId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(name = "installments_paid", nullable = false)
+    private Long installmentsPaid;
+
+    @Column(name = "total_paid", nullable = false)
+    private BigDecimal totalPaid;
+
+    @Column(name = "last_payment_date")
+    private LocalDate lastPaymentDate;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    // Optimistic lock version, so that of two instances compacting the same tail, only one folds it in
+    @Version
+    private Long version;
+}
@@ -0,0 +1,128 @@
+package com.applab.loan_management.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/* Immutable monetary amount held as a long count of minor units (cents).
+ * Arithmetic stays in long and rounds explicitly, matching the BigDecimal results the loan math
+ * produced before (scale 2, HALF_UP). BigDecimal is only used at the edges: request/response DTOs
+ * and the NUMERIC(…, 2) columns, see MoneyConverter.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    // Long.MAX_VALUE cents has 17 digits before the decimal point
+    private static final int MAX_INTEGER_DIGITS = 17;
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+            10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    // Converts a decimal amount, rounding HALF_UP to whole cents (as the NUMERIC(…, 2) columns always stored it)
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.HALF_UP);
+    }
+
+    // Amounts beyond a long count of cents throw ArithmeticException, before any rescaling of a huge exponent
+    public static Money of(BigDecimal amount, RoundingMode roundingMode) {
+        if (amount.precision() - amount.scale() > MAX_INTEGER_DIGITS) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return ofMinor(amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact());
+    }
+
+    public static Money ofNullable(BigDecimal amount) {
+        return amount == null ? null : of(amount);
+    }
+
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    // this / divisor, rounded HALF_UP to cents (BigDecimal.divide(divisor, 2, HALF_UP))
+    public Money dividedBy(int divisor) {
+        if (divisor <= 0) {
+            throw new ArithmeticException("Divisor must be positive: " + divisor);
+        }
+        return ofMinor(divideHalfUp(minorUnits, divisor));
+    }
+
+    // this * (1 + rate), rounded HALF_UP to cents (BigDecimal.multiply(ONE.add(rate)).setScale(2, HALF_UP))
+    public Money plusInterest(BigDecimal rate) {
+        int rateScale = Math.max(rate.scale(), 0);
+        if (rateScale < POWERS_OF_TEN.length && rate.precision() <= 18) {
+            long scale = POWERS_OF_TEN[rateScale];
+            try {
+                long factor = Math.addExact(scale, rate.movePointRight(rateScale).longValueExact());
+                return ofMinor(divideHalfUp(Math.multiplyExact(minorUnits, factor), scale));
+            } catch (ArithmeticException overflow) {
+                // Fall through to the exact BigDecimal computation
+            }
+        }
+        return of(toBigDecimal().multiply(BigDecimal.ONE.add(rate)));
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    // HALF_UP division for a positive divisor: ties round away from zero
+    private static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money other && minorUnits == other.minorUnits);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.applab.loan_management.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Append-only record of a payment applied to one installment; rows are inserted once and never updated.
+// Installments are paid in schedule order, so a loan's entries are numbered 1, 2, ... without gaps
+@Entity
+@Immutable
+@Table(name = "payment_ledger", indexes = {
+        @Index(name = "idx_payment_ledger_loan_installment", columnList = "loan_id, installment_number", unique = true)
+})
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentLedgerEntry {
+
+    // Sequence-generated, like installment IDs, so that the entries of a payment are inserted in one JDBC batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_ledger_seq")
+    @SequenceGenerator(name = "payment_ledger_seq", sequenceName = "payment_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false, updatable = false)
+    private Long loanId;
+
+    @Column(name = "customer_id", nullable = false, updatable = false)
+    private Long customerId;
+
+    @Column(name = "installment_id", nullable = false, updatable = false)
+    private Long installmentId;
+
+    // Position of the installment in its loan's schedule, starting at 1
+    @Column(name = "installment_number", nullable = false, updatable = false)
+    private Integer installmentNumber;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "payment_date", nullable = false, updatable = false)
+    private LocalDate paymentDate;
+
+    @Column(name = "recorded_at", nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+}
@@ -0,0 +1,61 @@
+package com.applab.loan_management.entity;
+
+import com.applab.loan_management.constants.QueuedPaymentStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Payment accepted asynchronously; stays PENDING until a queue worker applies or rejects it
+@Entity
+@Table(name = "payment_queue", indexes = {
+        @Index(name = "idx_payment_queue_status_id", columnList = "status, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueuedPayment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private QueuedPaymentStatus status;
+
+    @Column(name = "installments_paid")
+    private Integer installmentsPaid;
+
+    @Column(name = "total_amount_spent")
+    private BigDecimal totalAmountSpent;
+
+    @Column(name = "is_loan_fully_paid")
+    private Boolean isLoanFullyPaid;
+
+    @Column(name = "error_code")
+    private String errorCode;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
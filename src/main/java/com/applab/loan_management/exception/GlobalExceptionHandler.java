@@ -1,9 +1,12 @@
 package com.applab.loan_management.exception;
 
 import com.applab.loan_management.dto.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,8 +20,19 @@ import java.util.ArrayList;
 import java.util.List;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    // Every error response is counted by its error code, so each rejection type has its own counter
+    private ResponseEntity<ErrorResponse> respond(HttpStatus status, ErrorResponse errorResponse) {
+        meterRegistry.counter("loan.rejections",
+                "error", errorResponse.getError(),
+                "status", String.valueOf(status.value())).increment();
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+
     // ========== REGISTRATION EXCEPTIONS ==========
     
     @ExceptionHandler(EmailAlreadyExistsException.class)
@@ -33,7 +47,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        return respond(HttpStatus.CONFLICT, errorResponse);
     }
 
     // ========== AUTHENTICATION EXCEPTIONS ==========
@@ -50,7 +64,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        return respond(HttpStatus.UNAUTHORIZED, errorResponse);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
@@ -65,7 +79,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         // To not leak information about the user instead of 404 Error Code
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        return respond(HttpStatus.UNAUTHORIZED, errorResponse);
     }
 
     // ========== LOAN CREATION EXCEPTIONS ==========
@@ -82,7 +96,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        return respond(HttpStatus.NOT_FOUND, errorResponse);
     }
 
     @ExceptionHandler(InsufficientCreditLimitException.class)
@@ -97,7 +111,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler(AdminCannotCreateLoanException.class)
@@ -112,7 +126,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        return respond(HttpStatus.FORBIDDEN, errorResponse);
     }
 
     @ExceptionHandler(InvalidParameterException.class)
@@ -127,7 +141,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler(LoanNotFoundException.class)
@@ -142,7 +156,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        return respond(HttpStatus.NOT_FOUND, errorResponse);
     }
 
     // ========== VALIDATION EXCEPTIONS ==========
@@ -169,7 +183,7 @@ public class GlobalExceptionHandler {
                 .details(details)
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     // ========== GENERIC EXCEPTIONS ==========
@@ -186,7 +200,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        return respond(HttpStatus.NOT_FOUND, errorResponse);
     }
 
     @ExceptionHandler(IllegalStateException.class)
@@ -201,7 +215,23 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
+    }
+
+    // Keeps the offending SQL out of the response
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<ErrorResponse> handleQueryBudgetExceeded(
+            QueryBudgetExceededException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("QUERY_BUDGET_EXCEEDED")
+                .message("The request exceeded its SQL statement budget")
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse);
     }
 
     @ExceptionHandler(Exception.class)
@@ -216,7 +246,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
@@ -237,7 +267,7 @@ public class GlobalExceptionHandler {
                 .details(details)
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler(UnauthorizedAccessException.class)
@@ -252,7 +282,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        return respond(HttpStatus.FORBIDDEN, errorResponse);
     }
 
     @ExceptionHandler(LoanDataAccessException.class)
@@ -267,7 +297,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, errorResponse);
     }
 
     @ExceptionHandler(LoanAlreadyPaidException.class)
@@ -282,7 +312,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler(InvalidPaymentAmountException.class)
@@ -297,7 +327,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
     }
 
     @ExceptionHandler(NoPayableInstallmentsException.class)
@@ -312,7 +342,53 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        return respond(HttpStatus.BAD_REQUEST, errorResponse);
+    }
+
+    @ExceptionHandler(PaymentConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentConflict(
+            PaymentConflictException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("PAYMENT_CONFLICT")
+                .message(ex.getMessage())
+                .status(HttpStatus.CONFLICT.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        return respond(HttpStatus.CONFLICT, errorResponse);
+    }
+
+    // A loan creation whose credit change conflicted with a concurrent credit change of the same customer
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentUpdate(
+            OptimisticLockingFailureException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("CONCURRENT_UPDATE")
+                .message("The request conflicted with a concurrent update of the same customer. Please retry")
+                .status(HttpStatus.CONFLICT.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        return respond(HttpStatus.CONFLICT, errorResponse);
+    }
+
+    @ExceptionHandler(QueuedPaymentNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleQueuedPaymentNotFound(
+            QueuedPaymentNotFoundException ex, HttpServletRequest request) {
+        
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("PAYMENT_NOT_FOUND")
+                .message(ex.getMessage())
+                .status(HttpStatus.NOT_FOUND.value())
+                .timestamp(LocalDateTime.now())
+                .path(request.getRequestURI())
+                .build();
+        
+        return respond(HttpStatus.NOT_FOUND, errorResponse);
     }
 
     @ExceptionHandler(CustomerAccessDeniedException.class)
@@ -327,7 +403,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        return respond(HttpStatus.FORBIDDEN, errorResponse);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
@@ -342,7 +418,7 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        return respond(HttpStatus.FORBIDDEN, errorResponse);
     }
 
     @ExceptionHandler(AuthenticationException.class)
@@ -357,6 +433,6 @@ public class GlobalExceptionHandler {
                 .path(request.getRequestURI())
                 .build();
         
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        return respond(HttpStatus.UNAUTHORIZED, errorResponse);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.applab.loan_management.exception;
+
+public class PaymentConflictException extends RuntimeException {
+    public PaymentConflictException(Long loanId, int attempts, Throwable cause) {
+        super("Payment for loan ID " + loanId + " could not be applied after " + attempts
+                + " attempt(s) due to concurrent updates. Please retry", cause);
+    }
+}
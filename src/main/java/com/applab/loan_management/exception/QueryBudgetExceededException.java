@@ -0,0 +1,7 @@
+package com.applab.loan_management.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(int budget, String sql) {
+        super("Query budget of " + budget + " statement(s) exceeded by: " + sql);
+    }
+}
@@ -0,0 +1,7 @@
+package com.applab.loan_management.exception;
+
+public class QueuedPaymentNotFoundException extends RuntimeException {
+    public QueuedPaymentNotFoundException(Long paymentId) {
+        super("Queued payment not found with ID: " + paymentId);
+    }
+}
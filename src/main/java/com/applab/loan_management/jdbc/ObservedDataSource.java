@@ -0,0 +1,123 @@
+package com.applab.loan_management.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.function.Supplier;
+
+/* Data source whose connections report every statement execution, and how long it took, to the statement listeners.
+ * Connections and statements are JDK proxies around the pooled ones; everything except the
+ * execute* calls is passed straight through. A batch counts as one execution.
+ */
+public class ObservedDataSource extends DelegatingDataSource {
+
+    private final Supplier<List<StatementListener>> listenerSupplier;
+    private volatile List<StatementListener> listeners;
+
+    // Listeners are resolved on first use, so that they may depend on beans created after the data source
+    public ObservedDataSource(DataSource targetDataSource, Supplier<List<StatementListener>> listenerSupplier) {
+        super(targetDataSource);
+        this.listenerSupplier = listenerSupplier;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return observe(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return observe(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection observe(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private List<StatementListener> listeners() {
+        List<StatementListener> current = listeners;
+        if (current == null) {
+            current = listenerSupplier.get();
+            listeners = current;
+        }
+        return current;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall know their SQL up front, createStatement gets it per execute call
+                String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                        : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+                        new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String statementSql ? statementSql : sql;
+            List<StatementListener> current = listeners();
+            for (StatementListener listener : current) {
+                listener.beforeExecute(executedSql);
+            }
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokeTarget(target, method, args);
+                failed = false;
+                return result;
+            } finally {
+                long elapsedNanos = System.nanoTime() - start;
+                for (StatementListener listener : current) {
+                    listener.afterExecute(executedSql, elapsedNanos, failed);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.applab.loan_management.jdbc;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+/* Wraps the application's connection pools in an ObservedDataSource, so that every StatementListener bean
+ * sees the statements executed by JPA, Spring Data and JDBC code alike.
+ * Proxies over other data sources (the read/write routing proxy of ReadWriteDataSourceConfig) are left as
+ * they are: the pools behind them are already observed, and each statement must be seen once.
+ */
+@Configuration
+public class ObservedDataSourceConfig {
+
+    // Static, as bean post processors are created before regular configuration beans
+    @Bean
+    public static BeanPostProcessor observedDataSourcePostProcessor(ObjectProvider<StatementListener> listeners) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DelegatingDataSource)) {
+                    return new ObservedDataSource(dataSource, () -> listeners.orderedStream().toList());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.exception.QueryBudgetExceededException;
+import org.springframework.stereotype.Component;
+
+/* Counts the statements executed on the current thread while a scope is open.
+ * Scopes nest: a statement counts towards every open scope of the thread. An enforcing scope fails the
+ * statement that would exceed its budget with QueryBudgetExceededException, before it reaches the database.
+ * Work handed off to another thread (such as a grouped write on the group commit thread) is counted by
+ * resuming the submitting thread's scope there while the submitter waits for it.
+ */
+@Component
+public class QueryCounter implements StatementListener {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    // Opens a scope that only counts
+    public static Scope open() {
+        return open(0, false);
+    }
+
+    // A budget of 0 means unlimited
+    public static Scope open(int budget, boolean enforce) {
+        Scope scope = new Scope(CURRENT.get(), budget, enforce);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    // The innermost open scope of the current thread, or null
+    public static Scope current() {
+        return CURRENT.get();
+    }
+
+    // Counts the current thread's statements towards the given scope (and its enclosing scopes) until the returned
+    // handle is closed, which restores the thread's own scope. Scopes are not thread-safe: the thread that opened
+    // the scope must not execute statements meanwhile
+    public static Resumption resume(Scope scope) {
+        Scope previous = CURRENT.get();
+        CURRENT.set(scope);
+        return () -> CURRENT.set(previous);
+    }
+
+    @Override
+    public void beforeExecute(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count(sql);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Resumption extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final int budget;
+        private final boolean enforce;
+        private int count;
+        private boolean exceeded;
+
+        private Scope(Scope parent, int budget, boolean enforce) {
+            this.parent = parent;
+            this.budget = budget;
+            this.enforce = enforce;
+        }
+
+        private void count(String sql) {
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                if (scope.budget > 0 && scope.count >= scope.budget) {
+                    scope.exceeded = true;
+                    if (scope.enforce) {
+                        throw new QueryBudgetExceededException(scope.budget, sql);
+                    }
+                }
+            }
+            for (Scope scope = this; scope != null; scope = scope.parent) {
+                scope.count++;
+            }
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public int getBudget() {
+            return budget;
+        }
+
+        // True once a statement went over the budget, whether or not it was failed
+        public boolean isExceeded() {
+            return exceeded;
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
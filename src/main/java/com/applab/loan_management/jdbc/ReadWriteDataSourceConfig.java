@@ -0,0 +1,67 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.security.CurrentUserService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/* The application's data source: the primary pool (spring.datasource.*) behind a lazy connection proxy,
+ * which only takes a pooled connection when a transaction runs its first statement. By then the transaction's
+ * read-only flag is known, so with a read replica configured (loan.datasource.replica.url), read-only
+ * transactions are routed through ReplicaRoutingDataSource and all others go to the primary.
+ * The lazy proxy also keeps transactions that never reach the database, such as single-flight followers
+ * or requests rejected before any query, from holding a connection.
+ */
+@Configuration
+public class ReadWriteDataSourceConfig {
+
+    // A sharded loan book has a primary data source per shard instead (see ShardingConfig)
+    @Bean
+    @ConditionalOnExpression("'${loan.sharding.urls:}'.isBlank()")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("loan.datasource.replica.url")
+    @ConfigurationProperties("loan.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primaryProperties,
+                                              @Value("${loan.datasource.replica.url}") String url,
+                                              @Value("${loan.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${loan.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 CurrentUserService currentUserService,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        replicaDataSource.ifAvailable(replica -> dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(
+                primaryDataSource, replica, readYourWritesTracker, currentUserService::getCurrentCustomerId, meterRegistry)));
+        return dataSource;
+    }
+}
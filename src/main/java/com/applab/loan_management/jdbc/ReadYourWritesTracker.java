@@ -0,0 +1,97 @@
+package com.applab.loan_management.jdbc;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/* Remembers which customers wrote recently, so that their reads go to the primary database until the read
+ * replica has caught up (see ReplicaRoutingDataSource). A write counts from its commit; the window is
+ * loan.datasource.replica.read-your-writes-window-ms and should exceed the replica's usual lag.
+ * Only active when a read replica is configured.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    // Beyond this many tracked customers, expired entries are purged on the next write
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Long, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    // Time of the latest write by any customer; entries above are only removed lazily, so idleness is judged by this
+    private final AtomicLong latestWriteNanos;
+
+    @Autowired
+    public ReadYourWritesTracker(@Value("${loan.datasource.replica.url:}") String replicaUrl,
+                                 @Value("${loan.datasource.replica.read-your-writes-window-ms:2000}") long windowMillis) {
+        this(StringUtils.hasText(replicaUrl), windowMillis, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(boolean enabled, long windowMillis, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, windowMillis));
+        this.nanoClock = nanoClock;
+        this.latestWriteNanos = new AtomicLong(nanoClock.getAsLong() - windowNanos);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Records a write by or for the customer; inside a transaction, once it has committed
+    public void recordWrite(Long customerId) {
+        if (!enabled || customerId == null || windowNanos == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(customerId);
+                }
+            });
+        } else {
+            record(customerId);
+        }
+    }
+
+    // True while the customer's last write is within the window
+    public boolean requiresPrimary(Long customerId) {
+        if (customerId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(customerId);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - writtenAt < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(customerId, writtenAt);
+        return false;
+    }
+
+    // True when no customer is within its window, so routing need not look up the current customer
+    public boolean isIdle() {
+        return nanoClock.getAsLong() - latestWriteNanos.get() >= windowNanos;
+    }
+
+    private void record(Long customerId) {
+        long now = nanoClock.getAsLong();
+        lastWriteNanos.put(customerId, now);
+        latestWriteNanos.accumulateAndGet(now, (latest, writtenAt) -> writtenAt - latest > 0 ? writtenAt : latest);
+        if (lastWriteNanos.size() > PURGE_THRESHOLD) {
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.applab.loan_management.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/* Data source of read-only transactions: the read replica, except for a customer within the read-your-writes
+ * window of their last write, whose reads go to the primary. Counts each routing decision in
+ * loan.datasource.reads{target}.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReadYourWritesTracker tracker;
+    private final Supplier<Long> currentCustomerId;
+    private final Map<Target, Counter> readCounters;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker,
+                             Supplier<Long> currentCustomerId, MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.currentCustomerId = currentCustomerId;
+        this.readCounters = Map.of(
+                Target.PRIMARY, readCounter(meterRegistry, Target.PRIMARY),
+                Target.REPLICA, readCounter(meterRegistry, Target.REPLICA));
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder("loan.datasource.reads")
+                .description("Read-only transactions by the database they were routed to")
+                .tag("target", target.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Looking up the current customer parses their token; skip it while nobody wrote recently
+        Target target = !tracker.isIdle() && tracker.requiresPrimary(currentCustomerId.get())
+                ? Target.PRIMARY : Target.REPLICA;
+        readCounters.get(target).increment();
+        return target;
+    }
+}
@@ -0,0 +1,123 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.dto.SqlStatementStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Execution count and latency per statement shape (see SqlNormalizer), plus a slow query log.
+ * Replaces spring.jpa.show-sql: nothing is written per statement, only statements slower than
+ * slow-query-threshold-ms are logged, with their normalized SQL and no parameter values.
+ * Beyond max-statements distinct shapes, further shapes are aggregated as one "other" entry.
+ */
+@Slf4j
+@Component
+public class SqlStatistics implements StatementListener {
+
+    static final String OTHER_STATEMENTS = "(other statements)";
+    static final String PLAIN_BATCH = "(batch of plain statements)";
+
+    private final boolean enabled;
+    private final long slowQueryThresholdNanos;
+    private final int maxStatements;
+    private final Map<String, StatementStats> statements = new ConcurrentHashMap<>();
+    // Hibernate issues a limited set of SQL strings, so normalizing each one once is enough
+    private final Map<String, String> shapes = new ConcurrentHashMap<>();
+
+    public SqlStatistics(@Value("${loan.sql.statistics.enabled:true}") boolean enabled,
+                         @Value("${loan.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMillis,
+                         @Value("${loan.sql.statistics.max-statements:500}") int maxStatements) {
+        this.enabled = enabled;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+        this.maxStatements = Math.max(1, maxStatements);
+    }
+
+    @Override
+    public void afterExecute(String sql, long elapsedNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        StatementStats stats = statements.get(shape);
+        if (stats == null) {
+            stats = statements.size() < maxStatements
+                    ? statements.computeIfAbsent(shape, key -> new StatementStats())
+                    : statements.computeIfAbsent(OTHER_STATEMENTS, key -> new StatementStats());
+        }
+        stats.record(elapsedNanos, failed);
+
+        if (slowQueryThresholdNanos > 0 && elapsedNanos >= slowQueryThresholdNanos) {
+            log.warn("Slow SQL statement ({} ms{}): {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    failed ? ", failed" : "", shape);
+        }
+    }
+
+    // The statement shapes with the highest total execution time, highest first
+    public List<SqlStatementStatistics> topByTotalTime(int limit) {
+        return statements.entrySet().stream()
+                .map(entry -> entry.getValue().toStatistics(entry.getKey()))
+                .sorted(Comparator.comparingDouble(SqlStatementStatistics::getTotalMillis).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private String shapeOf(String sql) {
+        if (sql == null) {
+            return PLAIN_BATCH;
+        }
+        String shape = shapes.get(sql);
+        if (shape == null) {
+            shape = SqlNormalizer.normalize(sql);
+            // IN lists of every length are distinct strings; stop caching rather than grow without bound
+            if (shapes.size() < maxStatements * 4) {
+                shapes.put(sql, shape);
+            }
+        }
+        return shape;
+    }
+
+    private static final class StatementStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long elapsedNanos, boolean failed) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        private SqlStatementStatistics toStatistics(String sql) {
+            long executions = count.sum();
+            double totalMillis = totalNanos.sum() / 1e6;
+            return SqlStatementStatistics.builder()
+                    .sql(sql)
+                    .count(executions)
+                    .errors(errors.sum())
+                    .totalMillis(round(totalMillis))
+                    .meanMillis(executions == 0 ? 0 : round(totalMillis / executions))
+                    .maxMillis(round(maxNanos.get() / 1e6))
+                    .build();
+        }
+
+        private static double round(double millis) {
+            return Math.round(millis * 1000) / 1000.0;
+        }
+    }
+}
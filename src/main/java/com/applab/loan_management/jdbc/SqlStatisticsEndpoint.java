@@ -0,0 +1,34 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.dto.SqlStatementStatistics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/* Admin-only view of the SQL statistics at /actuator/sqlstats:
+ * GET returns the top statements by total time (?limit=N, default 20), DELETE resets them.
+ */
+@Component
+@Endpoint(id = "sqlstats")
+@RequiredArgsConstructor
+public class SqlStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlStatistics sqlStatistics;
+
+    @ReadOperation
+    public List<SqlStatementStatistics> topStatements(@Nullable Integer limit) {
+        return sqlStatistics.topByTotalTime(limit != null ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatistics.reset();
+    }
+}
@@ -0,0 +1,11 @@
+package com.applab.loan_management.jdbc;
+
+// Notified around every JDBC statement the application executes; sql is null for batches of plain statements
+public interface StatementListener {
+
+    default void beforeExecute(String sql) {
+    }
+
+    default void afterExecute(String sql, long elapsedNanos, boolean failed) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.applab.loan_management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event spanning one parse and signature check of a JWT
+@Name("com.applab.loan.JwtVerification")
+@Label("JWT Verification")
+@Category({"Loan Management", "Security"})
+@Description("Parsing and signature verification of a JWT")
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,27 @@
+package com.applab.loan_management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event spanning one loan origination, from the access check to the loan being saved
+@Name("com.applab.loan.LoanCreation")
+@Label("Loan Creation")
+@Category({"Loan Management", "Loans"})
+@Description("Origination of a loan, including the credit check")
+@StackTrace(false)
+public class LoanCreationEvent extends Event {
+
+    @Label("Customer ID")
+    public long customerId;
+
+    @Label("Number of Installments")
+    public int numberOfInstallments;
+
+    @Label("Credit Check Outcome")
+    @Description("APPROVED, INSUFFICIENT_CREDIT_LIMIT, ADMIN_CANNOT_CREATE_LOAN, CUSTOMER_NOT_FOUND, CUSTOMER_ACCESS_DENIED or ERROR")
+    public String creditCheckOutcome;
+}
@@ -0,0 +1,21 @@
+package com.applab.loan_management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event spanning one password hash computation
+@Name("com.applab.loan.PasswordHash")
+@Label("Password Hash")
+@Category({"Loan Management", "Security"})
+@Description("Hashing of a password by the password encoder")
+@StackTrace(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Operation")
+    @Description("encode (registration) or matches (login)")
+    public String operation;
+}
@@ -0,0 +1,31 @@
+package com.applab.loan_management.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Flight Recorder event spanning one attempt to apply a payment to a loan
+@Name("com.applab.loan.PaymentApplication")
+@Label("Payment Application")
+@Category({"Loan Management", "Payments"})
+@Description("Application of a payment to the payable installments of a loan")
+@StackTrace(false)
+public class PaymentApplicationEvent extends Event {
+
+    @Label("Loan ID")
+    public long loanId;
+
+    @Label("Installments Paid")
+    public int installmentsPaid;
+
+    @Label("Amount Spent (minor units)")
+    @Description("Total of the paid installments, in cents")
+    public long amountSpentMinorUnits;
+
+    @Label("Outcome")
+    @Description("PAID, or the error code of the rejection")
+    public String outcome;
+}
@@ -1,13 +1,29 @@
 package com.applab.loan_management.repository;
 
 import com.applab.loan_management.entity.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // Login and registration lookups go through the query cache; the cached result is only the customer ID,
+    // the entity itself then comes from the second-level cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    // Email lookup on a shard other than the email's home shard, bypassing the query cache: cached results are
+    // keyed by email alone, so they must always come from the same shard
+    @Query("SELECT c FROM Customer c WHERE c.email = :email")
+    Optional<Customer> findUncachedByEmail(@Param("email") String email);
+}
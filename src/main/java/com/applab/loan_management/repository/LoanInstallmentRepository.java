@@ -0,0 +1,33 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.dto.LoanInstallmentProjection;
+import com.applab.loan_management.entity.LoanInstallment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface LoanInstallmentRepository extends JpaRepository<LoanInstallment, Long> {
+
+    // Find installment rows of a loan together with the loan's customer ID and the ledger entry that paid them,
+    // ordered by schedule
+    @Query("SELECT new com.applab.loan_management.dto.LoanInstallmentProjection(" +
+           "i.id, l.id, l.customer.id, i.amount, i.dueDate, e.id, e.paymentDate, e.amount) " +
+           "FROM LoanInstallment i JOIN i.loan l " +
+           "LEFT JOIN PaymentLedgerEntry e ON e.loanId = l.id AND e.installmentId = i.id " +
+           "WHERE l.id = :loanId " +
+           "ORDER BY i.dueDate, i.id")
+    List<LoanInstallmentProjection> findProjectionsByLoanId(@Param("loanId") Long loanId);
+
+    // Find the installments of a loan due on or before the given date, in schedule order, without their payment state
+    // (served by the (loan_id, due_date) index)
+    @Query("SELECT new com.applab.loan_management.dto.LoanInstallmentProjection(" +
+           "i.id, l.id, l.customer.id, i.amount, i.dueDate) " +
+           "FROM LoanInstallment i JOIN i.loan l " +
+           "WHERE l.id = :loanId AND i.dueDate <= :maxPayableDate " +
+           "ORDER BY i.dueDate, i.id")
+    List<LoanInstallmentProjection> findScheduledInstallments(@Param("loanId") Long loanId,
+                                                              @Param("maxPayableDate") LocalDate maxPayableDate);
+}
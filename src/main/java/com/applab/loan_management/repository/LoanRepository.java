@@ -1,20 +1,70 @@
 package com.applab.loan_management.repository;
 
+import com.applab.loan_management.dto.LoanListProjection;
+import com.applab.loan_management.dto.LoanPortfolioTotals;
 import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.Money;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
+import java.util.Optional;
 
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     
-    // Find all loans for a specific customer
-    List<Loan> findByCustomerId(Long customerId);
+    // List a customer's loans as flat rows in one query, optionally filtered by payment status and number of installments
+    @Query("SELECT new com.applab.loan_management.dto.LoanListProjection(" +
+           "l.id, c.id, c.name, c.surname, l.loanAmount, l.interestRate, l.numberOfInstallments, l.createDate, l.isPaid, " +
+           "l.totalAmount, l.numberOfInstallments - " + PaymentLedgerRepository.PAID_INSTALLMENTS_OF_LOAN + ") " +
+           "FROM Loan l JOIN l.customer c " +
+           "WHERE c.id = :customerId " +
+           "AND (:isPaid IS NULL OR l.isPaid = :isPaid) " +
+           "AND (:numberOfInstallments IS NULL OR l.numberOfInstallments = :numberOfInstallments) " +
+           "ORDER BY l.id")
+    List<LoanListProjection> findListProjections(@Param("customerId") Long customerId,
+                                                 @Param("isPaid") Boolean isPaid,
+                                                 @Param("numberOfInstallments") Integer numberOfInstallments);
+    
+    // Find a loan for payment; its version is incremented on commit so concurrent payments on it conflict.
+    // Its customer is not fetched: the payment loads it by ID, from the second-level cache when it is there
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<Loan> findForPaymentById(Long id);
+    
+    // Find only the owning customer's ID of a loan, without loading the loan entity
+    @Query("SELECT l.customer.id FROM Loan l WHERE l.id = :loanId")
+    Optional<Long> findCustomerIdById(@Param("loanId") Long loanId);
+    
+    // Current version of a loan, read past the persistence context
+    @Query("SELECT l.version FROM Loan l WHERE l.id = :loanId")
+    Optional<Long> findVersionById(@Param("loanId") Long loanId);
+    
+    // Totals of all loans and their unpaid installments (all installments less the paid ones in the ledger),
+    // for the portfolio report
+    @Query("SELECT new com.applab.loan_management.dto.LoanPortfolioTotals(" +
+           "COUNT(l), SUM(CASE WHEN l.isPaid = false THEN 1 ELSE 0 END), COUNT(DISTINCT l.customer.id), SUM(l.loanAmount), " +
+           "(SELECT SUM(i.amount) FROM LoanInstallment i) - " +
+           "COALESCE((SELECT SUM(e.amount) FROM PaymentLedgerEntry e), 0)) " +
+           "FROM Loan l")
+    LoanPortfolioTotals summarizePortfolio();
+    
+    // ID bounds of loans created before total_amount / installment_amount were stored
+    @Query("SELECT MIN(l.id) FROM Loan l WHERE l.totalAmount IS NULL")
+    Optional<Long> findMinIdWithoutTotals();
     
-    // Find loans for a customer with specific payment status
-    List<Loan> findByCustomerIdAndIsPaid(Long customerId, Boolean isPaid);
+    @Query("SELECT MAX(l.id) FROM Loan l WHERE l.totalAmount IS NULL")
+    Optional<Long> findMaxIdWithoutTotals();
     
-    // Find loans for a customer with specific number of installments
-    List<Loan> findByCustomerIdAndNumberOfInstallments(Long customerId, Integer numberOfInstallments);
+    List<Loan> findByIdBetweenAndTotalAmountIsNull(Long fromId, Long toId);
     
-    // Find loans for a customer with both payment status and number of installments
-    List<Loan> findByCustomerIdAndIsPaidAndNumberOfInstallments(Long customerId, Boolean isPaid, Integer numberOfInstallments);
-} 
\ No newline at end of file
+    // Sets the stored amounts without bumping the version, so backfilling never conflicts with payments
+    @Modifying
+    @Query("UPDATE Loan l SET l.totalAmount = :totalAmount, l.installmentAmount = :installmentAmount " +
+           "WHERE l.id = :loanId AND l.totalAmount IS NULL")
+    int backfillTotals(@Param("loanId") Long loanId,
+                       @Param("totalAmount") Money totalAmount,
+                       @Param("installmentAmount") Money installmentAmount);
+}
@@ -0,0 +1,7 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.entity.LoanSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoanSnapshotRepository extends JpaRepository<LoanSnapshot, Long> {
+}
@@ -0,0 +1,42 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.dto.LedgerTotals;
+import com.applab.loan_management.entity.PaymentLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PaymentLedgerRepository extends JpaRepository<PaymentLedgerEntry, Long> {
+
+    // Number of paid installments of the loan aliased l: those of its snapshot plus its ledger entries numbered
+    // after them. Installments are paid in schedule order, so these are the loan's first installments
+    String PAID_INSTALLMENTS_OF_LOAN =
+            "(COALESCE((SELECT ps.installmentsPaid FROM LoanSnapshot ps WHERE ps.loanId = l.id), 0) + " +
+            "(SELECT COUNT(pe) FROM PaymentLedgerEntry pe WHERE pe.loanId = l.id AND pe.installmentNumber > " +
+            "COALESCE((SELECT ts.installmentsPaid FROM LoanSnapshot ts WHERE ts.loanId = l.id), 0)))";
+
+    // Count the paid installments of a loan (served by the (loan_id, installment_number) index)
+    @Query("SELECT " + PAID_INSTALLMENTS_OF_LOAN + " FROM Loan l WHERE l.id = :loanId")
+    long countPaidInstallments(@Param("loanId") Long loanId);
+
+    // Aggregate a loan's ledger entries numbered after the given installment (the tail of its snapshot)
+    @Query("SELECT new com.applab.loan_management.dto.LedgerTotals(" +
+           "e.loanId, MAX(e.customerId), COUNT(e.id), SUM(e.amount), MAX(e.paymentDate)) " +
+           "FROM PaymentLedgerEntry e " +
+           "WHERE e.loanId = :loanId AND e.installmentNumber > :afterInstallmentNumber " +
+           "GROUP BY e.loanId")
+    Optional<LedgerTotals> sumEntriesAfter(@Param("loanId") Long loanId,
+                                           @Param("afterInstallmentNumber") long afterInstallmentNumber);
+
+    // Aggregate, per loan, the committed ledger entries not yet folded into that loan's snapshot.
+    // The payments of a loan are serialized, so its entries commit in installment order and none is skipped
+    @Query("SELECT new com.applab.loan_management.dto.LedgerTotals(" +
+           "e.loanId, MAX(e.customerId), COUNT(e.id), SUM(e.amount), MAX(e.paymentDate)) " +
+           "FROM PaymentLedgerEntry e " +
+           "WHERE e.installmentNumber > COALESCE((SELECT s.installmentsPaid FROM LoanSnapshot s WHERE s.loanId = e.loanId), 0) " +
+           "GROUP BY e.loanId")
+    List<LedgerTotals> sumUncompactedEntries();
+}
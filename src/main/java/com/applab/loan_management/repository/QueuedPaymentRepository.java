@@ -0,0 +1,17 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.constants.QueuedPaymentStatus;
+import com.applab.loan_management.entity.QueuedPayment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface QueuedPaymentRepository extends JpaRepository<QueuedPayment, Long> {
+
+    // Find IDs of queued payments in the given status, oldest first
+    @Query("SELECT p.id FROM QueuedPayment p WHERE p.status = :status ORDER BY p.id")
+    List<Long> findIdsByStatus(@Param("status") QueuedPaymentStatus status, Pageable pageable);
+}
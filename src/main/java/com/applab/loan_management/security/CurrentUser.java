@@ -0,0 +1,29 @@
+package com.applab.loan_management.security;
+
+import com.applab.loan_management.constants.Role;
+
+/* The authenticated caller's role and customer ID, resolved once per request operation by CurrentUserService
+ * so that access checks and cache keys do not verify the JWT again. Both are null for an anonymous caller.
+ */
+public record CurrentUser(Role role, Long customerId) {
+
+    public static final CurrentUser ANONYMOUS = new CurrentUser(null, null);
+
+    public boolean isAdmin() {
+        return role == Role.ADMIN;
+    }
+
+    // Admins can access any customer's data, regular customers can only access their own
+    public boolean canAccessCustomerData(Long customerId) {
+        if (isAdmin()) {
+            return true;
+        }
+        return this.customerId != null && this.customerId.equals(customerId);
+    }
+
+    // What the caller may access: every customer for admins, a single customer otherwise.
+    // Two callers with the same scope get the same answer from canAccessCustomerData for any customer
+    public String accessScope() {
+        return isAdmin() ? "ADMIN" : "CUSTOMER:" + customerId;
+    }
+}
@@ -1,7 +1,9 @@
 package com.applab.loan_management.security;
 
 import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.entity.Customer;
 
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -56,6 +58,25 @@ public class CurrentUserService {
         return currentCustomerId != null && currentCustomerId.equals(customerId);
     }
 
+    /**
+     * Resolve the current user's role and customer ID at once: from the principal set by JwtAuthenticationFilter,
+     * which already verified the token, or else from a single verification of the JWT
+     */
+    public CurrentUser getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomerUserDetails userDetails) {
+            Customer customer = userDetails.getCustomer();
+            return new CurrentUser(customer.getRole(), customer.getId());
+        }
+
+        String jwt = getCurrentJwtToken();
+        if (jwt == null) {
+            return CurrentUser.ANONYMOUS;
+        }
+        Claims claims = jwtUtil.extractAllClaims(jwt);
+        return new CurrentUser(jwtUtil.extractRole(claims), jwtUtil.extractCustomerId(claims));
+    }
+
     /**
      * Extract JWT token from the current security context
      */
@@ -1,8 +1,10 @@
 package com.applab.loan_management.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -30,6 +32,13 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 // Allow H2 console access for development
                 .requestMatchers("/h2-console/**").permitAll()
+                // Health is public for probes; metrics and any other actuator endpoint are admins only
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                // Bulk settlement imports span many customers - admins only
+                .requestMatchers(HttpMethod.POST, "/api/loans/payments/import").hasRole("ADMIN")
+                // Cross-customer reports - admins only
+                .requestMatchers("/api/loans/reports/**").hasRole("ADMIN")
                 // Secure all loan endpoints - require JWT authentication
                 .requestMatchers("/api/loans/**").authenticated()
                 // Default: require authentication for all other requests
@@ -45,7 +54,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 }
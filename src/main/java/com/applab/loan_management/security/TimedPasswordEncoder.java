@@ -0,0 +1,59 @@
+package com.applab.loan_management.security;
+
+import com.applab.loan_management.jfr.PasswordHashEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/* Records how long password hashing takes: BCrypt is deliberately slow and bounds login and
+ * registration capacity, so its cost is timed separately for encode (registration) and matches (login).
+ * Each hash is also emitted as a Flight Recorder event.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = passwordHashTimer(meterRegistry, "encode");
+        this.matchesTimer = passwordHashTimer(meterRegistry, "matches");
+    }
+
+    private static Timer passwordHashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("loan.auth.password_hash")
+                .description("Password hashing by the password encoder")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "encode";
+        event.begin();
+        try {
+            return encodeTimer.record(() -> delegate.encode(rawPassword));
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "matches";
+        event.begin();
+        try {
+            return matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
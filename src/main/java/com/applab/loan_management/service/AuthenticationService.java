@@ -10,6 +10,7 @@ import com.applab.loan_management.exception.InvalidCredentialsException;
 import com.applab.loan_management.exception.UserNotFoundException;
 import com.applab.loan_management.repository.CustomerRepository;
 import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.shard.ShardRouter;
 import com.applab.loan_management.util.AuthMapperUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,8 +23,20 @@ public class AuthenticationService {
     private final CustomerRepository customerRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ShardRouter shardRouter;
 
+    // A new customer is stored on the home shard of their email. Existing customers may live on any shard
+    // (see ShardRouter), so the email must be unused on all of them
     public RegisterResponse register(RegisterRequest request) {
+        int homeShard = shardRouter.homeShardOf(request.getEmail());
+        if (shardRouter.findOnOtherShards(homeShard,
+                () -> customerRepository.findUncachedByEmail(request.getEmail())).isPresent()) {
+            throw new EmailAlreadyExistsException(request.getEmail());
+        }
+        return shardRouter.onShard(homeShard, () -> registerOnShard(request));
+    }
+
+    private RegisterResponse registerOnShard(RegisterRequest request) {
         if (customerRepository.existsByEmail(request.getEmail())) {
             throw new EmailAlreadyExistsException(request.getEmail());
         }
@@ -36,8 +49,12 @@ public class AuthenticationService {
         return AuthMapperUtil.toRegisterResponse(customer, jwtToken);
     }
 
+    // Customers are looked up on the home shard of their email first, then on the other shards
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        Customer customer = customerRepository.findByEmail(request.getEmail())
+        int homeShard = shardRouter.homeShardOf(request.getEmail());
+        Customer customer = shardRouter.onShard(homeShard, () -> customerRepository.findByEmail(request.getEmail()))
+                .or(() -> shardRouter.findOnOtherShards(homeShard,
+                        () -> customerRepository.findUncachedByEmail(request.getEmail())))
                 .orElseThrow(() -> new UserNotFoundException(request.getEmail()));
 
         // Verify password matches
@@ -0,0 +1,349 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.exception.AdminCannotCreateLoanException;
+import com.applab.loan_management.exception.CustomerNotFoundException;
+import com.applab.loan_management.exception.InsufficientCreditLimitException;
+import com.applab.loan_management.jdbc.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/* Opt-in group commit for small write transactions (loan creation, payments).
+ * Operations submitted concurrently are collected for a short window (or until maxBatch is reached) and run
+ * by a single committer thread inside one shared transaction, so the whole group pays for one commit.
+ * Each operation runs under its own savepoint: a business rejection rolls back only that operation and is
+ * returned to its caller. Operations must therefore run in the group transaction without their own
+ * transactional proxy (see LoanService.originateLoan and applyPayment), which would mark it rollback-only.
+ * Optimistic lock conflicts, and any failure of the group as a whole, fall back to running the affected
+ * operations alone in their own transactions, on their callers' threads, so that a fallback (and its retries)
+ * never holds up the groups behind it.
+ * Each operation's statements count towards the query budget scope of its caller (see QueryCounter); an
+ * operation over an enforced budget fails the group and then fails on its own.
+ * When disabled, operations simply run alone on the caller's thread.
+ */
+@Slf4j
+@Component
+public class GroupCommitExecutor implements SmartLifecycle {
+
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final boolean virtualThreads;
+    private final DistributionSummary groupSizeSummary;
+    private final Counter fallbackCounter;
+    private final BlockingQueue<PendingOperation<?>> queue = new LinkedBlockingQueue<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean running;
+    private Thread committerThread;
+
+    public GroupCommitExecutor(TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${loan.group-commit.enabled:false}") boolean enabled,
+                               @Value("${loan.group-commit.window-micros:1500}") long windowMicros,
+                               @Value("${loan.group-commit.max-batch:64}") int maxBatch,
+                               @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.virtualThreads = virtualThreads;
+        this.groupSizeSummary = DistributionSummary.builder("loan.group_commit.group_size")
+                .description("Operations committed together by one group commit")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("loan.group_commit.fallbacks")
+                .description("Grouped operations that had to run alone in their own transaction")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs an operation, grouped with concurrent ones when group commit is enabled.
+     * inGroup runs inside the shared group transaction; alone runs in (and manages) its own transaction.
+     * Blocks until the operation's outcome is committed, then returns its result or rethrows its failure.
+     */
+    public <T> T execute(Supplier<T> inGroup, Supplier<T> alone) {
+        if (!enabled || !running) {
+            return alone.get();
+        }
+
+        PendingOperation<T> operation = new PendingOperation<>(inGroup, alone, SecurityContextHolder.getContext(),
+                QueryCounter.current());
+        queue.add(operation);
+        return operation.await();
+    }
+
+    void runCommitter() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingOperation<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingOperation<?>> group = new ArrayList<>(maxBatch);
+                group.add(first);
+                long deadline = System.nanoTime() + windowNanos;
+                while (group.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingOperation<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commitGroup(group);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Group commit loop failed", ex);
+            }
+        }
+    }
+
+    void commitGroup(List<PendingOperation<?>> group) {
+        List<PendingOperation<?>> runAlone = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Each operation is flushed explicitly below; auto-flushing before every query would dirty-check
+                // the whole group's persistence context each time
+                entityManager.setFlushMode(FlushModeType.COMMIT);
+                for (PendingOperation<?> operation : group) {
+                    Set<Object> managedBefore = managedEntities();
+                    Savepoint savepoint = createSavepoint();
+                    try (QueryCounter.Resumption counting = operation.countForCaller()) {
+                        operation.runInGroup();
+                        // Surface constraint violations and version conflicts inside this operation's savepoint
+                        flush();
+                        releaseSavepoint(savepoint);
+                    } catch (RuntimeException ex) {
+                        boolean conflict = ex instanceof OptimisticLockingFailureException;
+                        if (!(conflict || isIsolatedFailure(ex)) || status.isRollbackOnly()) {
+                            // The persistence context may no longer match the database, or Hibernate has marked
+                            // the group transaction rollback-only; give up on the group
+                            throw ex;
+                        }
+                        rollbackOperation(savepoint, managedBefore);
+                        if (conflict) {
+                            runAlone.add(operation);
+                        } else {
+                            operation.fail(ex);
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} operations failed, running them alone: {}", group.size(), ex.getMessage());
+            runAlone.clear();
+            runAlone.addAll(group);
+        }
+
+        groupSizeSummary.record(group.size() - runAlone.size());
+        fallbackCounter.increment(runAlone.size());
+        for (PendingOperation<?> operation : group) {
+            if (!runAlone.contains(operation)) {
+                operation.complete();
+            }
+        }
+        for (PendingOperation<?> operation : runAlone) {
+            operation.sendBack();
+        }
+    }
+
+    // Translated like a repository call, so a version conflict detected on flush is handled as one
+    private void flush() {
+        try {
+            entityManager.flush();
+        } catch (RuntimeException ex) {
+            DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(ex);
+            throw translated != null ? translated : ex;
+        }
+    }
+
+    // Entities in the group's persistence context, by identity
+    private Set<Object> managedEntities() {
+        Set<Object> entities = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Object, EntityEntry> entry : managedEntityEntries()) {
+            entities.add(entry.getKey());
+        }
+        return entities;
+    }
+
+    // A savepoint only rolls back SQL. The entities the operation loaded are detached as well, so that nothing it
+    // registered on them (such as the forced version increment of a loan found for payment) reaches the group's
+    // commit. Operations do not modify entities loaded before them until they can no longer be rejected
+    private void rollbackOperation(Savepoint savepoint, Set<Object> managedBefore) {
+        session().doWork(connection -> connection.rollback(savepoint));
+        for (Map.Entry<Object, EntityEntry> entry : managedEntityEntries()) {
+            if (!managedBefore.contains(entry.getKey())) {
+                entityManager.detach(entry.getKey());
+            }
+        }
+    }
+
+    // JDBC savepoints on the transaction's connection: the JPA dialect does not expose savepoints through Spring
+    private Savepoint createSavepoint() {
+        return session().doReturningWork(Connection::setSavepoint);
+    }
+
+    private void releaseSavepoint(Savepoint savepoint) {
+        session().doWork(connection -> connection.releaseSavepoint(savepoint));
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+
+    private Map.Entry<Object, EntityEntry>[] managedEntityEntries() {
+        return entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal().reentrantSafeEntityEntries();
+    }
+
+    // Business rejections are raised before an operation writes anything, so they never poison the group
+    private static boolean isIsolatedFailure(RuntimeException ex) {
+        return PaymentRejections.isBusinessRejection(ex)
+                || ex instanceof CustomerNotFoundException
+                || ex instanceof AdminCannotCreateLoanException
+                || ex instanceof InsufficientCreditLimitException;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        committerThread = threadBuilder.name("group-commit").start(this::runCommitter);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (committerThread != null) {
+            try {
+                committerThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    static final class PendingOperation<T> {
+
+        // Completes the future of an operation its caller must run alone
+        private static final RuntimeException RUN_ALONE = new RuntimeException("Run alone", null, false, false) {
+        };
+
+        private final Supplier<T> inGroup;
+        private final Supplier<T> alone;
+        private final SecurityContext securityContext;
+        private final QueryCounter.Scope queryScope;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private RuntimeException failure;
+
+        PendingOperation(Supplier<T> inGroup, Supplier<T> alone, SecurityContext securityContext,
+                         QueryCounter.Scope queryScope) {
+            this.inGroup = inGroup;
+            this.alone = alone;
+            this.securityContext = securityContext;
+            this.queryScope = queryScope;
+        }
+
+        void runInGroup() {
+            result = withCallerContext(inGroup);
+        }
+
+        void fail(RuntimeException ex) {
+            failure = ex;
+        }
+
+        void complete() {
+            if (failure != null) {
+                future.completeExceptionally(failure);
+            } else {
+                future.complete(result);
+            }
+        }
+
+        // Hands the operation back to its caller, which runs it alone on its own thread
+        void sendBack() {
+            future.completeExceptionally(RUN_ALONE);
+        }
+
+        // Waits, on the caller's thread, for the committed outcome, or runs the operation alone when sent back
+        T await() {
+            try {
+                return future.get();
+            } catch (ExecutionException ex) {
+                if (ex.getCause() == RUN_ALONE) {
+                    return alone.get();
+                }
+                if (ex.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IllegalStateException("Group commit operation failed", ex.getCause());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for group commit", ex);
+            }
+        }
+
+        // The caller waits for the outcome, so its query budget scope can count the operation's statements
+        QueryCounter.Resumption countForCaller() {
+            return QueryCounter.resume(queryScope);
+        }
+
+        // Operations run on the committer thread, under the security context of the thread that submitted them
+        private T withCallerContext(Supplier<T> supplier) {
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                return supplier.get();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.dto.LedgerTotals;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
+import com.applab.loan_management.dto.LoanPaymentSummaryResponse;
+import com.applab.loan_management.entity.LoanSnapshot;
+import com.applab.loan_management.entity.PaymentLedgerEntry;
+import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.exception.InvalidParameterException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.repository.LoanSnapshotRepository;
+import com.applab.loan_management.repository.PaymentLedgerRepository;
+import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/* Maintains the append-only payment ledger and the loan snapshots compacted from it.
+ * A loan's payment state is its snapshot plus the ledger entries numbered after it. Installments are
+ * paid in schedule order, so that state also tells which installments are paid: the first installmentsPaid.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoanLedgerService {
+
+    private final PaymentLedgerRepository paymentLedgerRepository;
+    private final LoanSnapshotRepository loanSnapshotRepository;
+    private final LoanRepository loanRepository;
+    private final CurrentUserService currentUserService;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    // Number of installments paid on a loan so far; runs in the caller's payment transaction
+    @Transactional
+    public long countPaidInstallments(Long loanId) {
+        return paymentLedgerRepository.countPaidInstallments(loanId);
+    }
+
+    // Appends one ledger entry per installment paid, numbering them on from the installments paid before;
+    // runs in the caller's payment transaction
+    @Transactional
+    public void recordPayment(Long loanId, Long customerId, long installmentsPaidBefore,
+                              List<LoanInstallmentProjection> paidInstallments, LocalDate paymentDate) {
+        LocalDateTime recordedAt = LocalDateTime.now();
+        List<PaymentLedgerEntry> entries = new ArrayList<>(paidInstallments.size());
+        for (int i = 0; i < paidInstallments.size(); i++) {
+            LoanInstallmentProjection installment = paidInstallments.get(i);
+            entries.add(PaymentLedgerEntry.builder()
+                    .loanId(loanId)
+                    .customerId(customerId)
+                    .installmentId(installment.getId())
+                    .installmentNumber(Math.toIntExact(installmentsPaidBefore + i + 1))
+                    .amount(installment.getAmount().toBigDecimal())
+                    .paymentDate(paymentDate)
+                    .recordedAt(recordedAt)
+                    .build());
+        }
+        try {
+            // Flushed here, so that installments also being paid by a concurrent payment on the loan fail on the
+            // (loan_id, installment_number) unique index as a conflict, which is retried
+            paymentLedgerRepository.saveAllAndFlush(entries);
+        } catch (DataIntegrityViolationException ex) {
+            throw new OptimisticLockingFailureException(
+                    "Installments of loan ID " + loanId + " were paid by a concurrent transaction", ex);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public LoanPaymentSummaryResponse getPaymentSummary(Long loanId) {
+        if (loanId == null || loanId <= 0) {
+            throw new InvalidParameterException("loanId", "must be a positive number");
+        }
+
+        // The ledger of a loan is stored on the loan's shard
+        return shardRouter.onShardOf(loanId, () -> summarizePayments(loanId));
+    }
+
+    private LoanPaymentSummaryResponse summarizePayments(Long loanId) {
+        Long loanCustomerId = loanRepository.findCustomerIdById(loanId)
+                .orElseThrow(() -> new LoanNotFoundException(loanId));
+
+        // Authorization check: ensure current user can access this loan's customer data
+        if (!currentUserService.canAccessCustomerData(loanCustomerId)) {
+            Long currentCustomerId = currentUserService.getCurrentCustomerId();
+            throw new CustomerAccessDeniedException(loanCustomerId, currentCustomerId);
+        }
+
+        Optional<LoanSnapshot> snapshot = loanSnapshotRepository.findById(loanId);
+        long snapshotInstallmentsPaid = snapshot.map(LoanSnapshot::getInstallmentsPaid).orElse(0L);
+        Optional<LedgerTotals> tail = paymentLedgerRepository.sumEntriesAfter(loanId, snapshotInstallmentsPaid);
+
+        long installmentsPaid = snapshotInstallmentsPaid + tail.map(LedgerTotals::getEntryCount).orElse(0L);
+        BigDecimal totalPaid = snapshot.map(LoanSnapshot::getTotalPaid).orElse(BigDecimal.ZERO)
+                .add(tail.map(LedgerTotals::getTotalAmount).orElse(BigDecimal.ZERO));
+        LocalDate lastPaymentDate = tail.map(LedgerTotals::getLastPaymentDate)
+                .orElse(snapshot.map(LoanSnapshot::getLastPaymentDate).orElse(null));
+
+        return LoanPaymentSummaryResponse.builder()
+                .loanId(loanId)
+                .installmentsPaid(installmentsPaid)
+                .totalPaidAmount(totalPaid)
+                .lastPaymentDate(lastPaymentDate)
+                .build();
+    }
+
+    // Folds ledger tails into loan snapshots, one transaction per shard; returns the number of snapshots written
+    @Scheduled(fixedDelayString = "${loan.ledger.compaction.interval-ms:60000}",
+               initialDelayString = "${loan.ledger.compaction.interval-ms:60000}")
+    public int compactSnapshots() {
+        return shardRouter.forEachShard(shard -> compactShard())
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private int compactShard() {
+        try {
+            return transactionTemplate.execute(status -> compactShardSnapshots());
+        } catch (OptimisticLockingFailureException | DataIntegrityViolationException ex) {
+            // Another instance compacted some of the same loans concurrently: its snapshots stand, and the
+            // tails this run did not fold in are left to the next one
+            return 0;
+        }
+    }
+
+    private int compactShardSnapshots() {
+        LocalDateTime now = LocalDateTime.now();
+        int written = 0;
+
+        for (LedgerTotals uncompacted : paymentLedgerRepository.sumUncompactedEntries()) {
+            Long loanId = uncompacted.getLoanId();
+            Optional<LoanSnapshot> existing = loanSnapshotRepository.findById(loanId);
+
+            // An existing snapshot may have been extended by another instance since the tails were read, so its
+            // tail is read again after it; a snapshot written concurrently after that fails on its version
+            Optional<LedgerTotals> tail = existing.isPresent()
+                    ? paymentLedgerRepository.sumEntriesAfter(loanId, existing.get().getInstallmentsPaid())
+                    : Optional.of(uncompacted);
+            if (tail.isEmpty()) {
+                continue;
+            }
+
+            LoanSnapshot snapshot = existing.orElseGet(() -> LoanSnapshot.builder()
+                    .loanId(loanId)
+                    .customerId(uncompacted.getCustomerId())
+                    .installmentsPaid(0L)
+                    .totalPaid(BigDecimal.ZERO)
+                    .build());
+
+            snapshot.setInstallmentsPaid(snapshot.getInstallmentsPaid() + tail.get().getEntryCount());
+            snapshot.setTotalPaid(snapshot.getTotalPaid().add(tail.get().getTotalAmount()));
+            snapshot.setLastPaymentDate(tail.get().getLastPaymentDate());
+            snapshot.setSnapshotAt(now);
+            loanSnapshotRepository.save(snapshot);
+            written++;
+        }
+        return written;
+    }
+}
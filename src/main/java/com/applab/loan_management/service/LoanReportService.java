@@ -0,0 +1,83 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.dto.LoanPortfolioReportResponse;
+import com.applab.loan_management.dto.LoanPortfolioTotals;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.shard.ShardRouter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/* Cross-customer reports for admins (access is checked by SecurityConfig).
+ * A sharded loan book is queried on all shards in parallel (ShardRouter.scatterGather) and the per-shard
+ * totals are merged; a customer and their loans never span shards, so the merged counts are exact.
+ */
+@Service
+public class LoanReportService {
+
+    private final LoanRepository loanRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public LoanReportService(LoanRepository loanRepository,
+                             ShardRouter shardRouter,
+                             PlatformTransactionManager transactionManager) {
+        this.loanRepository = loanRepository;
+        this.shardRouter = shardRouter;
+        // Read-only, so it is served by the read replica when one is configured
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    public LoanPortfolioReportResponse getPortfolioReport() {
+        List<LoanPortfolioTotals> shardTotals = shardRouter.scatterGather(
+                () -> readOnlyTransactionTemplate.execute(status -> loanRepository.summarizePortfolio()));
+
+        List<LoanPortfolioReportResponse.ShardTotals> shards = new ArrayList<>(shardTotals.size());
+        long loanCount = 0;
+        long openLoanCount = 0;
+        long borrowerCount = 0;
+        Money totalLoanAmount = Money.ZERO;
+        Money outstandingAmount = Money.ZERO;
+        for (int shard = 0; shard < shardTotals.size(); shard++) {
+            LoanPortfolioTotals totals = shardTotals.get(shard);
+            Money shardLoanAmount = orZero(Money.ofNullable(totals.getLoanAmount()));
+            Money shardOutstandingAmount = orZero(Money.ofNullable(totals.getOutstandingAmount()));
+            shards.add(LoanPortfolioReportResponse.ShardTotals.builder()
+                    .shard(shard)
+                    .loanCount(orZero(totals.getLoanCount()))
+                    .openLoanCount(orZero(totals.getOpenLoanCount()))
+                    .borrowerCount(orZero(totals.getBorrowerCount()))
+                    .totalLoanAmount(shardLoanAmount.toBigDecimal())
+                    .outstandingAmount(shardOutstandingAmount.toBigDecimal())
+                    .build());
+
+            loanCount += orZero(totals.getLoanCount());
+            openLoanCount += orZero(totals.getOpenLoanCount());
+            borrowerCount += orZero(totals.getBorrowerCount());
+            totalLoanAmount = totalLoanAmount.plus(shardLoanAmount);
+            outstandingAmount = outstandingAmount.plus(shardOutstandingAmount);
+        }
+
+        return LoanPortfolioReportResponse.builder()
+                .loanCount(loanCount)
+                .openLoanCount(openLoanCount)
+                .borrowerCount(borrowerCount)
+                .totalLoanAmount(totalLoanAmount.toBigDecimal())
+                .outstandingAmount(outstandingAmount.toBigDecimal())
+                .shards(shards)
+                .build();
+    }
+
+    private static long orZero(Long count) {
+        return count != null ? count : 0;
+    }
+
+    private static Money orZero(Money amount) {
+        return amount != null ? amount : Money.ZERO;
+    }
+}
@@ -1,13 +1,15 @@
 package com.applab.loan_management.service;
 
 import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.LoanListProjection;
 import com.applab.loan_management.dto.LoanListResponse;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
 import com.applab.loan_management.dto.PayLoanRequest;
 import com.applab.loan_management.dto.PayLoanResponse;
 import com.applab.loan_management.entity.Customer;
 import com.applab.loan_management.entity.Loan;
-import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
 import com.applab.loan_management.exception.AdminCannotCreateLoanException;
 import com.applab.loan_management.exception.CustomerNotFoundException;
 import com.applab.loan_management.exception.InsufficientCreditLimitException;
@@ -18,20 +20,31 @@ import com.applab.loan_management.exception.LoanAlreadyPaidException;
 import com.applab.loan_management.exception.InvalidPaymentAmountException;
 import com.applab.loan_management.exception.NoPayableInstallmentsException;
 import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.jfr.LoanCreationEvent;
+import com.applab.loan_management.jdbc.ReadYourWritesTracker;
+import com.applab.loan_management.jfr.PaymentApplicationEvent;
 import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.repository.LoanInstallmentRepository;
 import com.applab.loan_management.repository.LoanRepository;
 import com.applab.loan_management.util.LoanMapperUtil;
+import com.applab.loan_management.security.CurrentUser;
 import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -40,16 +53,64 @@ public class LoanService {
 
     private final LoanRepository loanRepository;
     private final CustomerRepository customerRepository;
+    private final LoanInstallmentRepository loanInstallmentRepository;
     private final CurrentUserService currentUserService;
+    private final PaymentRetryExecutor paymentRetryExecutor;
+    private final LoanLedgerService loanLedgerService;
+    private final SingleFlight singleFlight;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final ShardRouter shardRouter;
 
-    @Transactional
     public Loan createLoan(CreateLoanRequest request) {
+        return timeTransaction("createLoan", () -> transactionTemplate.execute(status -> originateLoan(request)));
+    }
+
+    /**
+     * Creates a loan within the caller's transaction.
+     * Business rejections are thrown before anything is written, and since this method is not transactional
+     * itself, a rejection does not mark a shared (group commit) transaction rollback-only.
+     */
+    public Loan originateLoan(CreateLoanRequest request) {
+        LoanCreationEvent event = new LoanCreationEvent();
+        event.begin();
+        try {
+            // The loan is stored on its customer's shard
+            Loan loan = shardRouter.onShardOf(request.getCustomerId(), () -> originate(request));
+            event.creditCheckOutcome = "APPROVED";
+            return loan;
+        } catch (RuntimeException ex) {
+            event.creditCheckOutcome = creditCheckOutcome(ex);
+            throw ex;
+        } finally {
+            if (event.shouldCommit()) {
+                event.customerId = request.getCustomerId() != null ? request.getCustomerId() : 0;
+                event.numberOfInstallments = request.getNumberOfInstallments() != null ? request.getNumberOfInstallments() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    // Same error codes as GlobalExceptionHandler
+    private static String creditCheckOutcome(RuntimeException ex) {
+        if (ex instanceof InsufficientCreditLimitException) return "INSUFFICIENT_CREDIT_LIMIT";
+        if (ex instanceof AdminCannotCreateLoanException) return "ADMIN_CANNOT_CREATE_LOAN";
+        if (ex instanceof CustomerNotFoundException) return "CUSTOMER_NOT_FOUND";
+        if (ex instanceof CustomerAccessDeniedException) return "CUSTOMER_ACCESS_DENIED";
+        if (ex instanceof InvalidParameterException) return "INVALID_PARAMETER";
+        return "ERROR";
+    }
+
+    private Loan originate(CreateLoanRequest request) {
         // Authorization check: ensure current user can access this customer's data
         if (!currentUserService.canAccessCustomerData(request.getCustomerId())) {
             Long currentCustomerId = currentUserService.getCurrentCustomerId();
             throw new CustomerAccessDeniedException(request.getCustomerId(), currentCustomerId);
         }
 
+        // Possibly from the second-level cache: a credit change committed since then fails this loan's customer update
+        // on its version, so the credit check never lets a concurrent change be overwritten
         Customer customer = customerRepository.findById(request.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException(request.getCustomerId()));
 
@@ -59,58 +120,65 @@ public class LoanService {
         }
 
         // Calculate total loan amount with interest using utility method
-        BigDecimal totalAmount = LoanMapperUtil.calculateTotalLoanAmount(request.getAmount(), request.getInterestRate());
+        Money loanAmount = toMoney("amount", () -> Money.of(request.getAmount()));
+        Money totalAmount = toMoney("amount",
+                () -> LoanMapperUtil.calculateTotalLoanAmount(request.getAmount(), request.getInterestRate()));
 
-        BigDecimal availableCredit = customer.getCreditLimit().subtract(customer.getUsedCreditLimit());
+        Money availableCredit = customer.getCreditLimit().minus(customer.getUsedCreditLimit());
 
-        if (availableCredit.compareTo(totalAmount) < 0) {
-            throw new InsufficientCreditLimitException(availableCredit, totalAmount);
+        if (availableCredit.isLessThan(totalAmount)) {
+            throw new InsufficientCreditLimitException(availableCredit.toBigDecimal(), totalAmount.toBigDecimal());
         }
 
+        // Calculate installment amount
+        Money installmentAmount = LoanMapperUtil.calculateInstallmentAmount(totalAmount, request.getNumberOfInstallments());
+
+        // Totals are stored with the loan so that responses never recompute them
         Loan loan = Loan.builder()
                 .customer(customer)
-                .loanAmount(request.getAmount())
+                .loanAmount(loanAmount)
                 .interestRate(request.getInterestRate())
                 .numberOfInstallments(request.getNumberOfInstallments())
+                .totalAmount(totalAmount)
+                .installmentAmount(installmentAmount)
                 .createDate(LocalDateTime.now())
                 .isPaid(false)
                 .build();
 
-        // Calculate installment amount
-        BigDecimal installmentAmount = LoanMapperUtil.calculateInstallmentAmount(totalAmount, request.getNumberOfInstallments());
-
-        // Create installments
-        List<LoanInstallment> installments = new ArrayList<>();
+        // Create installments, due on the first day of each following month
         LocalDate firstDueDate = LocalDate.now().plusMonths(1).withDayOfMonth(1);
-
-        for (int i = 0; i < request.getNumberOfInstallments(); i++) {
-            LoanInstallment installment = LoanInstallment.builder()
-                    .loan(loan)
-                    .amount(installmentAmount)
-                    .dueDate(firstDueDate.plusMonths(i))
-                    .isPaid(false)
-                    .build();
-            installments.add(installment);
-        }
-
-        loan.setInstallments(installments);
+        loan.setInstallments(LoanMapperUtil.createInstallmentSchedule(
+                loan, installmentAmount, request.getNumberOfInstallments(), firstDueDate));
 
         // Update customer's used credit limit
-        customer.setUsedCreditLimit(customer.getUsedCreditLimit().add(totalAmount));
+        customer.setUsedCreditLimit(customer.getUsedCreditLimit().plus(totalAmount));
         customerRepository.save(customer);
+        recordWrite(customer.getId());
 
         return loanRepository.save(loan);
     }
 
+    // Identical concurrent listings by callers with the same access scope, read from the same database, share one query.
+    // Read-only: routed to the read replica when one is configured (see ReadWriteDataSourceConfig)
+    @Transactional(readOnly = true)
     public List<LoanListResponse> listLoans(Long customerId, Boolean isPaid, Integer numberOfInstallments) {
+        // Resolved once, for the key and the access check of the leader's query
+        CurrentUser currentUser = currentUserService.getCurrentUser();
+        ListLoansKey key = new ListLoansKey(currentUser.accessScope(), readsFromPrimary(currentUser),
+                customerId, isPaid, numberOfInstallments);
+        return singleFlight.execute(key, () -> shardRouter.onShardOf(customerId,
+                () -> loadLoans(currentUser, customerId, isPaid, numberOfInstallments)));
+    }
+
+    private List<LoanListResponse> loadLoans(CurrentUser currentUser, Long customerId, Boolean isPaid,
+                                             Integer numberOfInstallments) {
         if (customerId == null || customerId <= 0) {
             throw new InvalidParameterException("customerId", "must be a positive number");
         }
 
         // Authorization check: ensure current user can access this customer's data
-        if (!currentUserService.canAccessCustomerData(customerId)) {
-            Long currentCustomerId = currentUserService.getCurrentCustomerId();
-            throw new CustomerAccessDeniedException(customerId, currentCustomerId);
+        if (!currentUser.canAccessCustomerData(customerId)) {
+            throw new CustomerAccessDeniedException(customerId, currentUser.customerId());
         }
 
         // Validate numberOfInstallments parameter if provided
@@ -129,19 +197,11 @@ public class LoanService {
         customerRepository.findById(customerId)
                 .orElseThrow(() -> new CustomerNotFoundException(customerId));
 
-        List<Loan> loans;
+        List<LoanListProjection> loans;
 
         try {
-            // Apply filters based on provided parameters
-            if (isPaid != null && numberOfInstallments != null) {
-                loans = loanRepository.findByCustomerIdAndIsPaidAndNumberOfInstallments(customerId, isPaid, numberOfInstallments);
-            } else if (isPaid != null) {
-                loans = loanRepository.findByCustomerIdAndIsPaid(customerId, isPaid);
-            } else if (numberOfInstallments != null) {
-                loans = loanRepository.findByCustomerIdAndNumberOfInstallments(customerId, numberOfInstallments);
-            } else {
-                loans = loanRepository.findByCustomerId(customerId);
-            }
+            // One query for the loans, their customer and their unpaid installment counts; null filters are ignored
+            loans = loanRepository.findListProjections(customerId, isPaid, numberOfInstallments);
         } catch (Exception ex) {
             throw new RuntimeException("Failed to retrieve loans for customer ID: " + customerId, ex);
         }
@@ -151,35 +211,41 @@ public class LoanService {
                 .collect(Collectors.toList());
     }
 
+    // Identical concurrent installment reads by callers with the same access scope, read from the same database,
+    // share one query. Read-only: routed to the read replica when one is configured
+    @Transactional(readOnly = true)
     public List<LoanInstallmentResponse> listLoanInstallments(Long loanId) {
+        CurrentUser currentUser = currentUserService.getCurrentUser();
+        LoanInstallmentsKey key = new LoanInstallmentsKey(currentUser.accessScope(), readsFromPrimary(currentUser),
+                loanId);
+        return singleFlight.execute(key, () -> shardRouter.onShardOf(loanId,
+                () -> loadLoanInstallments(currentUser, loanId)));
+    }
+
+    private List<LoanInstallmentResponse> loadLoanInstallments(CurrentUser currentUser, Long loanId) {
         if (loanId == null || loanId <= 0) {
             throw new InvalidParameterException("loanId", "must be a positive number");
         }
 
         try {
-            Loan loan = loanRepository.findById(loanId)
-                    .orElseThrow(() -> new LoanNotFoundException(loanId));
-
-            // Authorization check: ensure current user can access this loan's customer data
-            Long loanCustomerId = loan.getCustomer().getId();
-            if (!currentUserService.canAccessCustomerData(loanCustomerId)) {
-                Long currentCustomerId = currentUserService.getCurrentCustomerId();
-                throw new CustomerAccessDeniedException(loanCustomerId, currentCustomerId);
-            }
+            // Installment rows and the owning customer ID come back in a single query, without managed entities
+            List<LoanInstallmentProjection> installments = loanInstallmentRepository.findProjectionsByLoanId(loanId);
 
-            // Verify loan has installments (data integrity check)
-            if (loan.getInstallments() == null) {
-                throw new LoanDataAccessException("Loan installments data is corrupted for loan ID: " + loanId);
-            }
-
-            List<LoanInstallment> installments = loan.getInstallments();
-
-            // Check if installments list is empty (new loan scenario)
             if (installments.isEmpty()) {
+                if (!loanRepository.existsById(loanId)) {
+                    throw new LoanNotFoundException(loanId);
+                }
+                // Loan exists without installments (data integrity check)
                 throw new LoanDataAccessException("No installments found for loan ID: " + loanId + ". This might indicate a data integrity issue.");
             }
 
-            return LoanMapperUtil.toLoanInstallmentResponseList(installments);
+            // Authorization check: ensure current user can access this loan's customer data
+            Long loanCustomerId = installments.get(0).getCustomerId();
+            if (!currentUser.canAccessCustomerData(loanCustomerId)) {
+                throw new CustomerAccessDeniedException(loanCustomerId, currentUser.customerId());
+            }
+
+            return LoanMapperUtil.toLoanInstallmentResponseListFromProjections(installments);
 
         } catch (LoanNotFoundException | InvalidParameterException | LoanDataAccessException | CustomerAccessDeniedException ex) {
             throw ex;
@@ -190,19 +256,74 @@ public class LoanService {
         }
     }
 
-    @Transactional
     public PayLoanResponse payLoan(Long loanId, PayLoanRequest request) {
         if (loanId == null || loanId <= 0) {
             throw new InvalidParameterException("loanId", "must be a positive number");
         }
 
+        // Each attempt runs in its own transaction; optimistic lock conflicts are retried with backoff
+        return timeTransaction("payLoan", () -> paymentRetryExecutor.execute(loanId, status -> applyPayment(loanId, request)));
+    }
+
+    // Times a write use case including its commit (and, for payments, its retries), tagged by outcome
+    private <T> T timeTransaction(String operation, Supplier<T> transaction) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = transaction.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(meterRegistry.timer("loan.service.transaction", "operation", operation, "outcome", outcome));
+        }
+    }
+
+    /**
+     * Applies a payment to a loan within the caller's transaction.
+     * Business rejections are thrown before anything is written, so callers batching several
+     * payments in one transaction can skip a rejected payment and continue with the next one.
+     */
+    public PayLoanResponse applyPayment(Long loanId, PayLoanRequest request) {
+        return applyPayment(loanId, request, true);
+    }
+
+    // Same as applyPayment, for payments whose authorization was checked when they were accepted (queued payments)
+    public PayLoanResponse applyPreAuthorizedPayment(Long loanId, PayLoanRequest request) {
+        return applyPayment(loanId, request, false);
+    }
+
+    private PayLoanResponse applyPayment(Long loanId, PayLoanRequest request, boolean checkAccess) {
+        PaymentApplicationEvent event = new PaymentApplicationEvent();
+        event.begin();
+        PayLoanResponse response = null;
         try {
-            Loan loan = loanRepository.findById(loanId)
+            response = shardRouter.onShardOf(loanId, () -> applyPaymentToLoan(loanId, request, checkAccess));
+            event.outcome = "PAID";
+            return response;
+        } catch (RuntimeException ex) {
+            event.outcome = PaymentRejections.errorCode(ex);
+            throw ex;
+        } finally {
+            if (event.shouldCommit()) {
+                event.loanId = loanId != null ? loanId : 0;
+                if (response != null) {
+                    event.installmentsPaid = response.getInstallmentsPaid();
+                    event.amountSpentMinorUnits = Money.of(response.getTotalAmountSpent()).getMinorUnits();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private PayLoanResponse applyPaymentToLoan(Long loanId, PayLoanRequest request, boolean checkAccess) {
+        try {
+            // The loan version is force-incremented on commit, so concurrent payments on the same loan conflict
+            Loan loan = loanRepository.findForPaymentById(loanId)
                     .orElseThrow(() -> new LoanNotFoundException(loanId));
 
             // Authorization check: ensure current user can access this loan's customer data
             Long loanCustomerId = loan.getCustomer().getId();
-            if (!currentUserService.canAccessCustomerData(loanCustomerId)) {
+            if (checkAccess && !currentUserService.canAccessCustomerData(loanCustomerId)) {
                 Long currentCustomerId = currentUserService.getCurrentCustomerId();
                 throw new CustomerAccessDeniedException(loanCustomerId, currentCustomerId);
             }
@@ -211,65 +332,65 @@ public class LoanService {
                 throw new LoanAlreadyPaidException(loanId);
             }
 
-            // Get unpaid installments sorted by due date (earliest first)
+            // Installments are paid in schedule order: the installments paid so far (the loan's snapshot plus its
+            // ledger tail) are the first ones, and the payable installments are those after them within the window
             LocalDate currentDate = LocalDate.now();
             LocalDate maxPayableDate = currentDate.plusMonths(3);
 
-            List<LoanInstallment> payableInstallments = loan.getInstallments().stream()
-                    .filter(installment -> !installment.getIsPaid())
-                    .filter(installment -> !installment.getDueDate().isAfter(maxPayableDate))
-                    .sorted((i1, i2) -> i1.getDueDate().compareTo(i2.getDueDate()))
-                    .collect(Collectors.toList());
+            long installmentsPaidBefore = loanLedgerService.countPaidInstallments(loanId);
+            List<LoanInstallmentProjection> scheduledInstallments =
+                    loanInstallmentRepository.findScheduledInstallments(loanId, maxPayableDate);
+            List<LoanInstallmentProjection> payableInstallments = scheduledInstallments.subList(
+                    (int) Math.min(installmentsPaidBefore, scheduledInstallments.size()), scheduledInstallments.size());
 
             if (payableInstallments.isEmpty()) {
                 throw new NoPayableInstallmentsException(loanId);
             }
 
-            // Check if payment amount can cover at least one installment
-            BigDecimal remainingAmount = request.getAmount();
-            BigDecimal firstInstallmentAmount = payableInstallments.get(0).getAmount();
+            // Check if payment amount can cover at least one installment.
+            // Installments are whole cents, so any fraction of a cent in the payment can never be spent
+            long paymentMinorUnits = toMoney("amount", () -> Money.of(request.getAmount(), RoundingMode.DOWN)).getMinorUnits();
+            Money firstInstallmentAmount = payableInstallments.get(0).getAmount();
             
-            if (remainingAmount.compareTo(firstInstallmentAmount) < 0) {
-                throw new InvalidPaymentAmountException(remainingAmount, firstInstallmentAmount);
+            if (paymentMinorUnits < firstInstallmentAmount.getMinorUnits()) {
+                throw new InvalidPaymentAmountException(request.getAmount(), firstInstallmentAmount.toBigDecimal());
             }
 
-            // Process payments
-            int installmentsPaid = 0;
-            BigDecimal totalAmountSpent = BigDecimal.ZERO;
-            
-            for (LoanInstallment installment : payableInstallments) {
-                BigDecimal installmentAmount = installment.getAmount();
-                
-                // Check if we have enough money to pay this installment
-                if (remainingAmount.compareTo(installmentAmount) >= 0) {
-                    // Pay this installment
-                    installment.setPaidAmount(installmentAmount);
-                    installment.setPaymentDate(currentDate);
-                    installment.setIsPaid(true);
-                    
-                    remainingAmount = remainingAmount.subtract(installmentAmount);
-                    totalAmountSpent = totalAmountSpent.add(installmentAmount);
-                    installmentsPaid++;
-                } else {
-                    // Not enough money for this installment, stop here
-                    break;
-                }
+            // Select the installments the payment covers
+            LoanMapperUtil.PaymentAllocation allocation = LoanMapperUtil.allocatePayment(payableInstallments, paymentMinorUnits);
+            int installmentsPaid = allocation.installmentIds().size();
+            Money totalAmountSpent = Money.ofMinor(allocation.spentMinorUnits());
+
+            // Versioned: a concurrent credit change of the customer (such as a payment on another of its loans)
+            // fails this payment on commit as a conflict, which is retried
+            Customer customer = customerRepository.findById(loanCustomerId)
+                    .orElseThrow(() -> new CustomerNotFoundException(loanCustomerId));
+
+            // A payment on this loan committed since the loan was read has bumped its version, and the installments
+            // read above may already be paid; one still in flight fails the ledger insert below instead
+            Long currentVersion = loanRepository.findVersionById(loanId).orElse(null);
+            if (!Objects.equals(currentVersion, loan.getVersion())) {
+                throw new OptimisticLockingFailureException(
+                        "Installments of loan ID " + loanId + " were paid by a concurrent transaction");
             }
 
-            // Check if all installments are now paid using utility method
-            boolean isLoanFullyPaid = LoanMapperUtil.isLoanFullyPaid(loan.getInstallments());
+            // Record the applied payment in the append-only ledger; the installment rows are never updated
+            loanLedgerService.recordPayment(loanId, loanCustomerId, installmentsPaidBefore,
+                    payableInstallments.subList(0, installmentsPaid), currentDate);
+
+            boolean isLoanFullyPaid = installmentsPaidBefore + installmentsPaid >= loan.getNumberOfInstallments();
 
             if (isLoanFullyPaid) {
                 loan.setIsPaid(true);
             }
 
-            Customer customer = loan.getCustomer();
-            customer.setUsedCreditLimit(customer.getUsedCreditLimit().subtract(totalAmountSpent));
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().minus(totalAmountSpent));
             customerRepository.save(customer);
+            recordWrite(loanCustomerId);
 
             loanRepository.save(loan);
 
-            String message = String.format("Successfully paid %d installment(s) for a total of %.2f", 
+            String message = String.format("Successfully paid %d installment(s) for a total of %s", 
                     installmentsPaid, totalAmountSpent);
             
             if (isLoanFullyPaid) {
@@ -278,13 +399,14 @@ public class LoanService {
 
             return PayLoanResponse.builder()
                     .installmentsPaid(installmentsPaid)
-                    .totalAmountSpent(totalAmountSpent)
+                    .totalAmountSpent(totalAmountSpent.toBigDecimal())
                     .isLoanFullyPaid(isLoanFullyPaid)
                     .message(message)
                     .build();
 
         } catch (LoanNotFoundException | InvalidParameterException | LoanAlreadyPaidException | 
-                 InvalidPaymentAmountException | NoPayableInstallmentsException | CustomerAccessDeniedException ex) {
+                 InvalidPaymentAmountException | NoPayableInstallmentsException | CustomerAccessDeniedException |
+                 CustomerNotFoundException | OptimisticLockingFailureException ex) {
             throw ex;
         } catch (DataAccessException ex) {
             throw new LoanDataAccessException("Database error while processing loan payment for loan ID: " + loanId, ex);
@@ -292,4 +414,37 @@ public class LoanService {
             throw new LoanDataAccessException("Unexpected error while processing loan payment for loan ID: " + loanId, ex);
         }
     }
-} 
\ No newline at end of file
+
+    // Requested amounts beyond what Money holds are rejected like any other invalid parameter
+    private static Money toMoney(String parameterName, Supplier<Money> conversion) {
+        try {
+            return conversion.get();
+        } catch (ArithmeticException ex) {
+            throw new InvalidParameterException(parameterName, "is out of range");
+        }
+    }
+
+    // After a write, the customer's reads and those of the caller who made it go to the primary for the
+    // read-your-writes window; queued payments have no caller
+    private void recordWrite(Long customerId) {
+        if (readYourWritesTracker.isEnabled()) {
+            readYourWritesTracker.recordWrite(customerId);
+            readYourWritesTracker.recordWrite(currentUserService.getCurrentCustomerId());
+        }
+    }
+
+    // Whether the caller's reads go to the primary (see ReplicaRoutingDataSource). Callers sharing an access scope,
+    // such as admins, may be on either side of their read-your-writes window, so a read is only shared with
+    // callers routed to the same database
+    private boolean readsFromPrimary(CurrentUser currentUser) {
+        return readYourWritesTracker.isEnabled() && !readYourWritesTracker.isIdle()
+                && readYourWritesTracker.requiresPrimary(currentUser.customerId());
+    }
+
+    private record ListLoansKey(String accessScope, boolean primary, Long customerId, Boolean isPaid,
+                                Integer numberOfInstallments) {
+    }
+
+    private record LoanInstallmentsKey(String accessScope, boolean primary, Long loanId) {
+    }
+}
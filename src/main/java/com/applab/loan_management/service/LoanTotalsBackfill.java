@@ -0,0 +1,115 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.shard.ShardRouter;
+import com.applab.loan_management.util.LoanMapperUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/* Backfills loans.total_amount and loans.installment_amount for loans created before they were stored.
+ * Runs once at startup: the ID range still missing totals is split into fixed-size chunks that are
+ * processed in parallel, each in its own transaction. Rows are only written while still null, so the
+ * backfill is idempotent and safe to run next to live traffic. A sharded loan book is backfilled shard by shard.
+ */
+@Slf4j
+@Component
+public class LoanTotalsBackfill {
+
+    private final LoanRepository loanRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int parallelism;
+    private final boolean virtualThreads;
+
+    public LoanTotalsBackfill(LoanRepository loanRepository,
+                              TransactionTemplate transactionTemplate,
+                              ShardRouter shardRouter,
+                              @Value("${loan.backfill.loan-totals.enabled:true}") boolean enabled,
+                              @Value("${loan.backfill.loan-totals.chunk-size:1000}") int chunkSize,
+                              @Value("${loan.backfill.loan-totals.parallelism:4}") int parallelism,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.loanRepository = loanRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, parallelism);
+        this.virtualThreads = virtualThreads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            backfill();
+        }
+    }
+
+    // Returns the number of loans backfilled
+    public int backfill() {
+        return shardRouter.forEachShard(this::backfillShard).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private int backfillShard(int shard) {
+        Optional<Long> minId = loanRepository.findMinIdWithoutTotals();
+        Optional<Long> maxId = loanRepository.findMaxIdWithoutTotals();
+        if (minId.isEmpty() || maxId.isEmpty()) {
+            return 0;
+        }
+
+        // The pool size bounds the connections used, whether its threads are virtual or not
+        Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, threadBuilder.name("loan-totals-backfill-", 0).factory());
+        try {
+            List<Future<Integer>> chunks = new ArrayList<>();
+            for (long fromId = minId.get(); fromId <= maxId.get(); fromId += chunkSize) {
+                long chunkFromId = fromId;
+                long chunkToId = Math.min(fromId + chunkSize - 1, maxId.get());
+                chunks.add(executor.submit(() -> shardRouter.onShard(shard,
+                        () -> transactionTemplate.execute(status -> backfillChunk(chunkFromId, chunkToId)))));
+            }
+
+            int backfilled = 0;
+            for (Future<Integer> chunk : chunks) {
+                backfilled += chunk.get();
+            }
+            log.info("Backfilled totals of {} loans in {} chunks", backfilled, chunks.size());
+            return backfilled;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backfilling loan totals", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to backfill loan totals", ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Computes the totals with the same rounding as loan origination
+    int backfillChunk(long fromId, long toId) {
+        int backfilled = 0;
+        for (Loan loan : loanRepository.findByIdBetweenAndTotalAmountIsNull(fromId, toId)) {
+            Money totalAmount = LoanMapperUtil.calculateTotalLoanAmount(loan.getLoanAmount(), loan.getInterestRate());
+            Money installmentAmount = LoanMapperUtil.calculateInstallmentAmount(totalAmount, loan.getNumberOfInstallments());
+            backfilled += loanRepository.backfillTotals(loan.getId(), totalAmount, installmentAmount);
+        }
+        return backfilled;
+    }
+}
@@ -0,0 +1,251 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.shard.ShardRouter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Imports settlement files of loan payments.
+ * Rows are read lazily and applied in chunks: each chunk runs in one transaction, with its rows grouped
+ * by loan so every loan is loaded once per chunk. If a chunk fails as a whole (e.g. an optimistic lock
+ * conflict), its rows are replayed one by one through LoanService.payLoan. A CSV report line is written
+ * per row as soon as its chunk completes. In a sharded loan book, a chunk runs one transaction per shard.
+ */
+@Slf4j
+@Service
+public class PaymentImportService {
+
+    static final String REPORT_HEADER = "line,loanId,amount,status,installmentsPaid,totalAmountSpent,message";
+    static final String FILE_HEADER = "loanId,amount";
+
+    private final LoanService loanService;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+
+    public PaymentImportService(LoanService loanService,
+                                TransactionTemplate transactionTemplate,
+                                ShardRouter shardRouter,
+                                @Value("${loan.payment.import.chunk-size:500}") int chunkSize) {
+        this.loanService = loanService;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    // Reads "loanId,amount" rows (an optional "loanId,amount" header line is skipped) and streams one report line
+    // per row; any other line that is not a payment, including the first, is reported as INVALID_ROW
+    public ImportSummary importPayments(Reader csv, Writer report) throws IOException {
+        BufferedReader reader = csv instanceof BufferedReader ? (BufferedReader) csv : new BufferedReader(csv);
+        ImportSummary summary = new ImportSummary();
+        List<PaymentRow> chunk = new ArrayList<>(chunkSize);
+
+        report.write(REPORT_HEADER);
+        report.write('\n');
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1) {
+                line = stripByteOrderMark(line);
+                if (isHeader(line)) {
+                    continue;
+                }
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+
+            PaymentRow row;
+            try {
+                row = PaymentRow.parse(lineNumber, line);
+            } catch (IllegalArgumentException ex) {
+                writeResult(report, summary, RowResult.rejected(lineNumber, null, null, "INVALID_ROW", ex.getMessage()));
+                continue;
+            }
+
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, report, summary);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report, summary);
+        }
+
+        report.write(String.format("# processed=%d, succeeded=%d, failed=%d\n",
+                summary.getProcessed(), summary.getSucceeded(), summary.getFailed()));
+        report.flush();
+        return summary;
+    }
+
+    private void processChunk(List<PaymentRow> chunk, Writer report, ImportSummary summary) throws IOException {
+        // A transaction stays on one shard, so the rows are applied shard by shard
+        Map<Integer, List<PaymentRow>> rowsByShard = new LinkedHashMap<>();
+        for (PaymentRow row : chunk) {
+            rowsByShard.computeIfAbsent(shardRouter.shardOf(row.loanId()), shard -> new ArrayList<>()).add(row);
+        }
+
+        List<RowResult> results = new ArrayList<>(chunk.size());
+        for (Map.Entry<Integer, List<PaymentRow>> shardRows : rowsByShard.entrySet()) {
+            results.addAll(shardRouter.onShard(shardRows.getKey(), () -> applyRows(shardRows.getValue())));
+        }
+        results.sort((r1, r2) -> Integer.compare(r1.lineNumber(), r2.lineNumber()));
+
+        for (RowResult result : results) {
+            writeResult(report, summary, result);
+        }
+        report.flush();
+    }
+
+    // Rows of one shard in one transaction, or one by one if that transaction fails
+    private List<RowResult> applyRows(List<PaymentRow> rows) {
+        try {
+            return transactionTemplate.execute(status -> applyGroupedByLoan(rows));
+        } catch (RuntimeException ex) {
+            log.warn("Payment import chunk of {} rows failed, replaying rows individually: {}", rows.size(), ex.getMessage());
+            return applyIndividually(rows);
+        }
+    }
+
+    // Applies a chunk in the current transaction; rows of the same loan are applied together, in file order
+    private List<RowResult> applyGroupedByLoan(List<PaymentRow> chunk) {
+        Map<Long, List<PaymentRow>> rowsByLoan = new LinkedHashMap<>();
+        for (PaymentRow row : chunk) {
+            rowsByLoan.computeIfAbsent(row.loanId(), loanId -> new ArrayList<>()).add(row);
+        }
+
+        List<RowResult> results = new ArrayList<>(chunk.size());
+        for (List<PaymentRow> loanRows : rowsByLoan.values()) {
+            for (PaymentRow row : loanRows) {
+                try {
+                    PayLoanResponse response = loanService.applyPayment(row.loanId(), row.toRequest());
+                    results.add(RowResult.applied(row, response));
+                } catch (RuntimeException ex) {
+                    if (!PaymentRejections.isBusinessRejection(ex)) {
+                        throw ex;
+                    }
+                    results.add(RowResult.rejected(row.lineNumber(), row.loanId(), row.amount(),
+                            PaymentRejections.errorCode(ex), ex.getMessage()));
+                }
+            }
+        }
+        results.sort((r1, r2) -> Integer.compare(r1.lineNumber(), r2.lineNumber()));
+        return results;
+    }
+
+    // Fallback: each row in its own transaction, with the payment path's optimistic retry
+    private List<RowResult> applyIndividually(List<PaymentRow> chunk) {
+        List<RowResult> results = new ArrayList<>(chunk.size());
+        for (PaymentRow row : chunk) {
+            try {
+                PayLoanResponse response = loanService.payLoan(row.loanId(), row.toRequest());
+                results.add(RowResult.applied(row, response));
+            } catch (RuntimeException ex) {
+                results.add(RowResult.rejected(row.lineNumber(), row.loanId(), row.amount(),
+                        PaymentRejections.errorCode(ex), ex.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    // Files saved as UTF-8 by spreadsheet tools start with a byte order mark
+    private static String stripByteOrderMark(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.replace(" ", "").equalsIgnoreCase(FILE_HEADER);
+    }
+
+    private static void writeResult(Writer report, ImportSummary summary, RowResult result) throws IOException {
+        summary.record(result.applied());
+        report.write(result.toCsv());
+        report.write('\n');
+    }
+
+    record PaymentRow(int lineNumber, Long loanId, BigDecimal amount) {
+
+        static PaymentRow parse(int lineNumber, String line) {
+            String[] columns = line.split(",");
+            if (columns.length < 2) {
+                throw new IllegalArgumentException("expected loanId,amount");
+            }
+            try {
+                long loanId = Long.parseLong(columns[0].strip());
+                BigDecimal amount = new BigDecimal(columns[1].strip());
+                if (loanId <= 0) {
+                    throw new IllegalArgumentException("loanId must be a positive number");
+                }
+                if (amount.signum() <= 0) {
+                    throw new IllegalArgumentException("amount must be greater than 0");
+                }
+                return new PaymentRow(lineNumber, loanId, amount);
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("loanId and amount must be numeric");
+            }
+        }
+
+        PayLoanRequest toRequest() {
+            return PayLoanRequest.builder().amount(amount).build();
+        }
+    }
+
+    record RowResult(int lineNumber, Long loanId, BigDecimal amount, boolean applied, String status,
+                     int installmentsPaid, BigDecimal totalAmountSpent, String message) {
+
+        static RowResult applied(PaymentRow row, PayLoanResponse response) {
+            return new RowResult(row.lineNumber(), row.loanId(), row.amount(), true, "APPLIED",
+                    response.getInstallmentsPaid(), response.getTotalAmountSpent(), response.getMessage());
+        }
+
+        static RowResult rejected(int lineNumber, Long loanId, BigDecimal amount, String status, String message) {
+            return new RowResult(lineNumber, loanId, amount, false, status, 0, BigDecimal.ZERO, message);
+        }
+
+        String toCsv() {
+            return lineNumber + "," + (loanId != null ? loanId : "") + "," + (amount != null ? amount.toPlainString() : "")
+                    + "," + status + "," + installmentsPaid + "," + totalAmountSpent.toPlainString()
+                    + ",\"" + (message != null ? message.replace("\"", "\"\"") : "") + "\"";
+        }
+    }
+
+    public static class ImportSummary {
+        private int processed;
+        private int succeeded;
+
+        void record(boolean applied) {
+            processed++;
+            if (applied) {
+                succeeded++;
+            }
+        }
+
+        public int getProcessed() {
+            return processed;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+
+        public int getFailed() {
+            return processed - succeeded;
+        }
+    }
+}
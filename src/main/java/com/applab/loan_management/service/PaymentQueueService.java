@@ -0,0 +1,209 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.QueuedPaymentStatus;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
+import com.applab.loan_management.entity.QueuedPayment;
+import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.exception.InvalidParameterException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.exception.QueuedPaymentNotFoundException;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.repository.QueuedPaymentRepository;
+import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import com.applab.loan_management.util.LoanMapperUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/* Asynchronous payment acceptance.
+ * Payments are validated and authorized when accepted, then stored as PENDING rows in the payment_queue table.
+ * A scheduled worker drains the queue in batches: each batch runs in one transaction with its payments grouped
+ * by loan, and every payment's outcome is stored in the same transaction that applies it. If a batch fails as a
+ * whole, its payments are replayed one by one with the payment path's optimistic retry.
+ * A payment is queued on its loan's shard, and the worker drains the queue of each shard in turn.
+ * The worker assumes a single application instance drains the queue.
+ */
+@Slf4j
+@Service
+public class PaymentQueueService {
+
+    private final QueuedPaymentRepository queuedPaymentRepository;
+    private final LoanRepository loanRepository;
+    private final LoanService loanService;
+    private final CurrentUserService currentUserService;
+    private final PaymentRetryExecutor paymentRetryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int batchSize;
+
+    public PaymentQueueService(QueuedPaymentRepository queuedPaymentRepository,
+                               LoanRepository loanRepository,
+                               LoanService loanService,
+                               CurrentUserService currentUserService,
+                               PaymentRetryExecutor paymentRetryExecutor,
+                               TransactionTemplate transactionTemplate,
+                               ShardRouter shardRouter,
+                               @Value("${loan.payment.queue.batch-size:200}") int batchSize) {
+        this.queuedPaymentRepository = queuedPaymentRepository;
+        this.loanRepository = loanRepository;
+        this.loanService = loanService;
+        this.currentUserService = currentUserService;
+        this.paymentRetryExecutor = paymentRetryExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Transactional
+    public QueuedPaymentResponse enqueuePayment(Long loanId, PayLoanRequest request) {
+        if (loanId == null || loanId <= 0) {
+            throw new InvalidParameterException("loanId", "must be a positive number");
+        }
+
+        // Queued on the loan's shard, so the payment ID routes to it as well
+        return shardRouter.onShardOf(loanId, () -> enqueueOnShard(loanId, request));
+    }
+
+    private QueuedPaymentResponse enqueueOnShard(Long loanId, PayLoanRequest request) {
+        Long loanCustomerId = loanRepository.findCustomerIdById(loanId)
+                .orElseThrow(() -> new LoanNotFoundException(loanId));
+
+        // Authorization check: ensure current user can access this loan's customer data
+        if (!currentUserService.canAccessCustomerData(loanCustomerId)) {
+            Long currentCustomerId = currentUserService.getCurrentCustomerId();
+            throw new CustomerAccessDeniedException(loanCustomerId, currentCustomerId);
+        }
+
+        QueuedPayment payment = QueuedPayment.builder()
+                .loanId(loanId)
+                .customerId(loanCustomerId)
+                .amount(request.getAmount())
+                .status(QueuedPaymentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        return LoanMapperUtil.toQueuedPaymentResponse(queuedPaymentRepository.save(payment));
+    }
+
+    @Transactional(readOnly = true)
+    public QueuedPaymentResponse getPaymentStatus(Long paymentId) {
+        if (paymentId == null || paymentId <= 0) {
+            throw new InvalidParameterException("paymentId", "must be a positive number");
+        }
+
+        QueuedPayment payment = shardRouter.onShardOf(paymentId, () -> queuedPaymentRepository.findById(paymentId))
+                .orElseThrow(() -> new QueuedPaymentNotFoundException(paymentId));
+
+        // Authorization check: ensure current user can access this payment's customer data
+        if (!currentUserService.canAccessCustomerData(payment.getCustomerId())) {
+            Long currentCustomerId = currentUserService.getCurrentCustomerId();
+            throw new CustomerAccessDeniedException(payment.getCustomerId(), currentCustomerId);
+        }
+
+        return LoanMapperUtil.toQueuedPaymentResponse(payment);
+    }
+
+    @Scheduled(fixedDelayString = "${loan.payment.queue.poll-interval-ms:200}")
+    public void drainQueue() {
+        shardRouter.forEachShard(shard -> {
+            int processed;
+            do {
+                processed = processNextBatch();
+            } while (processed == batchSize);
+            return null;
+        });
+    }
+
+    // Processes up to batchSize pending payments; returns how many were taken from the queue
+    int processNextBatch() {
+        List<Long> paymentIds = queuedPaymentRepository.findIdsByStatus(QueuedPaymentStatus.PENDING, PageRequest.of(0, batchSize));
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyBatch(paymentIds));
+        } catch (RuntimeException ex) {
+            log.warn("Payment queue batch of {} payments failed, replaying individually: {}", paymentIds.size(), ex.getMessage());
+            paymentIds.forEach(this::applyIndividually);
+        }
+        return paymentIds.size();
+    }
+
+    private void applyBatch(List<Long> paymentIds) {
+        Map<Long, List<QueuedPayment>> paymentsByLoan = new LinkedHashMap<>();
+        for (QueuedPayment payment : queuedPaymentRepository.findAllById(paymentIds)) {
+            if (payment.getStatus() == QueuedPaymentStatus.PENDING) {
+                paymentsByLoan.computeIfAbsent(payment.getLoanId(), loanId -> new ArrayList<>()).add(payment);
+            }
+        }
+
+        for (List<QueuedPayment> loanPayments : paymentsByLoan.values()) {
+            loanPayments.sort((p1, p2) -> p1.getId().compareTo(p2.getId()));
+            for (QueuedPayment payment : loanPayments) {
+                applyAndRecord(payment);
+            }
+        }
+    }
+
+    private void applyIndividually(Long paymentId) {
+        // Looked up first: the retry executor reports an exhausted conflict by the payment's loan ID
+        Long loanId = queuedPaymentRepository.findById(paymentId).map(QueuedPayment::getLoanId).orElse(null);
+        if (loanId == null) {
+            return;
+        }
+
+        try {
+            paymentRetryExecutor.execute(loanId, status -> {
+                queuedPaymentRepository.findById(paymentId)
+                        .filter(payment -> payment.getStatus() == QueuedPaymentStatus.PENDING)
+                        .ifPresent(this::applyAndRecord);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Queued payment {} could not be applied: {}", paymentId, ex.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    queuedPaymentRepository.findById(paymentId).ifPresent(payment ->
+                            markRejected(payment, PaymentRejections.errorCode(ex), ex.getMessage())));
+        }
+    }
+
+    // Applies a managed queued payment in the current transaction and stores its outcome on the queue row
+    private void applyAndRecord(QueuedPayment payment) {
+        PayLoanRequest request = PayLoanRequest.builder().amount(payment.getAmount()).build();
+        try {
+            PayLoanResponse response = loanService.applyPreAuthorizedPayment(payment.getLoanId(), request);
+            payment.setStatus(QueuedPaymentStatus.APPLIED);
+            payment.setInstallmentsPaid(response.getInstallmentsPaid());
+            payment.setTotalAmountSpent(response.getTotalAmountSpent());
+            payment.setIsLoanFullyPaid(response.isLoanFullyPaid());
+            payment.setMessage(response.getMessage());
+            payment.setProcessedAt(LocalDateTime.now());
+        } catch (RuntimeException ex) {
+            if (!PaymentRejections.isBusinessRejection(ex)) {
+                throw ex;
+            }
+            markRejected(payment, PaymentRejections.errorCode(ex), ex.getMessage());
+        }
+    }
+
+    private void markRejected(QueuedPayment payment, String errorCode, String message) {
+        payment.setStatus(QueuedPaymentStatus.REJECTED);
+        payment.setErrorCode(errorCode);
+        payment.setMessage(message);
+        payment.setProcessedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,38 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.exception.InvalidParameterException;
+import com.applab.loan_management.exception.InvalidPaymentAmountException;
+import com.applab.loan_management.exception.LoanAlreadyPaidException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.exception.NoPayableInstallmentsException;
+import com.applab.loan_management.exception.PaymentConflictException;
+
+/* Classifies exceptions raised while applying a payment for batch callers (imports, queue workers),
+ * using the same error codes as GlobalExceptionHandler.
+ */
+final class PaymentRejections {
+
+    private PaymentRejections() {}
+
+    // Business rejections are raised before a payment writes anything, so a batch can skip them and go on
+    static boolean isBusinessRejection(RuntimeException ex) {
+        return ex instanceof LoanNotFoundException
+                || ex instanceof LoanAlreadyPaidException
+                || ex instanceof InvalidPaymentAmountException
+                || ex instanceof NoPayableInstallmentsException
+                || ex instanceof CustomerAccessDeniedException
+                || ex instanceof InvalidParameterException;
+    }
+
+    static String errorCode(RuntimeException ex) {
+        if (ex instanceof LoanNotFoundException) return "LOAN_NOT_FOUND";
+        if (ex instanceof LoanAlreadyPaidException) return "LOAN_ALREADY_PAID";
+        if (ex instanceof InvalidPaymentAmountException) return "INVALID_PAYMENT_AMOUNT";
+        if (ex instanceof NoPayableInstallmentsException) return "NO_PAYABLE_INSTALLMENTS";
+        if (ex instanceof CustomerAccessDeniedException) return "CUSTOMER_ACCESS_DENIED";
+        if (ex instanceof InvalidParameterException) return "INVALID_PARAMETER";
+        if (ex instanceof PaymentConflictException) return "PAYMENT_CONFLICT";
+        return "ERROR";
+    }
+}
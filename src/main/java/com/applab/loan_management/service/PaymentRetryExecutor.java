@@ -0,0 +1,85 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.exception.PaymentConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/* Runs a payment in its own transaction and retries it when an optimistic lock conflict
+ * is detected, either while applying the payment or when committing it.
+ * Retries are bounded and spaced with full-jitter exponential backoff.
+ */
+@Component
+public class PaymentRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter conflictCounter;
+    private final Counter retriedSuccessCounter;
+    private final Counter exhaustedCounter;
+
+    public PaymentRetryExecutor(TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${loan.payment.retry.max-attempts:3}") int maxAttempts,
+                                @Value("${loan.payment.retry.initial-backoff-ms:10}") long initialBackoffMillis,
+                                @Value("${loan.payment.retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.conflictCounter = Counter.builder("loan.payment.conflicts")
+                .description("Optimistic lock conflicts detected while applying loan payments")
+                .register(meterRegistry);
+        this.retriedSuccessCounter = Counter.builder("loan.payment.retries.succeeded")
+                .description("Loan payments that succeeded after at least one retry")
+                .register(meterRegistry);
+        this.exhaustedCounter = Counter.builder("loan.payment.retries.exhausted")
+                .description("Loan payments rejected after exhausting all retry attempts")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Long loanId, TransactionCallback<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                T result = transactionTemplate.execute(action);
+                if (attempt > 1) {
+                    retriedSuccessCounter.increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException ex) {
+                conflictCounter.increment();
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw new PaymentConflictException(loanId, attempt, ex);
+                }
+                sleepBeforeRetry(loanId, attempt, ex);
+                attempt++;
+            }
+        }
+    }
+
+    // Full jitter: sleep a random time between 0 and the capped exponential backoff
+    long backoffMillis(int attempt) {
+        long exponential = initialBackoffMillis << Math.min(attempt - 1, 20);
+        long cap = Math.min(maxBackoffMillis, exponential);
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private void sleepBeforeRetry(Long loanId, int attempt, OptimisticLockingFailureException cause) {
+        try {
+            Thread.sleep(backoffMillis(attempt));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new PaymentConflictException(loanId, attempt, cause);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.applab.loan_management.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/* Coalesces identical concurrent reads: while a computation for a key is in flight, further callers with
+ * an equal key wait for it and get the same result (or the same exception) instead of running it again.
+ * The key is removed before the result is published, so nothing is served once the computation is done;
+ * a caller arriving after that starts a new computation. Keys must include everything the result depends
+ * on, including the caller's authorization scope.
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.coalescedCounter = Counter.builder("loan.single_flight.coalesced")
+                .description("Reads that shared an identical in-flight computation instead of running their own")
+                .register(meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> computation) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCounter.increment();
+            return (T) await(existing);
+        }
+
+        T result;
+        try {
+            result = computation.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(ex);
+            throw ex;
+        }
+        inFlight.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.applab.loan_management.shard;
+
+// The shard the current thread works on, set by ShardRouter and read by ShardRoutingDataSource
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    // Null outside any ShardRouter call, which routes to shard 0
+    static Integer current() {
+        return CURRENT_SHARD.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+}
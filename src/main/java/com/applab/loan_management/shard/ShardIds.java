@@ -0,0 +1,25 @@
+package com.applab.loan_management.shard;
+
+/* Global ID scheme of a sharded loan book: every shard generates its IDs (customers, loans and queued
+ * payments) in its own range of ID_RANGE values, starting at shard * ID_RANGE + 1, so the shard of
+ * any such ID is its quotient by ID_RANGE. Shard 0 keeps the IDs of an unsharded database.
+ * For example, loan 2000000000042 lives on shard 2.
+ * Installment and ledger entry IDs are the exception: Hibernate hands them out from one in-memory block of
+ * 50 sequence values, fetched from whichever shard needs the next block, so they stay unique but do not
+ * encode their shard. Installments and ledger entries are only ever reached through their loan.
+ */
+public final class ShardIds {
+
+    // A trillion IDs per shard; up to 9000 shards stay below 2^53, so IDs remain exact in JSON clients
+    public static final long ID_RANGE = 1_000_000_000_000L;
+
+    private ShardIds() {}
+
+    public static int shardOf(long id) {
+        return (int) (id / ID_RANGE);
+    }
+
+    public static long firstIdOf(int shard) {
+        return shard * ID_RANGE + 1;
+    }
+}
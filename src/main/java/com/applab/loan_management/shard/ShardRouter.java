@@ -0,0 +1,184 @@
+package com.applab.loan_management.shard;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/* Routes data access to the shard of the customer it concerns, when the loan book is sharded
+ * (loan.sharding.urls lists one database per shard). A customer is placed on the home shard of their email
+ * when registering, and the customer's loans, installments, ledger and queued payments are stored on the same
+ * shard, with IDs that encode it (ShardIds). So a customer ID, loan ID or payment ID routes by itself.
+ * Customers already in a database when it became shard 0, or registered before shards were added, may live
+ * off their email's home shard, so emails are looked up on their home shard first and then on the others.
+ * Every transaction stays on one shard: routing to another shard inside it fails. Without sharding,
+ * every call simply runs on the single database.
+ */
+@Component
+public class ShardRouter implements DisposableBean {
+
+    private final int shardCount;
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public ShardRouter(@Value("${loan.sharding.urls:}") String shardUrls,
+                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.shardCount = Math.max(1, shardUrls(shardUrls).size());
+        // One thread per shard, so a scatter-gather queries all shards at once
+        Thread.Builder threadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        this.scatterExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount, threadBuilder.name("shard-scatter-", 0).factory())
+                : null;
+    }
+
+    static List<String> shardUrls(String shardUrls) {
+        return Arrays.stream(StringUtils.commaDelimitedListToStringArray(shardUrls))
+                .map(String::strip)
+                .filter(StringUtils::hasText)
+                .toList();
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    // Shard of a customer, loan or payment ID; IDs of no shard (including invalid ones) go to shard 0,
+    // where they are not found
+    public int shardOf(Long id) {
+        if (id == null || id <= 0) {
+            return 0;
+        }
+        int shard = ShardIds.shardOf(id);
+        return shard < shardCount ? shard : 0;
+    }
+
+    // Shard a customer registers on, and where their email is looked up first
+    public int homeShardOf(String email) {
+        return email == null ? 0 : Math.floorMod(email.hashCode(), shardCount);
+    }
+
+    // Runs the lookup on every shard but the given one, in turn, until one finds a result
+    public <T> Optional<T> findOnOtherShards(int excludedShard, Supplier<Optional<T>> lookup) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (shard != excludedShard) {
+                Optional<T> found = onShard(shard, lookup);
+                if (found.isPresent()) {
+                    return found;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public <T> T onShardOf(Long id, Supplier<T> action) {
+        return onShard(shardOf(id), action);
+    }
+
+    public void onShardOf(Long id, Runnable action) {
+        onShard(shardOf(id), () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Runs the action with the shard's connections; a transaction is pinned to the shard it first routed to
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (!isSharded()) {
+            return action.get();
+        }
+        pinToTransaction(shard);
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    // Runs the action on each shard in turn, on the calling thread; results in shard order
+    public <T> List<T> forEachShard(IntFunction<T> action) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            results.add(onShard(current, () -> action.apply(current)));
+        }
+        return results;
+    }
+
+    /**
+     * Scatter-gather: runs the action on all shards in parallel and returns the results in shard order.
+     * The action runs on other threads, outside the caller's transaction and security context,
+     * so it must check access beforehand and open its own (read-only) transaction.
+     */
+    public <T> List<T> scatterGather(Supplier<T> action) {
+        if (!isSharded()) {
+            return List.of(action.get());
+        }
+        List<Future<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(scatterExecutor.submit(() -> onShard(current, action)));
+        }
+        try {
+            List<T> results = new ArrayList<>(shardCount);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying all shards", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to query all shards", ex.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void pinToTransaction(int shard) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Integer pinned = (Integer) TransactionSynchronizationManager.getResource(this);
+        if (pinned == null) {
+            TransactionSynchronizationManager.bindResource(this, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ShardRouter.this);
+                }
+            });
+        } else if (pinned != shard) {
+            throw new IllegalStateException("A transaction on shard " + pinned + " cannot access shard " + shard);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.applab.loan_management.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.SchemaToolingSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/* A sharded loan book (loan.sharding.urls, one JDBC URL per shard, shard 0 first): the primary data source
+ * becomes a ShardRoutingDataSource over one connection pool per shard, each configured like the single pool
+ * (spring.datasource.username/password and spring.datasource.hikari.*). At startup every shard is migrated
+ * with the versioned migrations in db/migration and given its ID range (ShardIds); Hibernate then only
+ * validates the schema. An existing unsharded database can be listed as shard 0 as it is, and shards can be
+ * appended later: customers stay where they are and are found by email on any shard (see ShardRouter).
+ * Read replicas and group commit are not supported together with sharding.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${loan.sharding.urls:}'.isBlank()")
+public class ShardingConfig {
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties,
+                                        Environment environment,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${loan.sharding.urls}") String shardUrls,
+                                        @Value("${loan.datasource.replica.url:}") String replicaUrl,
+                                        @Value("${loan.group-commit.enabled:false}") boolean groupCommit) {
+        if (StringUtils.hasText(replicaUrl) || groupCommit) {
+            throw new IllegalStateException(
+                    "loan.sharding.urls cannot be combined with loan.datasource.replica.url or loan.group-commit.enabled");
+        }
+
+        List<String> urls = ShardRouter.shardUrls(shardUrls);
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        try {
+            for (int shard = 0; shard < urls.size(); shard++) {
+                HikariDataSource pool = createPool(properties, environment, urls.get(shard), shard);
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                shards.add(pool);
+                migrate(pool, shard);
+            }
+        } catch (RuntimeException ex) {
+            shards.forEach(HikariDataSource::close);
+            throw ex;
+        }
+        log.info("Loan book sharded across {} databases", shards.size());
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // The shard schemas come from the migrations; Hibernate would only create or update shard 0
+    @Bean
+    public HibernatePropertiesCustomizer shardedSchemaCustomizer() {
+        return properties -> properties.put(SchemaToolingSettings.HBM2DDL_AUTO, "validate");
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties, Environment environment, String url, int shard) {
+        HikariDataSource pool = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(properties.determineUsername())
+                .password(properties.determinePassword())
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("shard-" + shard);
+        return pool;
+    }
+
+    private static void migrate(HikariDataSource pool, int shard) {
+        Flyway.configure()
+                .dataSource(pool)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        if (shard > 0) {
+            assignIdRange(new JdbcTemplate(pool), ShardIds.firstIdOf(shard));
+        }
+    }
+
+    // Moves the identity columns and sequences of a shard that has not generated IDs of its range yet
+    // to the start of that range (H2 syntax)
+    private static void assignIdRange(JdbcTemplate jdbcTemplate, long firstId) {
+        List<String[]> identityColumns = jdbcTemplate.query(
+                "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_SCHEMA = 'PUBLIC' AND IS_IDENTITY = 'YES'",
+                (rs, rowNum) -> new String[] {rs.getString(1), rs.getString(2)});
+        for (String[] column : identityColumns) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(" + column[1] + ") FROM " + column[0], Long.class);
+            if (maxId == null || maxId < firstId) {
+                jdbcTemplate.execute("ALTER TABLE " + column[0] + " ALTER COLUMN " + column[1] + " RESTART WITH " + firstId);
+            }
+        }
+
+        List<String[]> sequences = jdbcTemplate.query(
+                "SELECT SEQUENCE_NAME, BASE_VALUE, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = 'PUBLIC'",
+                (rs, rowNum) -> new String[] {rs.getString(1), rs.getString(2), rs.getString(3)});
+        for (String[] sequence : sequences) {
+            // Pooled optimizers hand out the block of IDs below each value, so the first block starts at firstId
+            long restartWith = firstId + Long.parseLong(sequence[2]) - 1;
+            if (Long.parseLong(sequence[1]) < firstId) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence[0] + " RESTART WITH " + restartWith);
+            }
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.applab.loan_management.dto.AuthenticationResponse;
 import com.applab.loan_management.dto.RegisterRequest;
 import com.applab.loan_management.dto.RegisterResponse;
 import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
 import com.applab.loan_management.security.JwtUtil;
 import com.applab.loan_management.security.CustomerUserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -31,8 +32,8 @@ public final class AuthMapperUtil {
                     .role(request.getRole())
                     .name(request.getName())
                     .surname(request.getSurname())
-                    .creditLimit(request.getCreditLimit())
-                    .usedCreditLimit(request.getUsedCreditLimit())
+                    .creditLimit(Money.ofNullable(request.getCreditLimit()))
+                    .usedCreditLimit(Money.ofNullable(request.getUsedCreditLimit()))
                     .build();
         } else {
             // Create admin without credit fields
@@ -1,15 +1,20 @@
 package com.applab.loan_management.util;
 
 import com.applab.loan_management.dto.CreateLoanResponse;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanListProjection;
 import com.applab.loan_management.dto.LoanListResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
 import com.applab.loan_management.entity.Loan;
 import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.entity.QueuedPayment;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 /* Utility class for converting loan entities to DTOs 
@@ -21,91 +26,148 @@ public final class LoanMapperUtil {
 
     // Converts a Loan entity to CreateLoanResponse DTO
     public static CreateLoanResponse toCreateLoanResponse(Loan loan) {
-        BigDecimal totalAmount = calculateTotalLoanAmount(loan.getLoanAmount(), loan.getInterestRate());
+        Money totalAmount = totalAmountOf(loan);
         
         return CreateLoanResponse.builder()
                 .id(loan.getId())
                 .customerId(loan.getCustomer().getId())
                 .customerName(loan.getCustomer().getName())
                 .customerSurname(loan.getCustomer().getSurname())
-                .loanAmount(loan.getLoanAmount())
+                .loanAmount(loan.getLoanAmount().toBigDecimal())
                 .interestRate(loan.getInterestRate())
                 .numberOfInstallments(loan.getNumberOfInstallments())
                 .createDate(loan.getCreateDate())
                 .isPaid(loan.getIsPaid())
-                .totalAmount(totalAmount)
+                .totalAmount(totalAmount.toBigDecimal())
                 .build();
     }
 
-    // Converts a Loan entity to LoanListResponse DTO
-    public static LoanListResponse toLoanListResponse(Loan loan) {
-        BigDecimal totalAmount = calculateTotalLoanAmount(loan.getLoanAmount(), loan.getInterestRate());
-        int remainingInstallments = calculateRemainingInstallments(loan.getInstallments());
+    // Converts a loan list projection row to LoanListResponse DTO
+    public static LoanListResponse toLoanListResponse(LoanListProjection projection) {
+        Money totalAmount = projection.getTotalAmount() != null
+                ? projection.getTotalAmount()
+                : calculateTotalLoanAmount(projection.getLoanAmount(), projection.getInterestRate());
 
         return LoanListResponse.builder()
-                .id(loan.getId())
-                .customerId(loan.getCustomer().getId())
-                .customerName(loan.getCustomer().getName())
-                .customerSurname(loan.getCustomer().getSurname())
-                .loanAmount(loan.getLoanAmount())
-                .interestRate(loan.getInterestRate())
-                .numberOfInstallments(loan.getNumberOfInstallments())
-                .createDate(loan.getCreateDate())
-                .isPaid(loan.getIsPaid())
-                .totalAmount(totalAmount)
-                .remainingInstallments(remainingInstallments)
+                .id(projection.getId())
+                .customerId(projection.getCustomerId())
+                .customerName(projection.getCustomerName())
+                .customerSurname(projection.getCustomerSurname())
+                .loanAmount(projection.getLoanAmount().toBigDecimal())
+                .interestRate(projection.getInterestRate())
+                .numberOfInstallments(projection.getNumberOfInstallments())
+                .createDate(projection.getCreateDate())
+                .isPaid(projection.getIsPaid())
+                .totalAmount(totalAmount.toBigDecimal())
+                .remainingInstallments(projection.getRemainingInstallments().intValue())
                 .build();
     }
 
-    // Converts a LoanInstallment entity to LoanInstallmentResponse DTO
-    public static LoanInstallmentResponse toLoanInstallmentResponse(LoanInstallment installment, int installmentNumber) {
+    // Converts an installment projection row to LoanInstallmentResponse DTO
+    public static LoanInstallmentResponse toLoanInstallmentResponse(LoanInstallmentProjection projection, int installmentNumber) {
         return LoanInstallmentResponse.builder()
-                .id(installment.getId())
-                .loanId(installment.getLoan().getId())
-                .amount(installment.getAmount())
-                .dueDate(installment.getDueDate())
-                .paymentDate(installment.getPaymentDate())
-                .paidAmount(installment.getPaidAmount())
-                .isPaid(installment.getIsPaid())
+                .id(projection.getId())
+                .loanId(projection.getLoanId())
+                .amount(projection.getAmount().toBigDecimal())
+                .dueDate(projection.getDueDate())
+                .paymentDate(projection.getPaymentDate())
+                .paidAmount(toBigDecimal(projection.getPaidAmount()))
+                .isPaid(projection.getIsPaid())
                 .installmentNumber(installmentNumber)
                 .build();
     }
 
-    // Converts a list of LoanInstallment entities to LoanInstallmentResponse DTOsn list of LoanInstallmentResponse DTOs
-    public static List<LoanInstallmentResponse> toLoanInstallmentResponseList(List<LoanInstallment> installments) {
-        return installments.stream()
-                .map(installment -> {
-                    int installmentNumber = installments.indexOf(installment) + 1;
-                    return toLoanInstallmentResponse(installment, installmentNumber);
-                })
-                .collect(Collectors.toList());
+    // Converts schedule-ordered installment projections to LoanInstallmentResponse DTOs, numbering them by position
+    public static List<LoanInstallmentResponse> toLoanInstallmentResponseListFromProjections(List<LoanInstallmentProjection> projections) {
+        List<LoanInstallmentResponse> responses = new ArrayList<>(projections.size());
+        for (int i = 0; i < projections.size(); i++) {
+            responses.add(toLoanInstallmentResponse(projections.get(i), i + 1));
+        }
+        return responses;
+    }
+
+    // Converts a QueuedPayment entity to QueuedPaymentResponse DTO
+    public static QueuedPaymentResponse toQueuedPaymentResponse(QueuedPayment payment) {
+        return QueuedPaymentResponse.builder()
+                .paymentId(payment.getId())
+                .loanId(payment.getLoanId())
+                .amount(payment.getAmount())
+                .status(payment.getStatus())
+                .installmentsPaid(payment.getInstallmentsPaid())
+                .totalAmountSpent(payment.getTotalAmountSpent())
+                .isLoanFullyPaid(payment.getIsLoanFullyPaid())
+                .errorCode(payment.getErrorCode())
+                .message(payment.getMessage())
+                .createdAt(payment.getCreatedAt())
+                .processedAt(payment.getProcessedAt())
+                .build();
     }
 
 
-    // Calculates the total loan amount including interest
-    public static BigDecimal calculateTotalLoanAmount(BigDecimal loanAmount, BigDecimal interestRate) {
-        return loanAmount
-                .multiply(BigDecimal.ONE.add(interestRate))
-                .setScale(2, RoundingMode.HALF_UP);
+    // Calculates the total loan amount including interest, rounded HALF_UP to cents
+    public static Money calculateTotalLoanAmount(Money loanAmount, BigDecimal interestRate) {
+        return loanAmount.plusInterest(interestRate);
+    }
+
+    // Same, for a requested amount that may carry fractions of a cent: rounded once, after the interest is applied
+    public static Money calculateTotalLoanAmount(BigDecimal loanAmount, BigDecimal interestRate) {
+        return Money.of(loanAmount.multiply(BigDecimal.ONE.add(interestRate)));
     }
 
     
-    // Calculates the installment amount based on total loan amount and number of installments
-    public static BigDecimal calculateInstallmentAmount(BigDecimal totalAmount, int numberOfInstallments) {
-        return totalAmount
-                .divide(BigDecimal.valueOf(numberOfInstallments), 2, RoundingMode.HALF_UP);
+    // Calculates the installment amount based on total loan amount and number of installments, rounded HALF_UP to cents
+    public static Money calculateInstallmentAmount(Money totalAmount, int numberOfInstallments) {
+        return totalAmount.dividedBy(numberOfInstallments);
+    }
+
+
+    // Builds the installment schedule of a new loan, one installment per month from the first due date
+    public static List<LoanInstallment> createInstallmentSchedule(Loan loan, Money installmentAmount,
+                                                                  int numberOfInstallments, LocalDate firstDueDate) {
+        List<LoanInstallment> installments = new ArrayList<>(numberOfInstallments);
+        for (int i = 0; i < numberOfInstallments; i++) {
+            installments.add(LoanInstallment.builder()
+                    .loan(loan)
+                    .amount(installmentAmount)
+                    .dueDate(firstDueDate.plusMonths(i))
+                    .build());
+        }
+        return installments;
+    }
+
+    // Selects the leading due-date-ordered installments a payment covers in full; stops at the first it cannot cover
+    public static PaymentAllocation allocatePayment(List<LoanInstallmentProjection> payableInstallments, long paymentMinorUnits) {
+        List<Long> installmentIds = new ArrayList<>();
+        long remainingMinorUnits = paymentMinorUnits;
+        long spentMinorUnits = 0;
+
+        for (LoanInstallmentProjection installment : payableInstallments) {
+            long installmentMinorUnits = installment.getAmount().getMinorUnits();
+            if (remainingMinorUnits < installmentMinorUnits) {
+                break;
+            }
+            installmentIds.add(installment.getId());
+            remainingMinorUnits -= installmentMinorUnits;
+            spentMinorUnits += installmentMinorUnits;
+        }
+        return new PaymentAllocation(installmentIds, spentMinorUnits);
+    }
+
+    // Installments a payment covers and the amount it spends on them
+    public record PaymentAllocation(List<Long> installmentIds, long spentMinorUnits) {
     }
 
     
-    // Calculates the number of remaining (unpaid) installments
-    public static int calculateRemainingInstallments(List<LoanInstallment> installments) {
-        return (int) installments.stream()
-                .filter(installment -> !installment.getIsPaid())
-                .count();
+    // Stored total of a loan; recomputed only for loans not yet backfilled
+    private static Money totalAmountOf(Loan loan) {
+        return loan.getTotalAmount() != null
+                ? loan.getTotalAmount()
+                : calculateTotalLoanAmount(loan.getLoanAmount(), loan.getInterestRate());
     }
 
-    public static boolean isLoanFullyPaid(List<LoanInstallment> installments) {
-        return installments.stream()
-                .allMatch(LoanInstallment::getIsPaid);
+    
+    // Unpaid installments have no paid amount
+    private static BigDecimal toBigDecimal(Money amount) {
+        return amount == null ? null : amount.toBigDecimal();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.applab.loan_management.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/* Admits /api/loans/** requests through the adaptive concurrency limiter and reports their latency.
+ * Reads are low priority, writes (payments, loan creation, imports) high priority.
+ * Runs ahead of the bulkheads, so the measured latency includes any bulkhead queueing and the limit
+ * shrinks before those queues fill up.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+
+    public AdaptiveConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                          @Value("${loan.concurrency-limit.enabled:true}") boolean enabled,
+                                          @Value("${loan.concurrency-limit.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.limiter = limiter;
+        this.enabled = enabled;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = Endpoints.path(request);
+        return !enabled || !(path.equals("/api/loans") || path.startsWith("/api/loans/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean isRead = HttpMethod.GET.matches(request.getMethod());
+        if (!limiter.tryAcquire(isRead ? AdaptiveConcurrencyLimiter.Priority.LOW : AdaptiveConcurrencyLimiter.Priority.HIGH)) {
+            ServiceUnavailableResponses.write(request, response, retryAfterSeconds, "SERVICE_OVERLOADED",
+                    "The loan service is overloaded. Please retry later.");
+            return;
+        }
+
+        String endpoint = Endpoints.of(request);
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.onComplete(endpoint, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.applab.loan_management.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/* AIMD concurrency limit for the loan API, driven by the latency observed on each endpoint.
+ * Every window, each endpoint's average latency is compared with its own slowly moving baseline.
+ * If any endpoint got slower than latencyTolerance times its baseline, the limit is cut multiplicatively
+ * (backoffRatio); otherwise, if the window actually used most of the limit, it grows by one.
+ * Low priority requests (reads) are only admitted up to lowPriorityShare of the limit, so when the limit
+ * shrinks, listings are shed first while payments keep the remaining headroom.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    public enum Priority { HIGH, LOW }
+
+    // Unknown paths each get their own endpoint key; beyond this many, their latency is not tracked
+    private static final int MAX_ENDPOINTS = 64;
+    private static final double BASELINE_SMOOTHING = 0.1;
+    private static final double GROWTH_UTILIZATION = 0.8;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double lowPriorityShare;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicLong windowStart;
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+    private final Map<Priority, Counter> rejectedCounters;
+
+    @Autowired
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${loan.concurrency-limit.initial-limit:20}") int initialLimit,
+                                      @Value("${loan.concurrency-limit.min-limit:4}") int minLimit,
+                                      @Value("${loan.concurrency-limit.max-limit:200}") int maxLimit,
+                                      @Value("${loan.concurrency-limit.low-priority-share:0.75}") double lowPriorityShare,
+                                      @Value("${loan.concurrency-limit.latency-tolerance:2.0}") double latencyTolerance,
+                                      @Value("${loan.concurrency-limit.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${loan.concurrency-limit.window-ms:500}") long windowMillis,
+                                      @Value("${loan.concurrency-limit.min-window-samples:10}") int minWindowSamples) {
+        this(meterRegistry, initialLimit, minLimit, maxLimit, lowPriorityShare, latencyTolerance, backoffRatio,
+                windowMillis, minWindowSamples, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry, int initialLimit, int minLimit, int maxLimit,
+                               double lowPriorityShare, double latencyTolerance, double backoffRatio,
+                               long windowMillis, int minWindowSamples, LongSupplier nanoClock) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.lowPriorityShare = lowPriorityShare;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.minWindowSamples = Math.max(1, minWindowSamples);
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit)));
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+
+        Gauge.builder("loan.concurrency.limit", limit, AtomicInteger::get)
+                .description("Current adaptive concurrency limit of the loan API")
+                .register(meterRegistry);
+        Gauge.builder("loan.concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Loan API requests currently admitted by the adaptive limiter")
+                .register(meterRegistry);
+        this.rejectedCounters = Map.of(
+                Priority.HIGH, rejectedCounter(meterRegistry, Priority.HIGH),
+                Priority.LOW, rejectedCounter(meterRegistry, Priority.LOW));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Priority priority) {
+        return Counter.builder("loan.concurrency.rejected")
+                .description("Loan API requests shed by the adaptive concurrency limiter")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    // Returns true when the request is admitted; the caller must then report it through onComplete
+    public boolean tryAcquire(Priority priority) {
+        int currentLimit = limit.get();
+        int cap = priority == Priority.HIGH ? currentLimit : Math.max(1, (int) (currentLimit * lowPriorityShare));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= cap) {
+                rejectedCounters.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                peakInFlight.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    public void onComplete(String endpoint, long latencyNanos) {
+        inFlight.decrementAndGet();
+        EndpointLatency latency = endpoints.get(endpoint);
+        if (latency == null && endpoints.size() < MAX_ENDPOINTS) {
+            latency = endpoints.computeIfAbsent(endpoint, key -> new EndpointLatency());
+        }
+        if (latency != null) {
+            latency.totalNanos.add(latencyNanos);
+            latency.samples.increment();
+        }
+
+        long now = nanoClock.getAsLong();
+        if (now - windowStart.get() >= windowNanos && windowLock.tryLock()) {
+            try {
+                if (now - windowStart.get() >= windowNanos) {
+                    updateLimit();
+                    windowStart.set(now);
+                }
+            } finally {
+                windowLock.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    private void updateLimit() {
+        double worstGradient = 0;
+        for (EndpointLatency latency : endpoints.values()) {
+            // Endpoints with too few samples keep accumulating into the next window
+            if (latency.samples.sum() < minWindowSamples) {
+                continue;
+            }
+            long samples = latency.samples.sumThenReset();
+            double averageNanos = (double) latency.totalNanos.sumThenReset() / samples;
+            if (latency.baselineNanos == 0) {
+                latency.baselineNanos = averageNanos;
+            }
+            worstGradient = Math.max(worstGradient, averageNanos / latency.baselineNanos);
+            // The baseline follows lasting shifts in latency slowly, so a permanent change is not an overload forever
+            latency.baselineNanos += (averageNanos - latency.baselineNanos) * BASELINE_SMOOTHING;
+        }
+
+        int currentLimit = limit.get();
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (worstGradient > latencyTolerance) {
+            limit.set(Math.max(minLimit, (int) (currentLimit * backoffRatio)));
+        } else if (worstGradient > 0 && peak >= currentLimit * GROWTH_UTILIZATION) {
+            limit.set(Math.min(maxLimit, currentLimit + 1));
+        }
+    }
+
+    private static final class EndpointLatency {
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        // Only read and written by the thread holding windowLock
+        private double baselineNanos;
+    }
+}
@@ -0,0 +1,75 @@
+package com.applab.loan_management.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Concurrency limit for one group of endpoints, with its own bounded wait queue.
+ * A request either gets one of maxConcurrent permits, waits for one in the queue for at most maxWaitMillis,
+ * or is shed straight away when the queue is full. Groups never share permits or queue slots, so a spike
+ * in one group cannot hold the threads and connections another group needs.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final int retryAfterSeconds;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue, long maxWaitMillis, int retryAfterSeconds,
+                    MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.maxQueue = Math.max(0, maxQueue);
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        this.rejectedCounter = Counter.builder("loan.bulkhead.rejected")
+                .description("Requests shed because their endpoint group was saturated")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("loan.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a permit of their endpoint group")
+                .tag("group", name)
+                .register(meterRegistry);
+    }
+
+    // Returns true when a permit was acquired; the caller must then release it
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedCounter.increment();
+            return false;
+        }
+        try {
+            boolean acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                rejectedCounter.increment();
+            }
+            return acquired;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
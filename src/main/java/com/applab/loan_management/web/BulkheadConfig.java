@@ -0,0 +1,42 @@
+package com.applab.loan_management.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/* One bulkhead per endpoint group, configured under loan.bulkhead in application.yml.
+ * The defaults keep auth + read permits (3 + 5) below the connection pool size (10), so writes always
+ * find a connection even when both other groups are saturated, and all permits plus queue slots (186)
+ * below Tomcat's 200 request threads, so queued requests cannot take every thread either.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    public Bulkhead authBulkhead(MeterRegistry meterRegistry,
+                                 @Value("${loan.bulkhead.auth.max-concurrent:3}") int maxConcurrent,
+                                 @Value("${loan.bulkhead.auth.max-queue:20}") int maxQueue,
+                                 @Value("${loan.bulkhead.auth.max-wait-ms:1000}") long maxWaitMillis,
+                                 @Value("${loan.bulkhead.auth.retry-after-seconds:2}") int retryAfterSeconds) {
+        return new Bulkhead("auth", maxConcurrent, maxQueue, maxWaitMillis, retryAfterSeconds, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead readBulkhead(MeterRegistry meterRegistry,
+                                 @Value("${loan.bulkhead.read.max-concurrent:5}") int maxConcurrent,
+                                 @Value("${loan.bulkhead.read.max-queue:50}") int maxQueue,
+                                 @Value("${loan.bulkhead.read.max-wait-ms:500}") long maxWaitMillis,
+                                 @Value("${loan.bulkhead.read.retry-after-seconds:1}") int retryAfterSeconds) {
+        return new Bulkhead("read", maxConcurrent, maxQueue, maxWaitMillis, retryAfterSeconds, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead writeBulkhead(MeterRegistry meterRegistry,
+                                  @Value("${loan.bulkhead.write.max-concurrent:8}") int maxConcurrent,
+                                  @Value("${loan.bulkhead.write.max-queue:100}") int maxQueue,
+                                  @Value("${loan.bulkhead.write.max-wait-ms:2000}") long maxWaitMillis,
+                                  @Value("${loan.bulkhead.write.retry-after-seconds:1}") int retryAfterSeconds) {
+        return new Bulkhead("write", maxConcurrent, maxQueue, maxWaitMillis, retryAfterSeconds, meterRegistry);
+    }
+}
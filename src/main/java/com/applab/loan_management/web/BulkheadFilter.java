@@ -0,0 +1,80 @@
+package com.applab.loan_management.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/* Routes each API request through the bulkhead of its endpoint group:
+ * auth (/api/auth/**, BCrypt-bound), read (GET /api/loans/**) and write (any other /api/loans/** method).
+ * Runs ahead of the security filter chain, so shed requests never reach the JWT user lookup.
+ * A saturated group answers 503 with Retry-After; other paths are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkhead authBulkhead;
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final boolean enabled;
+
+    public BulkheadFilter(@Qualifier("authBulkhead") Bulkhead authBulkhead,
+                          @Qualifier("readBulkhead") Bulkhead readBulkhead,
+                          @Qualifier("writeBulkhead") Bulkhead writeBulkhead,
+                          @Value("${loan.bulkhead.enabled:true}") boolean enabled) {
+        this.authBulkhead = authBulkhead;
+        this.readBulkhead = readBulkhead;
+        this.writeBulkhead = writeBulkhead;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Bulkhead bulkhead = enabled ? bulkheadFor(request) : null;
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            ServiceUnavailableResponses.write(request, response, bulkhead.getRetryAfterSeconds(), "SERVICE_BUSY",
+                    "Too many concurrent " + bulkhead.getName() + " requests. Please retry later.");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead bulkheadFor(HttpServletRequest request) {
+        String path = Endpoints.path(request);
+        if (path.startsWith("/api/auth/")) {
+            return authBulkhead;
+        }
+        if (path.equals("/api/loans") || path.startsWith("/api/loans/")) {
+            return HttpMethod.GET.matches(request.getMethod()) ? readBulkhead : writeBulkhead;
+        }
+        return null;
+    }
+}
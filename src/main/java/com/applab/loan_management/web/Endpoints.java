@@ -0,0 +1,22 @@
+package com.applab.loan_management.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+// Endpoint keys shared by the filters that track or limit requests per endpoint
+final class Endpoints {
+
+    // Loan, payment and customer IDs collapse into one endpoint, e.g. "POST /api/loans/{id}/pay"
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private Endpoints() {}
+
+    static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    static String of(HttpServletRequest request) {
+        return request.getMethod() + " " + ID_SEGMENT.matcher(path(request)).replaceAll("/{id}");
+    }
+}
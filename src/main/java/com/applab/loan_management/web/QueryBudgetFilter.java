@@ -0,0 +1,109 @@
+package com.applab.loan_management.web;
+
+import com.applab.loan_management.jdbc.QueryCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Opt-in runtime guard on the number of SQL statements per API request, counting everything the request
+ * thread executes, including the JWT user lookup, and the request's grouped writes run by the group commit
+ * thread. Budgets are configured per endpoint, e.g. "GET /api/loans=2,POST /api/loans/{id}/pay=11" as in
+ * application.yml, with default-budget for unlisted endpoints (0: unlimited).
+ * Requests over budget are logged and counted; with enforce, the statement that exceeds the budget fails
+ * instead, failing the request.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final String OTHER_ENDPOINTS = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean enforce;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final Map<String, Counter> exceededCounters = new ConcurrentHashMap<>();
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${loan.query-budget.enabled:false}") boolean enabled,
+                             @Value("${loan.query-budget.enforce:false}") boolean enforce,
+                             @Value("${loan.query-budget.default-budget:0}") int defaultBudget,
+                             @Value("${loan.query-budget.endpoints:}") String endpoints) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.enforce = enforce;
+        this.defaultBudget = Math.max(0, defaultBudget);
+        this.budgets = parseBudgets(endpoints);
+    }
+
+    static Map<String, Integer> parseBudgets(String endpoints) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : endpoints.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid query budget '" + entry.trim() + "', expected \"METHOD /path=budget\"");
+            }
+            budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(budgets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !Endpoints.path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = Endpoints.of(request);
+        Integer configured = budgets.get(endpoint);
+        int budget = configured != null ? configured : defaultBudget;
+        if (budget <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        QueryCounter.Scope scope = QueryCounter.open(budget, enforce);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            if (scope.isExceeded()) {
+                exceededCounter(configured != null ? endpoint : OTHER_ENDPOINTS).increment();
+                if (enforce) {
+                    log.warn("{} failed after {} statement(s) for exceeding its query budget of {}", endpoint, scope.getCount(), budget);
+                } else {
+                    log.warn("{} executed {} statement(s), over its query budget of {}", endpoint, scope.getCount(), budget);
+                }
+            }
+        }
+    }
+
+    // Only configured endpoints get their own tag, so arbitrary request paths cannot inflate the tag values
+    private Counter exceededCounter(String endpoint) {
+        return exceededCounters.computeIfAbsent(endpoint, key -> Counter.builder("loan.query_budget.exceeded")
+                .description("API requests that went over their SQL statement budget")
+                .tag("endpoint", key)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,37 @@
+package com.applab.loan_management.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/* Writes the 503 + Retry-After response of requests shed by the load limiting filters,
+ * in the same JSON shape as the other error responses.
+ */
+final class ServiceUnavailableResponses {
+
+    private ServiceUnavailableResponses() {}
+
+    static void write(HttpServletRequest request, HttpServletResponse response, int retryAfterSeconds,
+                      String error, String message) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+        errorResponse.put("status", HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        errorResponse.put("path", request.getRequestURI());
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
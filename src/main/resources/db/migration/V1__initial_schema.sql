@@ -0,0 +1,92 @@
+-- Initial schema of the loan management service, matching the JPA entities (validated at startup)
+
+create sequence loan_installments_seq start with 1 increment by 50;
+
+create table customers (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    surname varchar(255) not null,
+    email varchar(255) not null unique,
+    password varchar(255) not null,
+    role enum ('ADMIN','CUSTOMER') not null,
+    credit_limit numeric(10,2),
+    used_credit_limit numeric(10,2),
+    primary key (id)
+);
+
+create table loans (
+    id bigint generated by default as identity,
+    customer_id bigint not null,
+    loan_amount numeric(38,2) not null,
+    number_of_installments integer not null,
+    interest_rate numeric(38,2) not null,
+    create_date timestamp(6) not null,
+    is_paid boolean not null,
+    total_amount numeric(38,2),
+    installment_amount numeric(38,2),
+    version bigint,
+    primary key (id),
+    constraint fk_loans_customer foreign key (customer_id) references customers
+);
+
+create table loan_installments (
+    id bigint not null,
+    loan_id bigint not null,
+    amount numeric(38,2) not null,
+    paid_amount numeric(38,2),
+    due_date date not null,
+    payment_date date,
+    is_paid boolean not null,
+    version bigint,
+    primary key (id),
+    constraint fk_loan_installments_loan foreign key (loan_id) references loans
+);
+
+create table payment_ledger (
+    id bigint generated by default as identity,
+    loan_id bigint not null,
+    customer_id bigint not null,
+    installment_id bigint not null,
+    amount numeric(38,2) not null,
+    payment_date date not null,
+    recorded_at timestamp(6) not null,
+    primary key (id)
+);
+
+create table loan_snapshots (
+    loan_id bigint not null,
+    customer_id bigint not null,
+    installments_paid bigint not null,
+    total_paid numeric(38,2) not null,
+    last_payment_date date,
+    last_ledger_entry_id bigint not null,
+    snapshot_at timestamp(6) not null,
+    primary key (loan_id)
+);
+
+create table payment_queue (
+    id bigint generated by default as identity,
+    loan_id bigint not null,
+    customer_id bigint not null,
+    amount numeric(38,2) not null,
+    status enum ('APPLIED','PENDING','REJECTED') not null,
+    installments_paid integer,
+    total_amount_spent numeric(38,2),
+    is_loan_fully_paid boolean,
+    error_code varchar(255),
+    message varchar(500),
+    created_at timestamp(6) not null,
+    processed_at timestamp(6),
+    primary key (id)
+);
+
+-- GET /api/loans: a customer's loans in ID order
+create index idx_loans_customer_id on loans (customer_id, id);
+-- Installment listing, payable installments of a payment and the unpaid installment count of a listing
+create index idx_loan_installments_loan_paid_due on loan_installments (loan_id, is_paid, due_date);
+-- Snapshot tail of a loan's ledger (entries after the snapshot's last entry)
+create index idx_payment_ledger_loan_entry on payment_ledger (loan_id, id);
+-- Ledger compaction: settled entries not yet folded into a snapshot
+create index idx_payment_ledger_recorded_at on payment_ledger (recorded_at);
+-- Payment queue workers: pending payments in arrival order
+create index idx_payment_queue_status_id on payment_queue (status, id);
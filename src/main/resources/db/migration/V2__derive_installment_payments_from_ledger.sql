@@ -0,0 +1,31 @@
+-- Installments become an immutable schedule: which installments are paid is derived from the payment ledger
+-- (a loan's snapshot plus the ledger entries numbered after it) instead of being updated in place
+
+-- Position of the paid installment in its loan's schedule (due date, then ID), starting at 1
+alter table payment_ledger add column installment_number integer;
+
+update payment_ledger e set installment_number = (
+    select count(*)
+    from loan_installments p, loan_installments i
+    where p.id = e.installment_id
+      and i.loan_id = p.loan_id
+      and (i.due_date < p.due_date or (i.due_date = p.due_date and i.id <= p.id)));
+
+alter table payment_ledger alter column installment_number set not null;
+
+-- Snapshot tail of a loan's ledger and the paid installment count of a payment or listing;
+-- unique, so an installment is never paid twice
+create unique index idx_payment_ledger_loan_installment on payment_ledger (loan_id, installment_number);
+drop index idx_payment_ledger_loan_entry;
+drop index idx_payment_ledger_recorded_at;
+
+-- Snapshots cover their loan's first installments_paid installments
+alter table loan_snapshots drop column last_ledger_entry_id;
+
+-- Installment listing and the schedule of a payment
+create index idx_loan_installments_loan_due on loan_installments (loan_id, due_date);
+drop index idx_loan_installments_loan_paid_due;
+alter table loan_installments drop column paid_amount;
+alter table loan_installments drop column payment_date;
+alter table loan_installments drop column is_paid;
+alter table loan_installments drop column version;
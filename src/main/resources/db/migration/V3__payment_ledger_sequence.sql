@@ -0,0 +1,7 @@
+-- Ledger entry IDs come from a pooled sequence instead of an identity column, so that the entries of a payment
+-- (one per paid installment) are inserted in one JDBC batch
+
+-- Hibernate's pooled optimizer hands out the 50 IDs ending at each sequence value, so the first value
+-- leaves a full block above the existing entries
+create sequence payment_ledger_seq start with (select coalesce(max(id), 0) + 50 from payment_ledger) increment by 50;
+alter table payment_ledger alter column id drop identity;
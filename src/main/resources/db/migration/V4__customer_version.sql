@@ -0,0 +1,3 @@
+-- Customers are versioned, so that concurrent credit changes of a customer (loan creations and payments on its
+-- different loans) conflict and are retried instead of overwriting each other's used credit limit
+alter table customers add column version bigint default 0 not null;
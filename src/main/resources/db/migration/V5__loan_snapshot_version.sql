@@ -0,0 +1,3 @@
+-- Loan snapshots are versioned, so that compactions running concurrently on several instances conflict
+-- instead of folding the same ledger entries into a snapshot twice
+alter table loan_snapshots add column version bigint default 0 not null;
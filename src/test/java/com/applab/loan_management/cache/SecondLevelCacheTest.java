@@ -0,0 +1,106 @@
+package com.applab.loan_management.cache;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Second-Level Cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Long customerId;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        email = "cache-" + System.nanoTime() + "@test.com";
+        customerId = customerRepository.save(Customer.builder()
+                .email(email).password("n/a").role(Role.CUSTOMER).name("Cache").surname("Customer")
+                .creditLimit(Money.of(new BigDecimal("10000.00"))).usedCreditLimit(Money.ZERO).build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated customer lookups from the cache and count them as hits")
+    void shouldServeCustomerLookupsFromCache() {
+        customerRepository.findById(customerId);
+        double hitsBefore = requests("customers", "hit");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(customerRepository.findById(customerId)).isPresent();
+        }
+
+        assertThat(requests("customers", "hit") - hitsBefore).isGreaterThanOrEqualTo(3);
+        assertThat(meterRegistry.get("loan.cache.hit_ratio").tag("region", "customers").gauge().value()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should fail a credit update made from a stale cached customer instead of overwriting")
+    void shouldRejectCreditUpdateFromStaleCache() {
+        customerRepository.findById(customerId);
+        // A change the cache cannot know about
+        jdbcTemplate.update("UPDATE customers SET used_credit_limit = 2500.00, version = version + 1 WHERE id = ?", customerId);
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(customerId).orElseThrow();
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().plus(Money.of(new BigDecimal("1200.00"))));
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT used_credit_limit FROM customers WHERE id = ?",
+                BigDecimal.class, customerId)).isEqualByComparingTo("2500.00");
+    }
+
+    @Test
+    @DisplayName("Should replace the cached customer when a credit update commits")
+    void shouldRefreshCacheOnCreditUpdate() {
+        customerRepository.findById(customerId);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(customerId).orElseThrow();
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().plus(Money.of(new BigDecimal("1200.00"))));
+        });
+
+        assertThat(customerRepository.findById(customerId).orElseThrow().getUsedCreditLimit())
+                .isEqualTo(Money.of(new BigDecimal("1200.00")));
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated email lookup from the query cache")
+    void shouldCacheEmailLookups() {
+        double hitsBefore = requests("query", "hit");
+
+        assertThat(customerRepository.findByEmail(email)).isPresent();
+        assertThat(customerRepository.findByEmail(email)).isPresent();
+
+        assertThat(requests("query", "hit") - hitsBefore).isGreaterThanOrEqualTo(1);
+    }
+
+    private double requests(String region, String result) {
+        return meterRegistry.get("loan.cache.requests").tag("region", region).tag("result", result).functionCounter().count();
+    }
+}
@@ -4,11 +4,21 @@ import com.applab.loan_management.dto.CreateLoanRequest;
 import com.applab.loan_management.dto.CreateLoanResponse;
 import com.applab.loan_management.dto.LoanListResponse;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanPaymentSummaryResponse;
+import com.applab.loan_management.dto.LoanPortfolioReportResponse;
 import com.applab.loan_management.dto.PayLoanRequest;
 import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
+import com.applab.loan_management.constants.QueuedPaymentStatus;
 import com.applab.loan_management.entity.Customer;
 import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.service.GroupCommitExecutor;
+import com.applab.loan_management.service.LoanLedgerService;
+import com.applab.loan_management.service.LoanReportService;
 import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.service.PaymentImportService;
+import com.applab.loan_management.service.PaymentQueueService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -21,11 +31,14 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.Reader;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +54,21 @@ class LoanControllerTest {
     @Mock
     private LoanService loanService;
 
+    @Mock
+    private LoanLedgerService loanLedgerService;
+
+    @Mock
+    private PaymentImportService paymentImportService;
+
+    @Mock
+    private PaymentQueueService paymentQueueService;
+
+    @Mock
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Mock
+    private LoanReportService loanReportService;
+
     @InjectMocks
     private LoanController loanController;
 
@@ -57,6 +85,10 @@ class LoanControllerTest {
         objectMapper = new ObjectMapper();
         mockMvc = MockMvcBuilders.standaloneSetup(loanController).build();
 
+        // Group commit disabled: operations run alone
+        lenient().when(groupCommitExecutor.execute(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
         validCreateLoanRequest = CreateLoanRequest.builder()
                 .customerId(1L)
                 .amount(new BigDecimal("10000.00"))
@@ -127,7 +159,7 @@ class LoanControllerTest {
         Loan mockLoan = Loan.builder()
                 .id(1L)
                 .customer(mockCustomer)
-                .loanAmount(new BigDecimal("10000.00"))
+                .loanAmount(Money.of(new BigDecimal("10000.00")))
                 .interestRate(new BigDecimal("0.2"))
                 .numberOfInstallments(12)
                 .createDate(LocalDateTime.now())
@@ -229,4 +261,104 @@ class LoanControllerTest {
                 request.getAmount().equals(new BigDecimal("2000.00"))
         ));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return loan payment summary")
+    void shouldReturnLoanPaymentSummary() throws Exception {
+        LoanPaymentSummaryResponse summary = LoanPaymentSummaryResponse.builder()
+                .loanId(1L)
+                .installmentsPaid(2)
+                .totalPaidAmount(new BigDecimal("2000.00"))
+                .lastPaymentDate(LocalDate.now())
+                .build();
+        when(loanLedgerService.getPaymentSummary(1L)).thenReturn(summary);
+
+        mockMvc.perform(get("/api/loans/1/payment-summary"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanId").value(1L))
+                .andExpect(jsonPath("$.installmentsPaid").value(2))
+                .andExpect(jsonPath("$.totalPaidAmount").value(2000.00));
+
+        verify(loanLedgerService).getPaymentSummary(1L);
+    }
+
+    @Test
+    @DisplayName("Should stream payment import report")
+    void shouldStreamPaymentImportReport() throws Exception {
+        when(paymentImportService.importPayments(any(Reader.class), any(Writer.class))).thenAnswer(invocation -> {
+            Writer report = invocation.getArgument(1);
+            report.write("line,loanId,amount,status\n2,1,1000.00,APPLIED\n");
+            report.flush();
+            return new PaymentImportService.ImportSummary();
+        });
+
+        mockMvc.perform(post("/api/loans/payments/import")
+                        .contentType("text/csv")
+                        .content("loanId,amount\n1,1000.00\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("2,1,1000.00,APPLIED")));
+
+        verify(paymentImportService).importPayments(any(Reader.class), any(Writer.class));
+    }
+
+    @Test
+    @DisplayName("Should accept an async payment with 202 and a status location")
+    void shouldAcceptAsyncPayment() throws Exception {
+        QueuedPaymentResponse queued = QueuedPaymentResponse.builder()
+                .paymentId(42L)
+                .loanId(1L)
+                .amount(new BigDecimal("2000.00"))
+                .status(QueuedPaymentStatus.PENDING)
+                .build();
+        when(paymentQueueService.enqueuePayment(eq(1L), any(PayLoanRequest.class))).thenReturn(queued);
+
+        mockMvc.perform(post("/api/loans/1/pay")
+                        .param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validPayLoanRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/loans/payments/42"))
+                .andExpect(jsonPath("$.paymentId").value(42L))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        verify(loanService, never()).payLoan(anyLong(), any(PayLoanRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should return queued payment status")
+    void shouldReturnQueuedPaymentStatus() throws Exception {
+        QueuedPaymentResponse applied = QueuedPaymentResponse.builder()
+                .paymentId(42L)
+                .loanId(1L)
+                .status(QueuedPaymentStatus.APPLIED)
+                .installmentsPaid(2)
+                .build();
+        when(paymentQueueService.getPaymentStatus(42L)).thenReturn(applied);
+
+        mockMvc.perform(get("/api/loans/payments/42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("APPLIED"))
+                .andExpect(jsonPath("$.installmentsPaid").value(2));
+    }
+
+    @Test
+    @DisplayName("Should return the portfolio report")
+    void shouldReturnPortfolioReport() throws Exception {
+        LoanPortfolioReportResponse report = LoanPortfolioReportResponse.builder()
+                .loanCount(3)
+                .openLoanCount(2)
+                .borrowerCount(2)
+                .totalLoanAmount(new BigDecimal("30000.00"))
+                .outstandingAmount(new BigDecimal("18000.00"))
+                .shards(List.of())
+                .build();
+        when(loanReportService.getPortfolioReport()).thenReturn(report);
+
+        mockMvc.perform(get("/api/loans/reports/portfolio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loanCount").value(3))
+                .andExpect(jsonPath("$.outstandingAmount").value(18000.00));
+    }
+}
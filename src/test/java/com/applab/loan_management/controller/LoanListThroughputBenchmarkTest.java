@@ -0,0 +1,125 @@
+package com.applab.loan_management.controller;
+
+import com.applab.loan_management.LoanManagementApplication;
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.security.CustomerUserDetails;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Throughput of GET /api/loans over HTTP with Tomcat on platform threads and on virtual threads.
+ * Opt-in: mvn test -Dtest=LoanListThroughputBenchmarkTest -Dbenchmark=true
+ * Add -DargLine=-Djdk.tracePinnedThreads=short to print any virtual thread pinned while blocking.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Loan List Throughput Benchmark")
+class LoanListThroughputBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("benchmark.requests", 50);
+    private static final int LOANS = 10;
+
+    @Test
+    @DisplayName("Should report requests per second on platform and virtual threads")
+    void compareThroughput() throws Exception {
+        // Warm up the JVM once before measuring either mode
+        run(false);
+
+        double platformThreads = run(false);
+        double virtualThreads = run(true);
+
+        System.out.printf("loan-list benchmark: clients=%d requests=%d platform=%.0f req/s virtual=%.0f req/s (x%.2f)%n",
+                CLIENTS, CLIENTS * REQUESTS_PER_CLIENT, platformThreads, virtualThreads, virtualThreads / platformThreads);
+        assertThat(virtualThreads).isPositive();
+    }
+
+    private double run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanManagementApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loan-list-benchmark",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        // Measures raw request handling; with load limiting most clients would be shed
+                        "--loan.bulkhead.enabled=false",
+                        "--loan.concurrency-limit.enabled=false",
+                        "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            LoanService loanService = context.getBean(LoanService.class);
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+
+            Customer admin = customerRepository.save(Customer.builder()
+                    .email("admin@bench.local").password("n/a").role(Role.ADMIN).name("Bench").surname("Admin").build());
+            String token = jwtUtil.generateToken(Map.of("role", Role.ADMIN.name(), "customerId", admin.getId()),
+                    new CustomerUserDetails(admin));
+            Long customerId = customerRepository.save(Customer.builder()
+                    .email("customer@bench.local").password("n/a").role(Role.CUSTOMER)
+                    .name("Bench").surname("Customer").creditLimit(Money.of(new BigDecimal("99999999.00")))
+                    .usedCreditLimit(Money.ZERO).build()).getId();
+
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(admin.getEmail(), token, List.of()));
+            for (int i = 0; i < LOANS; i++) {
+                loanService.createLoan(CreateLoanRequest.builder()
+                        .customerId(customerId).amount(new BigDecimal("1000.00"))
+                        .interestRate(new BigDecimal("0.1")).numberOfInstallments(6).build());
+            }
+            SecurityContextHolder.clearContext();
+
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/loans?customerId=" + customerId))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            AtomicInteger failures = new AtomicInteger();
+
+            // Clients always run on virtual threads, so only the server side differs between runs
+            try (HttpClient httpClient = HttpClient.newHttpClient();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int client = 0; client < CLIENTS; client++) {
+                    futures.add(clients.submit(() -> {
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                assertThat(failures.get()).isZero();
+                return CLIENTS * REQUESTS_PER_CLIENT / seconds;
+            }
+        }
+    }
+}
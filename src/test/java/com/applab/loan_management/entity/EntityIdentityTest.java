@@ -0,0 +1,132 @@
+package com.applab.loan_management.entity;
+
+import com.applab.loan_management.constants.Role;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("Entity Identity Tests")
+class EntityIdentityTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long customerId;
+    private Long loanId;
+    private Long installmentId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = entityManager.persist(Customer.builder()
+                .email("identity@test.com")
+                .password("secret")
+                .role(Role.CUSTOMER)
+                .name("John")
+                .surname("Doe")
+                .creditLimit(Money.of(new BigDecimal("50000.00")))
+                .usedCreditLimit(Money.ZERO)
+                .build());
+        Loan loan = entityManager.persist(Loan.builder()
+                .customer(customer)
+                .loanAmount(Money.of(new BigDecimal("1000.00")))
+                .numberOfInstallments(6)
+                .interestRate(new BigDecimal("0.1"))
+                .createDate(LocalDateTime.now())
+                .isPaid(false)
+                .build());
+        LoanInstallment installment = entityManager.persist(LoanInstallment.builder()
+                .loan(loan)
+                .amount(Money.of(new BigDecimal("183.33")))
+                .dueDate(LocalDate.now().plusMonths(1))
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        customerId = customer.getId();
+        loanId = loan.getId();
+        installmentId = installment.getId();
+    }
+
+    @Test
+    @DisplayName("Should not initialize entity proxies in equals, hashCode or toString")
+    void shouldNotInitializeProxies() {
+        Customer customer = entityManager.getEntityManager().getReference(Customer.class, customerId);
+        Loan loan = entityManager.getEntityManager().getReference(Loan.class, loanId);
+        LoanInstallment installment = entityManager.getEntityManager().getReference(LoanInstallment.class, installmentId);
+
+        assertThat(customer.toString()).isEqualTo("Customer(id=" + customerId + ")");
+        assertThat(loan.toString()).isEqualTo("Loan(id=" + loanId + ")");
+        assertThat(installment.toString()).isEqualTo("LoanInstallment(id=" + installmentId + ")");
+        assertThat(customer.hashCode()).isEqualTo(Customer.class.hashCode());
+        assertThat(loan.hashCode()).isEqualTo(Loan.class.hashCode());
+        assertThat(installment.hashCode()).isEqualTo(LoanInstallment.class.hashCode());
+        assertThat(customer.equals(Customer.builder().id(customerId).build())).isTrue();
+        assertThat(loan.equals(Loan.builder().id(loanId).build())).isTrue();
+        assertThat(installment.equals(LoanInstallment.builder().id(installmentId).build())).isTrue();
+
+        assertThat(Hibernate.isInitialized(customer)).isFalse();
+        assertThat(Hibernate.isInitialized(loan)).isFalse();
+        assertThat(Hibernate.isInitialized(installment)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should not initialize lazy associations of loaded entities")
+    void shouldNotInitializeAssociationsOfLoadedEntities() {
+        // Loaded one at a time so no association is resolved from an entity already in the session
+        Customer customer = entityManager.find(Customer.class, customerId);
+        entityManager.clear();
+        Loan loan = entityManager.find(Loan.class, loanId);
+        entityManager.clear();
+        LoanInstallment installment = entityManager.find(LoanInstallment.class, installmentId);
+
+        Set<Object> entities = new HashSet<>();
+        entities.add(customer);
+        entities.add(loan);
+        entities.add(installment);
+        String logged = customer + " " + loan + " " + installment;
+
+        assertThat(entities).hasSize(3);
+        assertThat(logged).doesNotContain("secret");
+        assertThat(Hibernate.isInitialized(customer.getLoans())).isFalse();
+        assertThat(Hibernate.isInitialized(loan.getCustomer())).isFalse();
+        assertThat(Hibernate.isInitialized(loan.getInstallments())).isFalse();
+        assertThat(Hibernate.isInitialized(installment.getLoan())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should treat a proxy and its loaded entity as equal")
+    void shouldTreatProxyAndLoadedEntityAsEqual() {
+        LoanInstallment installment = entityManager.find(LoanInstallment.class, installmentId);
+        Loan loanProxy = installment.getLoan();
+        Loan detachedLoan = Loan.builder().id(loanId).build();
+
+        assertThat(loanProxy).isEqualTo(detachedLoan);
+        assertThat(detachedLoan).isEqualTo(loanProxy);
+        assertThat(loanProxy.hashCode()).isEqualTo(detachedLoan.hashCode());
+        assertThat(Hibernate.isInitialized(loanProxy)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only treat new entities without an ID as equal to themselves")
+    void shouldOnlyTreatNewEntitiesAsEqualToThemselves() {
+        Loan first = Loan.builder().build();
+        Loan second = Loan.builder().build();
+
+        assertThat(first).isEqualTo(first);
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first).isNotEqualTo(Loan.builder().id(loanId).build());
+    }
+}
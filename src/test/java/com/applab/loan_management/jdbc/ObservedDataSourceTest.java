@@ -0,0 +1,93 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.exception.QueryBudgetExceededException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Observed Data Source Tests")
+class ObservedDataSourceTest {
+
+    private final List<String> executed = new ArrayList<>();
+    private ObservedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:observed-data-source-test;DB_CLOSE_DELAY=-1");
+        dataSource = new ObservedDataSource(h2, () -> List.of(new StatementListener() {
+            @Override
+            public void afterExecute(String sql, long elapsedNanos, boolean failed) {
+                executed.add(sql + (failed ? " (failed)" : ""));
+            }
+        }));
+    }
+
+    @Test
+    @DisplayName("Should report prepared and plain statements with their SQL and outcome, and a batch as one execution")
+    void shouldReportEveryExecution() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists items (id int)");
+                statement.execute("delete from items");
+            }
+            try (PreparedStatement insert = connection.prepareStatement("insert into items (id) values (?)")) {
+                for (int i = 0; i < 3; i++) {
+                    insert.setInt(1, i);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                assertThatThrownBy(() -> statement.execute("select * from missing_table"))
+                        .isInstanceOf(SQLException.class);
+            }
+            try (PreparedStatement select = connection.prepareStatement("select count(*) from items");
+                 ResultSet resultSet = select.executeQuery()) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1)).isEqualTo(3);
+            }
+        }
+
+        assertThat(executed).containsExactly(
+                "create table if not exists items (id int)",
+                "delete from items",
+                "insert into items (id) values (?)",
+                "select * from missing_table (failed)",
+                "select count(*) from items");
+    }
+
+    @Test
+    @DisplayName("Should count statements towards every open scope and fail the one over an enforced budget")
+    void shouldCountAndEnforceBudgets() throws Exception {
+        dataSource = new ObservedDataSource(dataSource.getTargetDataSource(), () -> List.of(new QueryCounter()));
+
+        try (QueryCounter.Scope outer = QueryCounter.open();
+             Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (QueryCounter.Scope inner = QueryCounter.open(1, true)) {
+                statement.execute("select 1");
+
+                assertThatThrownBy(() -> statement.execute("select 2"))
+                        .isInstanceOf(QueryBudgetExceededException.class);
+                assertThat(inner.getCount()).isEqualTo(1);
+                assertThat(inner.isExceeded()).isTrue();
+            }
+            statement.execute("select 3");
+
+            assertThat(outer.getCount()).isEqualTo(2);
+            assertThat(outer.isExceeded()).isFalse();
+        }
+    }
+}
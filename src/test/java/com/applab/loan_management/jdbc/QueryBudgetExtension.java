@@ -0,0 +1,38 @@
+package com.applab.loan_management.jdbc;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Fails a @QueryBudget test when its method body executed more SQL statements than the budget allows.
+ * Only the test method itself is counted, so data set up in @BeforeEach does not count against the budget.
+ * Statements are counted on the test thread, through the ObservedDataSource of the application context.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(QueryBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getTestMethod()
+                .filter(method -> method.isAnnotationPresent(QueryBudget.class))
+                .ifPresent(method -> context.getStore(NAMESPACE).put(method, QueryCounter.open()));
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        context.getTestMethod().ifPresent(method -> {
+            QueryCounter.Scope scope = context.getStore(NAMESPACE).remove(method, QueryCounter.Scope.class);
+            if (scope == null) {
+                return;
+            }
+            scope.close();
+            int budget = method.getAnnotation(QueryBudget.class).value();
+            assertThat(scope.getCount())
+                    .as("SQL statements executed by %s", context.getDisplayName())
+                    .isLessThanOrEqualTo(budget);
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.util.AuthMapperUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Two local H2 databases: the primary, and a "replica" with the same schema that never receives any data,
+ * so every read shows where it was routed.
+ */
+@SpringBootTest(properties = {
+        "loan.datasource.replica.url=jdbc:h2:mem:replica-routing;DB_CLOSE_DELAY=-1",
+        "loan.datasource.replica.read-your-writes-window-ms=60000"
+})
+@DisplayName("Read Replica Routing Tests")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private Customer customer;
+    private Customer admin;
+
+    @BeforeEach
+    void setUp() {
+        if (new JdbcTemplate(replicaDataSource).queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'LOANS'", Integer.class) == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__initial_schema.sql")).execute(replicaDataSource);
+        }
+
+        String suffix = String.valueOf(System.nanoTime());
+        customer = customerRepository.save(Customer.builder()
+                .email("replica-customer-" + suffix + "@test.com").password("n/a").role(Role.CUSTOMER)
+                .name("Replica").surname("Customer").creditLimit(Money.of(new BigDecimal("100000.00")))
+                .usedCreditLimit(Money.ZERO).build());
+        admin = customerRepository.save(Customer.builder()
+                .email("replica-admin-" + suffix + "@test.com").password("n/a").role(Role.ADMIN)
+                .name("Replica").surname("Admin").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should read a customer's own loan from the primary right after creating it")
+    void shouldReadOwnWritesFromPrimary() {
+        authenticate(customer);
+        Long loanId = loanService.createLoan(loanRequest()).getId();
+        double primaryReads = reads("primary");
+
+        assertThat(loanService.listLoanInstallments(loanId)).hasSize(6);
+        assertThat(loanService.listLoans(customer.getId(), null, null)).hasSize(1);
+
+        assertThat(reads("primary") - primaryReads).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should route reads of a caller without recent writes to the replica")
+    void shouldReadFromReplicaWithoutRecentWrites() {
+        authenticate(customer);
+        Long loanId = loanService.createLoan(loanRequest()).getId();
+        double replicaReads = reads("replica");
+
+        // The admin has not written anything, and the replica has not received the loan
+        authenticate(admin);
+        assertThatThrownBy(() -> loanService.listLoanInstallments(loanId))
+                .isInstanceOf(LoanNotFoundException.class);
+
+        assertThat(reads("replica") - replicaReads).isEqualTo(1);
+    }
+
+    private void authenticate(Customer user) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getEmail(), AuthMapperUtil.generateJwtToken(user, jwtUtil), List.of()));
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("loan.datasource.reads").tag("target", target).counter().count();
+    }
+
+    private CreateLoanRequest loanRequest() {
+        return CreateLoanRequest.builder()
+                .customerId(customer.getId())
+                .amount(new BigDecimal("1000.00"))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(6)
+                .build();
+    }
+}
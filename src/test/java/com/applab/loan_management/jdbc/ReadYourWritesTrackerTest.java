@@ -0,0 +1,78 @@
+package com.applab.loan_management.jdbc;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Read Your Writes Tracker Tests")
+class ReadYourWritesTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(true, 1000, clock::get);
+
+    @Test
+    @DisplayName("Should send a customer's reads to the primary only within the window after a write")
+    void shouldRequirePrimaryWithinWindow() {
+        tracker.recordWrite(1L);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertThat(tracker.requiresPrimary(1L)).isTrue();
+        assertThat(tracker.requiresPrimary(2L)).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(tracker.requiresPrimary(1L)).isFalse();
+        assertThat(tracker.isIdle()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should become idle when the last window expires, without looking up the customer")
+    void shouldBecomeIdleWhenWindowExpires() {
+        assertThat(tracker.isIdle()).isTrue();
+
+        tracker.recordWrite(1L);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        tracker.recordWrite(2L);
+        assertThat(tracker.isIdle()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertThat(tracker.isIdle()).isFalse();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(tracker.isIdle()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should start the window when the writing transaction commits")
+    void shouldRecordWriteOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tracker.recordWrite(1L);
+            assertThat(tracker.requiresPrimary(1L)).isFalse();
+
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        assertThat(tracker.requiresPrimary(1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should track nothing without a read replica")
+    void shouldIgnoreWritesWhenDisabled() {
+        ReadYourWritesTracker disabled = new ReadYourWritesTracker(false, 1000, clock::get);
+
+        disabled.recordWrite(1L);
+
+        assertThat(disabled.requiresPrimary(1L)).isFalse();
+        assertThat(disabled.isIdle()).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package com.applab.loan_management.jdbc;
+
+import com.applab.loan_management.dto.SqlStatementStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SQL Statistics Tests")
+class SqlStatisticsTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should strip literals and collapse IN lists and whitespace")
+    void shouldNormalizeSql() {
+        assertThat(SqlNormalizer.normalize("select * from customers c1_0 where c1_0.email='a@b.com' and c1_0.id = 42"))
+                .isEqualTo("select * from customers c1_0 where c1_0.email=? and c1_0.id = ?");
+        assertThat(SqlNormalizer.normalize("update loan_installments set is_paid=true\n  where id in (?,?, ?) and version=1.5"))
+                .isEqualTo("update loan_installments set is_paid=true where id in (?) and version=?");
+    }
+
+    @Test
+    @DisplayName("Should aggregate statements of the same shape and rank them by total time")
+    void shouldAggregateAndRankByTotalTime() {
+        SqlStatistics statistics = new SqlStatistics(true, 0, 100);
+
+        statistics.afterExecute("select * from loans where id = 1", 2 * MILLI, false);
+        statistics.afterExecute("select * from loans where id = 2", 4 * MILLI, true);
+        statistics.afterExecute("select * from customers where id = ?", 5 * MILLI, false);
+        statistics.afterExecute(null, MILLI, false);
+
+        List<SqlStatementStatistics> top = statistics.topByTotalTime(2);
+
+        assertThat(top).extracting(SqlStatementStatistics::getSql)
+                .containsExactly("select * from loans where id = ?", "select * from customers where id = ?");
+        assertThat(top.get(0)).isEqualTo(new SqlStatementStatistics("select * from loans where id = ?", 2, 1, 6.0, 3.0, 4.0));
+    }
+
+    @Test
+    @DisplayName("Should aggregate shapes beyond the limit as other statements, and reset")
+    void shouldBoundDistinctShapes() {
+        SqlStatistics statistics = new SqlStatistics(true, 0, 1);
+
+        statistics.afterExecute("select * from loans", MILLI, false);
+        statistics.afterExecute("select * from customers", MILLI, false);
+        statistics.afterExecute("select * from payment_ledger", MILLI, false);
+
+        assertThat(statistics.topByTotalTime(10)).extracting(SqlStatementStatistics::getSql, SqlStatementStatistics::getCount)
+                .containsExactly(tuple(SqlStatistics.OTHER_STATEMENTS, 2L), tuple("select * from loans", 1L));
+
+        statistics.reset();
+
+        assertThat(statistics.topByTotalTime(10)).isEmpty();
+    }
+}
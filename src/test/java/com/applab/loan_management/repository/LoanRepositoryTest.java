@@ -0,0 +1,144 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.LoanListProjection;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.LoanSnapshot;
+import com.applab.loan_management.entity.PaymentLedgerEntry;
+import com.applab.loan_management.entity.Money;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("Loan Repository Tests")
+class LoanRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Long customerId;
+    private Long unpaidLoanId;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = entityManager.persist(Customer.builder()
+                .email("repository@test.com")
+                .password("secret")
+                .role(Role.CUSTOMER)
+                .name("John")
+                .surname("Doe")
+                .creditLimit(Money.of(new BigDecimal("50000.00")))
+                .usedCreditLimit(Money.ZERO)
+                .build());
+        Loan unpaidLoan = persistLoan(customer, 6, false);
+        persistLoan(customer, 12, true);
+        entityManager.flush();
+        entityManager.clear();
+
+        customerId = customer.getId();
+        unpaidLoanId = unpaidLoan.getId();
+    }
+
+    @Test
+    @DisplayName("Should leave the customer of a loan found for payment to be loaded separately")
+    void shouldNotFetchCustomerWithLoanForPayment() {
+        Loan loan = loanRepository.findForPaymentById(unpaidLoanId).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(loan.getCustomer())).isFalse();
+        assertThat(loan.getCustomer().getId()).isEqualTo(customerId);
+        assertThat(Hibernate.isInitialized(loan.getInstallments())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should lock a loan found for payment for a version increment on commit")
+    void shouldLockLoanFoundForPaymentForVersionIncrement() {
+        Loan loan = loanRepository.findForPaymentById(unpaidLoanId).orElseThrow();
+
+        assertThat(entityManager.getEntityManager().getLockMode(loan)).isEqualTo(LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    @Test
+    @DisplayName("Should return empty when no loan exists for payment")
+    void shouldReturnEmptyWhenNoLoanExistsForPayment() {
+        assertThat(loanRepository.findForPaymentById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should list loan projections with optional filters")
+    void shouldListLoanProjectionsWithOptionalFilters() {
+        List<LoanListProjection> all = loanRepository.findListProjections(customerId, null, null);
+        List<LoanListProjection> unpaid = loanRepository.findListProjections(customerId, false, null);
+        List<LoanListProjection> twelveInstallments = loanRepository.findListProjections(customerId, null, 12);
+
+        assertThat(all).hasSize(2);
+        assertThat(unpaid).singleElement().satisfies(loan -> {
+            assertThat(loan.getId()).isEqualTo(unpaidLoanId);
+            assertThat(loan.getCustomerName()).isEqualTo("John");
+            assertThat(loan.getRemainingInstallments()).isEqualTo(6L);
+        });
+        assertThat(twelveInstallments).singleElement().satisfies(loan -> {
+            assertThat(loan.getIsPaid()).isTrue();
+            assertThat(loan.getRemainingInstallments()).isZero();
+        });
+    }
+
+    private Loan persistLoan(Customer customer, int numberOfInstallments, boolean isPaid) {
+        Loan loan = entityManager.persist(Loan.builder()
+                .customer(customer)
+                .loanAmount(Money.of(new BigDecimal("1200.00")))
+                .numberOfInstallments(numberOfInstallments)
+                .interestRate(new BigDecimal("0.1"))
+                .totalAmount(Money.of(new BigDecimal("1320.00")))
+                .createDate(LocalDateTime.now())
+                .isPaid(isPaid)
+                .build());
+        for (int i = 0; i < numberOfInstallments; i++) {
+            Money amount = Money.of(new BigDecimal("1320.00")).dividedBy(numberOfInstallments);
+            LoanInstallment installment = entityManager.persist(LoanInstallment.builder()
+                    .loan(loan)
+                    .amount(amount)
+                    .dueDate(LocalDate.now().plusMonths(i + 1))
+                    .build());
+            if (isPaid) {
+                entityManager.persist(PaymentLedgerEntry.builder()
+                        .loanId(loan.getId())
+                        .customerId(customer.getId())
+                        .installmentId(installment.getId())
+                        .installmentNumber(i + 1)
+                        .amount(amount.toBigDecimal())
+                        .paymentDate(LocalDate.now())
+                        .recordedAt(LocalDateTime.now())
+                        .build());
+            }
+        }
+        if (isPaid) {
+            // The first installments are compacted into a snapshot, the rest are its ledger tail
+            entityManager.persist(LoanSnapshot.builder()
+                    .loanId(loan.getId())
+                    .customerId(customer.getId())
+                    .installmentsPaid(numberOfInstallments - 4L)
+                    .totalPaid(BigDecimal.ZERO)
+                    .snapshotAt(LocalDateTime.now())
+                    .build());
+        }
+        return loan;
+    }
+}
@@ -0,0 +1,48 @@
+package com.applab.loan_management.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Starts the prod profile against an in-memory database: the migrations must create a schema that
+ * Hibernate validates against the entities, including the indexes the hot queries rely on.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:prod-schema;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("prod")
+@DisplayName("Production Schema Migration Tests")
+class ProductionSchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should apply every migration and pass Hibernate schema validation")
+    void shouldApplyMigrations() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("5");
+    }
+
+    @Test
+    @DisplayName("Should create the indexes of the hot queries")
+    void shouldCreateHotQueryIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = 'PUBLIC'", String.class);
+
+        assertThat(indexes).contains(
+                "idx_loans_customer_id",
+                "idx_loan_installments_loan_due",
+                "idx_payment_ledger_loan_installment",
+                "idx_payment_queue_status_id");
+    }
+}
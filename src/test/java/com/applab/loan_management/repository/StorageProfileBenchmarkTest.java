@@ -0,0 +1,122 @@
+package com.applab.loan_management.repository;
+
+import com.applab.loan_management.LoanManagementApplication;
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.controller.LoanController;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.security.CustomerUserDetails;
+import com.applab.loan_management.security.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Throughput of a mixed loan workload (create, pay, list loans, list installments) on the default in-memory
+ * H2 profile and on the prod profile (file-backed H2, migrated schema, tuned cache and pool).
+ * Opt-in: mvn test -Dtest=StorageProfileBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Storage Profile Benchmark")
+class StorageProfileBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 16);
+    private static final int ROUNDS_PER_CLIENT = Integer.getInteger("benchmark.rounds", 100);
+    private static final Path PROD_STORAGE_DIRECTORY = Path.of("target", "benchmark", "prod-profile").toAbsolutePath();
+
+    @Test
+    @DisplayName("Should report operations per second on the in-memory and prod profiles")
+    void compareThroughput() throws Exception {
+        // Warm up the JVM once before measuring either profile
+        run(false);
+
+        double inMemory = run(false);
+        double prod = run(true);
+
+        System.out.printf("storage-profile benchmark: clients=%d operations=%d in-memory=%.0f ops/s prod=%.0f ops/s (x%.2f)%n",
+                CLIENTS, CLIENTS * ROUNDS_PER_CLIENT * 4, inMemory, prod, prod / inMemory);
+        assertThat(prod).isPositive();
+    }
+
+    private double run(boolean prodProfile) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(LoanManagementApplication.class)
+                .web(WebApplicationType.NONE);
+        String[] args;
+        if (prodProfile) {
+            // Every run starts from an empty database, so the migrations are part of each startup
+            FileSystemUtils.deleteRecursively(PROD_STORAGE_DIRECTORY);
+            builder.profiles("prod");
+            args = new String[]{"--loan.storage.directory=" + PROD_STORAGE_DIRECTORY};
+        } else {
+            args = new String[]{"--spring.datasource.url=jdbc:h2:mem:storage-benchmark"};
+        }
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            LoanController loanController = context.getBean(LoanController.class);
+
+            Customer admin = customerRepository.save(Customer.builder()
+                    .email("admin@bench.local").password("n/a").role(Role.ADMIN).name("Bench").surname("Admin").build());
+            String token = jwtUtil.generateToken(Map.of("role", Role.ADMIN.name(), "customerId", admin.getId()),
+                    new CustomerUserDetails(admin));
+
+            List<Long> customerIds = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                customerIds.add(customerRepository.save(Customer.builder()
+                        .email("customer" + i + "@bench.local").password("n/a").role(Role.CUSTOMER)
+                        .name("Bench").surname("Customer").creditLimit(Money.of(new BigDecimal("99999999.00")))
+                        .usedCreditLimit(Money.ZERO).build()).getId());
+            }
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            try {
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (Long customerId : customerIds) {
+                    futures.add(clients.submit(() -> {
+                        SecurityContextHolder.getContext().setAuthentication(
+                                new UsernamePasswordAuthenticationToken(admin.getEmail(), token, List.of()));
+                        // Each round creates a loan, pays into it and reads back both listings, so the customer's
+                        // loan list grows over the run like a real account
+                        for (int i = 0; i < ROUNDS_PER_CLIENT; i++) {
+                            Long loanId = loanController.createLoan(CreateLoanRequest.builder()
+                                    .customerId(customerId).amount(new BigDecimal("1000.00"))
+                                    .interestRate(new BigDecimal("0.1")).numberOfInstallments(6).build())
+                                    .getBody().getId();
+                            loanController.payLoan(loanId, PayLoanRequest.builder().amount(new BigDecimal("200.00")).build());
+                            loanController.listLoans(customerId, null, null);
+                            loanController.listLoanInstallments(loanId);
+                        }
+                        SecurityContextHolder.clearContext();
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                return CLIENTS * ROUNDS_PER_CLIENT * 4 / seconds;
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+}
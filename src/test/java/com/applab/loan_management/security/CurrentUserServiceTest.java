@@ -0,0 +1,82 @@
+package com.applab.loan_management.security;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.entity.Customer;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Current User Service Tests")
+class CurrentUserServiceTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private Claims claims;
+
+    @InjectMocks
+    private CurrentUserService currentUserService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should resolve the current user from the authenticated principal without verifying the JWT again")
+    void shouldResolveCurrentUserFromPrincipal() {
+        CustomerUserDetails userDetails = new CustomerUserDetails(Customer.builder()
+                .id(7L).email("customer@test.com").role(Role.CUSTOMER).build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, "token", userDetails.getAuthorities()));
+
+        CurrentUser currentUser = currentUserService.getCurrentUser();
+
+        assertThat(currentUser).isEqualTo(new CurrentUser(Role.CUSTOMER, 7L));
+        assertThat(currentUser.accessScope()).isEqualTo("CUSTOMER:7");
+        assertThat(currentUser.canAccessCustomerData(7L)).isTrue();
+        assertThat(currentUser.canAccessCustomerData(8L)).isFalse();
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    @DisplayName("Should resolve the current user from a single verification of the JWT")
+    void shouldResolveCurrentUserFromJwtOnce() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("admin@test.com", "token", List.of()));
+        when(jwtUtil.extractAllClaims("token")).thenReturn(claims);
+        when(jwtUtil.extractRole(claims)).thenReturn(Role.ADMIN);
+        when(jwtUtil.extractCustomerId(claims)).thenReturn(1L);
+
+        CurrentUser currentUser = currentUserService.getCurrentUser();
+
+        assertThat(currentUser).isEqualTo(new CurrentUser(Role.ADMIN, 1L));
+        assertThat(currentUser.accessScope()).isEqualTo("ADMIN");
+        assertThat(currentUser.canAccessCustomerData(8L)).isTrue();
+        verify(jwtUtil, times(1)).extractAllClaims("token");
+    }
+
+    @Test
+    @DisplayName("Should resolve an anonymous user without an authentication")
+    void shouldResolveAnonymousUser() {
+        CurrentUser currentUser = currentUserService.getCurrentUser();
+
+        assertThat(currentUser).isSameAs(CurrentUser.ANONYMOUS);
+        assertThat(currentUser.canAccessCustomerData(1L)).isFalse();
+        verifyNoInteractions(jwtUtil);
+    }
+}
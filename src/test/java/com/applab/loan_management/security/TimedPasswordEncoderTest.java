@@ -0,0 +1,57 @@
+package com.applab.loan_management.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Timed Password Encoder Tests")
+class TimedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should delegate hashing and time encode and matches separately")
+    void shouldDelegateAndTimeEachOperation() {
+        String encoded = passwordEncoder.encode("password123");
+
+        assertThat(passwordEncoder.matches("password123", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("wrong", encoded)).isFalse();
+        assertThat(meterRegistry.get("loan.auth.password_hash").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("loan.auth.password_hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should record a Flight Recorder event per hash")
+    void shouldRecordPasswordHashEvents() throws Exception {
+        Path dump = Files.createTempFile("password-hash", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.applab.loan.PasswordHash");
+            recording.start();
+            passwordEncoder.matches("password123", passwordEncoder.encode("password123"));
+            recording.stop();
+            recording.dump(dump);
+
+            assertThat(RecordingFile.readAllEvents(dump))
+                    .extracting(event -> event.getString("operation"))
+                    .containsExactly("encode", "matches");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+}
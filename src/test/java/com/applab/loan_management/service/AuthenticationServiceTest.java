@@ -6,17 +6,20 @@ import com.applab.loan_management.dto.AuthenticationResponse;
 import com.applab.loan_management.dto.RegisterRequest;
 import com.applab.loan_management.dto.RegisterResponse;
 import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
 import com.applab.loan_management.exception.EmailAlreadyExistsException;
 import com.applab.loan_management.exception.InvalidCredentialsException;
 import com.applab.loan_management.exception.UserNotFoundException;
 import com.applab.loan_management.repository.CustomerRepository;
 import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.shard.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -40,6 +43,10 @@ class AuthenticationServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    // Unsharded: every call runs on the single database
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter("", false);
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -81,8 +88,8 @@ class AuthenticationServiceTest {
                 .role(Role.CUSTOMER)
                 .name("John")
                 .surname("Doe")
-                .creditLimit(new BigDecimal("10000.00"))
-                .usedCreditLimit(new BigDecimal("0.00"))
+                .creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("0.00")))
                 .build();
 
         testAdmin = Customer.builder()
@@ -107,8 +114,8 @@ class AuthenticationServiceTest {
                 .role(Role.CUSTOMER)
                 .name("John")
                 .surname("Doe")
-                .creditLimit(new BigDecimal("10000.00"))
-                .usedCreditLimit(new BigDecimal("0.00"))
+                .creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("0.00")))
                 .build();
 
         when(customerRepository.existsByEmail(customerRegisterRequest.getEmail())).thenReturn(false);
@@ -0,0 +1,167 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.repository.PaymentLedgerRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.util.AuthMapperUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Credit changes of one customer made concurrently, by payments on different loans of the customer:
+ * none of them may be lost.
+ */
+@SpringBootTest
+@DisplayName("Customer Credit Concurrency Tests")
+class CustomerCreditConcurrencyTest {
+
+    private static final PayLoanRequest ONE_INSTALLMENT = new PayLoanRequest(new BigDecimal("110.00"));
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private SecurityContext adminContext;
+    private Long customerId;
+
+    @BeforeEach
+    void setUp() {
+        Customer admin = customerRepository.save(Customer.builder()
+                .email("credit-admin-" + System.nanoTime() + "@test.com").password("n/a").role(Role.ADMIN)
+                .name("Credit").surname("Admin").build());
+        adminContext = SecurityContextHolder.createEmptyContext();
+        adminContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                admin.getEmail(), AuthMapperUtil.generateJwtToken(admin, jwtUtil), List.of()));
+        SecurityContextHolder.setContext(adminContext);
+        customerId = customerRepository.save(Customer.builder()
+                .email("credit-customer-" + System.nanoTime() + "@test.com").password("n/a").role(Role.CUSTOMER)
+                .name("Credit").surname("Customer").creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.ZERO).build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should fail a credit change that overlaps a committed credit change of the same customer")
+    void shouldConflictOnConcurrentCreditChange() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(customerId).orElseThrow();
+            addUsedCreditConcurrently("100.00");
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().plus(Money.of(new BigDecimal("200.00"))));
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(usedCreditLimit()).isEqualTo(Money.of(new BigDecimal("100.00")));
+    }
+
+    @Test
+    @DisplayName("Should release the credit of concurrent payments on different loans of the same customer")
+    void shouldReleaseCreditOfConcurrentPayments() {
+        Long firstLoanId = createLoan();
+        Long secondLoanId = createLoan();
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        CompletableFuture.allOf(payConcurrently(firstLoanId, start), payConcurrently(secondLoanId, start)).join();
+
+        // Two loans of 1320.00, one installment of 110.00 paid on each
+        assertThat(usedCreditLimit()).isEqualTo(Money.of(new BigDecimal("2420.00")));
+    }
+
+    @Test
+    @DisplayName("Should apply both of two concurrent payments on the same loan")
+    void shouldApplyConcurrentPaymentsOnTheSameLoan() {
+        Long loanId = createLoan();
+        CyclicBarrier start = new CyclicBarrier(2);
+
+        CompletableFuture.allOf(payConcurrently(loanId, start), payConcurrently(loanId, start)).join();
+
+        assertThat(paymentLedgerRepository.countPaidInstallments(loanId)).isEqualTo(2);
+        assertThat(usedCreditLimit()).isEqualTo(Money.of(new BigDecimal("1100.00")));
+    }
+
+    @Test
+    @DisplayName("Should not hold a lock on the customer while a payment is in flight")
+    void shouldNotBlockPaymentOnAnotherLoanOfTheCustomer() {
+        Long firstLoanId = createLoan();
+        Long secondLoanId = createLoan();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            loanService.applyPayment(firstLoanId, ONE_INSTALLMENT);
+            // Completes (and commits) while the first payment's transaction is still open
+            payConcurrently(secondLoanId, new CyclicBarrier(1)).orTimeout(5, TimeUnit.SECONDS).join();
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        // The payment that lost the race is retried by payLoan
+        loanService.payLoan(firstLoanId, ONE_INSTALLMENT);
+        assertThat(usedCreditLimit()).isEqualTo(Money.of(new BigDecimal("2420.00")));
+    }
+
+    // A loan of 1200.00 at 10% in 12 installments of 110.00
+    private Long createLoan() {
+        return loanService.createLoan(CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(new BigDecimal("1200.00"))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(12)
+                .build()).getId();
+    }
+
+    private CompletableFuture<Void> payConcurrently(Long loanId, CyclicBarrier start) {
+        return CompletableFuture.runAsync(() -> {
+            SecurityContextHolder.setContext(adminContext);
+            try {
+                start.await();
+                loanService.payLoan(loanId, ONE_INSTALLMENT);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private void addUsedCreditConcurrently(String amount) {
+        CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            Customer customer = customerRepository.findById(customerId).orElseThrow();
+            customer.setUsedCreditLimit(customer.getUsedCreditLimit().plus(Money.of(new BigDecimal(amount))));
+        })).join();
+    }
+
+    private Money usedCreditLimit() {
+        return customerRepository.findById(customerId).orElseThrow().getUsedCreditLimit();
+    }
+}
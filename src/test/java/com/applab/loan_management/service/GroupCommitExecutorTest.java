@@ -0,0 +1,276 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.exception.InsufficientCreditLimitException;
+import com.applab.loan_management.exception.LoanAlreadyPaidException;
+import com.applab.loan_management.jdbc.QueryCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Group Commit Executor Tests")
+class GroupCommitExecutorTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Savepoint savepoint;
+
+    // Without annotations: Mockito cannot copy the type annotations of SessionImplementor
+    private final SessionImplementor sessionImplementor = mock(SessionImplementor.class, withSettings().withoutAnnotations());
+
+    @Mock
+    private PersistenceContext persistenceContext;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @BeforeEach
+    void setUp() {
+        groupCommitExecutor = newExecutor(true);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(transactionStatus);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(entityManager.unwrap(Session.class)).thenReturn(session);
+        lenient().when(session.doReturningWork(any())).thenReturn(savepoint);
+        lenient().when(entityManager.unwrap(SessionImplementor.class)).thenReturn(sessionImplementor);
+        lenient().when(sessionImplementor.getPersistenceContextInternal()).thenReturn(persistenceContext);
+        lenient().when(persistenceContext.reentrantSafeEntityEntries()).thenReturn(new Map.Entry[0]);
+    }
+
+    private GroupCommitExecutor newExecutor(boolean enabled) {
+        GroupCommitExecutor executor = new GroupCommitExecutor(transactionTemplate, new SimpleMeterRegistry(), enabled, 1000, 8, false);
+        ReflectionTestUtils.setField(executor, "entityManager", entityManager);
+        return executor;
+    }
+
+    private static <T> GroupCommitExecutor.PendingOperation<T> operation(Supplier<T> inGroup, Supplier<T> alone) {
+        return new GroupCommitExecutor.PendingOperation<>(inGroup, alone, SecurityContextHolder.createEmptyContext(), null);
+    }
+
+    // The outcome as the caller sees it, running the operation alone if the group sent it back
+    private static Object outcome(GroupCommitExecutor.PendingOperation<?> operation) {
+        try {
+            return operation.await();
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+    }
+
+    @Test
+    @DisplayName("Should run operations alone when group commit is disabled")
+    void execute_Disabled_RunsAlone() {
+        GroupCommitExecutor disabled = newExecutor(false);
+
+        String result = disabled.execute(() -> "group", () -> "alone");
+
+        assertThat(result).isEqualTo("alone");
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should commit a group once and isolate a rejected operation with its savepoint")
+    void commitGroup_BusinessRejection_IsolatedBySavepoint() {
+        GroupCommitExecutor.PendingOperation<String> accepted = operation(() -> "paid", () -> "alone");
+        GroupCommitExecutor.PendingOperation<String> rejected = operation(() -> {
+            throw new InsufficientCreditLimitException(new BigDecimal("5000.00"), new BigDecimal("1000.00"));
+        }, () -> "alone");
+
+        groupCommitExecutor.commitGroup(List.of(accepted, rejected));
+
+        assertThat(outcome(accepted)).isEqualTo("paid");
+        assertThat(outcome(rejected)).isInstanceOf(InsufficientCreditLimitException.class);
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(session, times(2)).doReturningWork(any());
+        // One release for the accepted operation, one rollback for the rejected one
+        verify(session, times(2)).doWork(any());
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("Should rerun a conflicting operation alone after the group commits")
+    void commitGroup_OptimisticConflict_RunsAlone() {
+        GroupCommitExecutor.PendingOperation<String> accepted = operation(() -> "paid", () -> "alone");
+        GroupCommitExecutor.PendingOperation<String> conflicting = operation(() -> {
+            throw new OptimisticLockingFailureException("conflict");
+        }, () -> "retried");
+
+        groupCommitExecutor.commitGroup(List.of(accepted, conflicting));
+
+        assertThat(outcome(accepted)).isEqualTo("paid");
+        assertThat(outcome(conflicting)).isEqualTo("retried");
+        verify(session, times(2)).doWork(any());
+    }
+
+    @Test
+    @DisplayName("Should rerun an operation alone when its flush detects a version conflict")
+    void commitGroup_FlushConflict_RunsAlone() {
+        GroupCommitExecutor.PendingOperation<String> conflicting = operation(() -> "paid", () -> "retried");
+        doThrow(new OptimisticLockException("stale loan")).when(entityManager).flush();
+
+        groupCommitExecutor.commitGroup(List.of(conflicting));
+
+        assertThat(outcome(conflicting)).isEqualTo("retried");
+    }
+
+    @Test
+    @DisplayName("Should run every operation alone when the group transaction was marked rollback-only")
+    void commitGroup_RollbackOnly_RunsAllAlone() {
+        GroupCommitExecutor.PendingOperation<String> first = operation(() -> "group", () -> "first alone");
+        GroupCommitExecutor.PendingOperation<String> conflicting = operation(() -> "paid", () -> "retried");
+        doNothing().doThrow(new OptimisticLockException("stale loan")).when(entityManager).flush();
+        when(transactionStatus.isRollbackOnly()).thenReturn(true);
+
+        groupCommitExecutor.commitGroup(List.of(first, conflicting));
+
+        assertThat(outcome(first)).isEqualTo("first alone");
+        assertThat(outcome(conflicting)).isEqualTo("retried");
+    }
+
+    @Test
+    @DisplayName("Should run every operation alone when the group transaction fails")
+    void commitGroup_GroupFailure_RunsAllAlone() {
+        GroupCommitExecutor.PendingOperation<String> first = operation(() -> "group", () -> "first alone");
+        GroupCommitExecutor.PendingOperation<String> rejected = operation(() -> {
+            throw new LoanAlreadyPaidException(1L);
+        }, () -> {
+            throw new LoanAlreadyPaidException(1L);
+        });
+        GroupCommitExecutor.PendingOperation<String> broken = operation(() -> {
+            throw new PersistenceException("constraint violation");
+        }, () -> "broken alone");
+
+        groupCommitExecutor.commitGroup(List.of(first, rejected, broken));
+
+        assertThat(outcome(first)).isEqualTo("first alone");
+        assertThat(outcome(rejected)).isInstanceOf(LoanAlreadyPaidException.class);
+        assertThat(outcome(broken)).isEqualTo("broken alone");
+    }
+
+    @Test
+    @DisplayName("Should return each concurrent caller its own result from a shared commit")
+    void execute_ConcurrentCallers_ReceiveOwnResults() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        groupCommitExecutor.start();
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<Integer>> results = IntStream.range(0, 4)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> groupCommitExecutor.execute(() -> {
+                                counter.incrementAndGet();
+                                return i * 10;
+                            }, () -> -1),
+                            callers))
+                    .toList();
+
+            for (int i = 0; i < results.size(); i++) {
+                assertThat(results.get(i).get()).isEqualTo(i * 10);
+            }
+            assertThat(counter.get()).isEqualTo(4);
+        } finally {
+            callers.shutdownNow();
+            groupCommitExecutor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should count a grouped operation's statements towards its caller's query budget")
+    void execute_QueryBudgetScope_CountsCommitterStatements() {
+        QueryCounter queryCounter = new QueryCounter();
+        doAnswer(invocation -> {
+            queryCounter.beforeExecute("update loans");
+            return null;
+        }).when(entityManager).flush();
+        groupCommitExecutor.start();
+        try (QueryCounter.Scope scope = QueryCounter.open()) {
+            String result = groupCommitExecutor.execute(() -> {
+                queryCounter.beforeExecute("select loan");
+                return Thread.currentThread().getName();
+            }, () -> "alone");
+
+            assertThat(result).isEqualTo("group-commit");
+            assertThat(scope.getCount()).isEqualTo(2);
+        } finally {
+            groupCommitExecutor.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run a conflicting operation alone on its caller's thread without delaying the next group")
+    void execute_ConflictingOperation_DoesNotDelayNextGroup() throws Exception {
+        CountDownLatch runningAlone = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        groupCommitExecutor.start();
+        try {
+            CompletableFuture<String> conflicting = CompletableFuture.supplyAsync(() -> groupCommitExecutor.execute(() -> {
+                throw new OptimisticLockingFailureException("stale loan");
+            }, () -> {
+                runningAlone.countDown();
+                awaitUninterruptibly(release);
+                return Thread.currentThread().getName();
+            }));
+            assertThat(runningAlone.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Committed while the conflicting operation is still running alone
+            assertThat(CompletableFuture.supplyAsync(() -> groupCommitExecutor.execute(() -> "grouped", () -> "alone"))
+                    .get(5, TimeUnit.SECONDS)).isEqualTo("grouped");
+
+            release.countDown();
+            assertThat(conflicting.get(5, TimeUnit.SECONDS)).isNotEqualTo("group-commit");
+        } finally {
+            release.countDown();
+            groupCommitExecutor.stop();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
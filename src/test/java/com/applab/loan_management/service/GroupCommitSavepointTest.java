@@ -0,0 +1,151 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.repository.PaymentLedgerRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.util.AuthMapperUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Group commit against the database: a payment that conflicts with a concurrently committed payment
+ * must be rolled back to its savepoint without failing the rest of its group.
+ */
+@SpringBootTest(properties = "loan.group-commit.enabled=true")
+@DisplayName("Group Commit Savepoint Tests")
+class GroupCommitSavepointTest {
+
+    private static final PayLoanRequest ONE_INSTALLMENT = new PayLoanRequest(new BigDecimal("110.00"));
+
+    @Autowired
+    private GroupCommitExecutor groupCommitExecutor;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private SecurityContext adminContext;
+
+    @BeforeEach
+    void setUp() {
+        Customer admin = customerRepository.save(Customer.builder()
+                .email("group-admin-" + System.nanoTime() + "@test.com").password("n/a").role(Role.ADMIN)
+                .name("Group").surname("Admin").build());
+        adminContext = SecurityContextHolder.createEmptyContext();
+        adminContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                admin.getEmail(), AuthMapperUtil.generateJwtToken(admin, jwtUtil), List.of()));
+        SecurityContextHolder.setContext(adminContext);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should commit the rest of a group when one payment conflicts with a concurrent payment")
+    void commitGroup_ConflictingPayment_RestOfGroupCommits() {
+        Long firstLoanId = createLoan();
+        Long conflictingLoanId = createLoan();
+        Long lastLoanId = createLoan();
+        double fallbacksBefore = meterRegistry.counter("loan.group_commit.fallbacks").count();
+
+        GroupCommitExecutor.PendingOperation<PayLoanResponse> first = payment(firstLoanId);
+        GroupCommitExecutor.PendingOperation<PayLoanResponse> conflicting = new GroupCommitExecutor.PendingOperation<>(() -> {
+            // The loan is read in the group transaction, then paid and committed by another caller
+            loanRepository.findForPaymentById(conflictingLoanId).orElseThrow();
+            payConcurrently(conflictingLoanId);
+            return loanService.applyPayment(conflictingLoanId, ONE_INSTALLMENT);
+        }, () -> loanService.payLoan(conflictingLoanId, ONE_INSTALLMENT), adminContext, null);
+        GroupCommitExecutor.PendingOperation<PayLoanResponse> last = payment(lastLoanId);
+
+        groupCommitExecutor.commitGroup(List.of(first, conflicting, last));
+        // The group ran on this thread, as if it were the committer, and cleared its security context
+        SecurityContextHolder.setContext(adminContext);
+
+        assertThat(outcome(first).getInstallmentsPaid()).isEqualTo(1);
+        assertThat(outcome(conflicting).getInstallmentsPaid()).isEqualTo(1);
+        assertThat(outcome(last).getInstallmentsPaid()).isEqualTo(1);
+        // Only the conflicting payment had to run alone
+        assertThat(meterRegistry.counter("loan.group_commit.fallbacks").count() - fallbacksBefore).isEqualTo(1.0);
+        assertThat(paymentLedgerRepository.countPaidInstallments(firstLoanId)).isEqualTo(1);
+        assertThat(paymentLedgerRepository.countPaidInstallments(conflictingLoanId)).isEqualTo(2);
+        assertThat(paymentLedgerRepository.countPaidInstallments(lastLoanId)).isEqualTo(1);
+    }
+
+    // A loan of 1200.00 at 10% in 12 installments of 110.00, for a customer of its own
+    private Long createLoan() {
+        Long customerId = customerRepository.save(Customer.builder()
+                .email("group-customer-" + System.nanoTime() + "@test.com").password("n/a").role(Role.CUSTOMER)
+                .name("Group").surname("Customer").creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.ZERO).build()).getId();
+        SecurityContextHolder.setContext(adminContext);
+        return loanService.createLoan(CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(new BigDecimal("1200.00"))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(12)
+                .build()).getId();
+    }
+
+    private GroupCommitExecutor.PendingOperation<PayLoanResponse> payment(Long loanId) {
+        return new GroupCommitExecutor.PendingOperation<>(
+                () -> loanService.applyPayment(loanId, ONE_INSTALLMENT),
+                () -> loanService.payLoan(loanId, ONE_INSTALLMENT),
+                adminContext, null);
+    }
+
+    private void payConcurrently(Long loanId) {
+        CompletableFuture.runAsync(() -> {
+            SecurityContextHolder.setContext(adminContext);
+            try {
+                loanService.payLoan(loanId, ONE_INSTALLMENT);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }).join();
+    }
+
+    // The outcome as the caller sees it: the conflicting payment runs alone here
+    private static PayLoanResponse outcome(GroupCommitExecutor.PendingOperation<PayLoanResponse> operation) {
+        try {
+            return operation.await();
+        } catch (RuntimeException ex) {
+            throw new AssertionError("Payment failed", ex);
+        }
+    }
+}
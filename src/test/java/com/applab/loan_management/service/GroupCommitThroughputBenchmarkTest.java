@@ -0,0 +1,118 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.LoanManagementApplication;
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.controller.LoanController;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.security.CustomerUserDetails;
+import com.applab.loan_management.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Throughput of loan creation + payment with and without group commit, against a file-backed H2 database.
+ * Opt-in: mvn test -Dtest=GroupCommitThroughputBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Group Commit Throughput Benchmark")
+class GroupCommitThroughputBenchmarkTest {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 32);
+    private static final int OPERATIONS_PER_CLIENT = Integer.getInteger("benchmark.operations", 100);
+
+    @Test
+    @DisplayName("Should report operations per second with group commit off and on")
+    void compareThroughput() throws Exception {
+        // Warm up the JVM and the database once before measuring either mode
+        run(false);
+
+        double withoutGroupCommit = run(false);
+        double withGroupCommit = run(true);
+
+        System.out.printf("group-commit benchmark: clients=%d operations=%d off=%.0f ops/s on=%.0f ops/s (x%.2f)%n",
+                CLIENTS, CLIENTS * OPERATIONS_PER_CLIENT, withoutGroupCommit, withGroupCommit,
+                withGroupCommit / withoutGroupCommit);
+        assertThat(withGroupCommit).isPositive();
+    }
+
+    private double run(boolean groupCommit) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoanManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:./target/benchmark/group-commit;DB_CLOSE_ON_EXIT=FALSE;WRITE_DELAY=0",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--loan.group-commit.enabled=" + groupCommit,
+                        "--loan.group-commit.max-batch=" + Integer.getInteger("benchmark.max-batch", 64))) {
+            CustomerRepository customerRepository = context.getBean(CustomerRepository.class);
+            JwtUtil jwtUtil = context.getBean(JwtUtil.class);
+            LoanController loanController = context.getBean(LoanController.class);
+
+            Customer admin = customerRepository.save(Customer.builder()
+                    .email("admin@bench.local").password("n/a").role(Role.ADMIN).name("Bench").surname("Admin").build());
+            String token = jwtUtil.generateToken(Map.of("role", Role.ADMIN.name(), "customerId", admin.getId()),
+                    new CustomerUserDetails(admin));
+
+            List<Long> customerIds = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                customerIds.add(customerRepository.save(Customer.builder()
+                        .email("customer" + i + "@bench.local").password("n/a").role(Role.CUSTOMER)
+                        .name("Bench").surname("Customer").creditLimit(Money.of(new BigDecimal("99999999.00")))
+                        .usedCreditLimit(Money.of(BigDecimal.ZERO)).build()).getId());
+            }
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            try {
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (Long customerId : customerIds) {
+                    futures.add(clients.submit(() -> {
+                        SecurityContextHolder.getContext().setAuthentication(
+                                new UsernamePasswordAuthenticationToken(admin.getEmail(), token, List.of()));
+                        // Each client alternates loan creation with a payment on the loan it just created
+                        for (int i = 0; i < OPERATIONS_PER_CLIENT / 2; i++) {
+                            Long loanId = loanController.createLoan(CreateLoanRequest.builder()
+                                    .customerId(customerId).amount(new BigDecimal("1000.00"))
+                                    .interestRate(new BigDecimal("0.1")).numberOfInstallments(6).build())
+                                    .getBody().getId();
+                            loanController.payLoan(loanId, PayLoanRequest.builder().amount(new BigDecimal("200.00")).build());
+                        }
+                        SecurityContextHolder.clearContext();
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                if (groupCommit) {
+                    MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+                    System.out.printf("group-commit benchmark: mean group size=%.1f fallbacks=%.0f%n",
+                            meterRegistry.get("loan.group_commit.group_size").summary().mean(),
+                            meterRegistry.get("loan.group_commit.fallbacks").counter().count());
+                }
+                return CLIENTS * (OPERATIONS_PER_CLIENT / 2 * 2) / seconds;
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+}
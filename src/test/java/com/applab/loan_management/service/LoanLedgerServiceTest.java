@@ -0,0 +1,232 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.dto.LedgerTotals;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
+import com.applab.loan_management.dto.LoanPaymentSummaryResponse;
+import com.applab.loan_management.entity.LoanSnapshot;
+import com.applab.loan_management.entity.PaymentLedgerEntry;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.repository.LoanSnapshotRepository;
+import com.applab.loan_management.repository.PaymentLedgerRepository;
+import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Loan Ledger Service Tests")
+class LoanLedgerServiceTest {
+
+    @Mock
+    private PaymentLedgerRepository paymentLedgerRepository;
+
+    @Mock
+    private LoanSnapshotRepository loanSnapshotRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // Unsharded: every call runs on the single database
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter("", false);
+
+    @InjectMocks
+    private LoanLedgerService loanLedgerService;
+
+    @Test
+    @DisplayName("Should append one ledger entry per paid installment, numbered after those paid before")
+    @SuppressWarnings("unchecked")
+    void shouldAppendOneLedgerEntryPerPaidInstallment() {
+        LocalDate paymentDate = LocalDate.now();
+        List<LoanInstallmentProjection> paid = List.of(
+                new LoanInstallmentProjection(1L, 5L, 2L, Money.of(new BigDecimal("1000.00")), paymentDate),
+                new LoanInstallmentProjection(2L, 5L, 2L, Money.of(new BigDecimal("1000.00")), paymentDate.plusMonths(1))
+        );
+
+        loanLedgerService.recordPayment(5L, 2L, 3L, paid, paymentDate);
+
+        ArgumentCaptor<List<PaymentLedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(paymentLedgerRepository).saveAllAndFlush(captor.capture());
+        List<PaymentLedgerEntry> entries = captor.getValue();
+        assertThat(entries).hasSize(2);
+        assertThat(entries).extracting(PaymentLedgerEntry::getInstallmentId).containsExactly(1L, 2L);
+        assertThat(entries).extracting(PaymentLedgerEntry::getInstallmentNumber).containsExactly(4, 5);
+        assertThat(entries).allSatisfy(entry -> {
+            assertThat(entry.getLoanId()).isEqualTo(5L);
+            assertThat(entry.getCustomerId()).isEqualTo(2L);
+            assertThat(entry.getPaymentDate()).isEqualTo(paymentDate);
+        });
+    }
+
+    @Test
+    @DisplayName("Should report installments also paid by a concurrent payment as a conflict")
+    void shouldReportDuplicateInstallmentAsConflict() {
+        LocalDate paymentDate = LocalDate.now();
+        List<LoanInstallmentProjection> paid = List.of(
+                new LoanInstallmentProjection(1L, 5L, 2L, Money.of(new BigDecimal("1000.00")), paymentDate));
+        when(paymentLedgerRepository.saveAllAndFlush(anyList()))
+                .thenThrow(new DataIntegrityViolationException("idx_payment_ledger_loan_installment"));
+
+        assertThatThrownBy(() -> loanLedgerService.recordPayment(5L, 2L, 0L, paid, paymentDate))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Should derive payment summary from snapshot plus ledger tail")
+    void shouldDerivePaymentSummaryFromSnapshotPlusTail() {
+        LoanSnapshot snapshot = LoanSnapshot.builder()
+                .loanId(5L)
+                .customerId(2L)
+                .installmentsPaid(3L)
+                .totalPaid(new BigDecimal("3000.00"))
+                .lastPaymentDate(LocalDate.now().minusMonths(1))
+                .snapshotAt(LocalDateTime.now())
+                .build();
+        LedgerTotals tail = new LedgerTotals(5L, 2L, 2L, new BigDecimal("2000.00"), LocalDate.now());
+
+        when(loanRepository.findCustomerIdById(5L)).thenReturn(Optional.of(2L));
+        when(currentUserService.canAccessCustomerData(2L)).thenReturn(true);
+        when(loanSnapshotRepository.findById(5L)).thenReturn(Optional.of(snapshot));
+        when(paymentLedgerRepository.sumEntriesAfter(5L, 3L)).thenReturn(Optional.of(tail));
+
+        LoanPaymentSummaryResponse result = loanLedgerService.getPaymentSummary(5L);
+
+        assertThat(result.getLoanId()).isEqualTo(5L);
+        assertThat(result.getInstallmentsPaid()).isEqualTo(5);
+        assertThat(result.getTotalPaidAmount()).isEqualTo(new BigDecimal("5000.00"));
+        assertThat(result.getLastPaymentDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("Should derive payment summary from ledger only when no snapshot exists")
+    void shouldDerivePaymentSummaryFromLedgerOnlyWhenNoSnapshotExists() {
+        when(loanRepository.findCustomerIdById(5L)).thenReturn(Optional.of(2L));
+        when(currentUserService.canAccessCustomerData(2L)).thenReturn(true);
+        when(loanSnapshotRepository.findById(5L)).thenReturn(Optional.empty());
+        when(paymentLedgerRepository.sumEntriesAfter(5L, 0L)).thenReturn(Optional.empty());
+
+        LoanPaymentSummaryResponse result = loanLedgerService.getPaymentSummary(5L);
+
+        assertThat(result.getInstallmentsPaid()).isZero();
+        assertThat(result.getTotalPaidAmount()).isEqualTo(BigDecimal.ZERO);
+        assertThat(result.getLastPaymentDate()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should throw LoanNotFoundException for payment summary of a missing loan")
+    void shouldThrowLoanNotFoundExceptionForMissingLoan() {
+        when(loanRepository.findCustomerIdById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> loanLedgerService.getPaymentSummary(9L))
+                .isInstanceOf(LoanNotFoundException.class);
+
+        verify(loanSnapshotRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should deny payment summary of another customer's loan")
+    void shouldDenyPaymentSummaryOfAnotherCustomersLoan() {
+        when(loanRepository.findCustomerIdById(5L)).thenReturn(Optional.of(2L));
+        when(currentUserService.canAccessCustomerData(2L)).thenReturn(false);
+        when(currentUserService.getCurrentCustomerId()).thenReturn(3L);
+
+        assertThatThrownBy(() -> loanLedgerService.getPaymentSummary(5L))
+                .isInstanceOf(CustomerAccessDeniedException.class);
+
+        verify(paymentLedgerRepository, never()).sumEntriesAfter(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should fold ledger tails into existing and new snapshots")
+    void shouldFoldLedgerTailsIntoSnapshots() {
+        LoanSnapshot existing = LoanSnapshot.builder()
+                .loanId(5L)
+                .customerId(2L)
+                .installmentsPaid(3L)
+                .totalPaid(new BigDecimal("3000.00"))
+                .build();
+        when(paymentLedgerRepository.sumUncompactedEntries()).thenReturn(List.of(
+                new LedgerTotals(5L, 2L, 2L, new BigDecimal("2000.00"), LocalDate.now()),
+                new LedgerTotals(6L, 4L, 1L, new BigDecimal("500.00"), LocalDate.now())
+        ));
+        when(loanSnapshotRepository.findById(5L)).thenReturn(Optional.of(existing));
+        when(paymentLedgerRepository.sumEntriesAfter(5L, 3L)).thenReturn(Optional.of(
+                new LedgerTotals(5L, 2L, 2L, new BigDecimal("2000.00"), LocalDate.now())));
+        when(loanSnapshotRepository.findById(6L)).thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        int written = loanLedgerService.compactSnapshots();
+
+        assertThat(written).isEqualTo(2);
+        ArgumentCaptor<LoanSnapshot> captor = ArgumentCaptor.forClass(LoanSnapshot.class);
+        verify(loanSnapshotRepository, times(2)).save(captor.capture());
+        LoanSnapshot updated = captor.getAllValues().get(0);
+        assertThat(updated.getInstallmentsPaid()).isEqualTo(5L);
+        assertThat(updated.getTotalPaid()).isEqualTo(new BigDecimal("5000.00"));
+        LoanSnapshot created = captor.getAllValues().get(1);
+        assertThat(created.getLoanId()).isEqualTo(6L);
+        assertThat(created.getInstallmentsPaid()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should not fold a tail again into a snapshot another instance extended since the tails were read")
+    void shouldSkipTailCompactedConcurrently() {
+        LoanSnapshot compacted = LoanSnapshot.builder()
+                .loanId(5L)
+                .customerId(2L)
+                .installmentsPaid(5L)
+                .totalPaid(new BigDecimal("5000.00"))
+                .build();
+        when(paymentLedgerRepository.sumUncompactedEntries()).thenReturn(List.of(
+                new LedgerTotals(5L, 2L, 2L, new BigDecimal("2000.00"), LocalDate.now())
+        ));
+        when(loanSnapshotRepository.findById(5L)).thenReturn(Optional.of(compacted));
+        when(paymentLedgerRepository.sumEntriesAfter(5L, 5L)).thenReturn(Optional.empty());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+
+        assertThat(loanLedgerService.compactSnapshots()).isZero();
+
+        verify(loanSnapshotRepository, never()).save(any(LoanSnapshot.class));
+        assertThat(compacted.getInstallmentsPaid()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("Should leave snapshots written by a concurrent compaction to it")
+    void shouldYieldToConcurrentCompaction() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new OptimisticLockingFailureException("Snapshot of loan 5 was updated concurrently"));
+
+        assertThat(loanLedgerService.compactSnapshots()).isZero();
+    }
+}
@@ -0,0 +1,115 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.jdbc.QueryBudget;
+import com.applab.loan_management.jdbc.QueryBudgetExtension;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.util.AuthMapperUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* SQL statement budgets of the LoanService operations behind the loan API, to catch N+1 regressions.
+ * Budgets are independent of the number of installments; raise one only for a deliberate change.
+ */
+@SpringBootTest
+@ExtendWith(QueryBudgetExtension.class)
+@DisplayName("Loan Service Query Budget Tests")
+class LoanServiceQueryBudgetTest {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Long customerId;
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        Customer admin = customerRepository.save(Customer.builder()
+                .email("budget-admin-" + suffix + "@test.com").password("n/a").role(Role.ADMIN)
+                .name("Budget").surname("Admin").build());
+        customerId = customerRepository.save(Customer.builder()
+                .email("budget-customer-" + suffix + "@test.com").password("n/a").role(Role.CUSTOMER)
+                .name("Budget").surname("Customer").creditLimit(Money.of(new BigDecimal("1000000.00")))
+                .usedCreditLimit(Money.ZERO).build()).getId();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                admin.getEmail(), AuthMapperUtil.generateJwtToken(admin, jwtUtil), List.of()));
+        // Like the installment sequence above, the ledger sequence has handed out its first block of IDs
+        Long warmUpLoanId = loanService.createLoan(loanRequest(6)).getId();
+        loanService.payLoan(warmUpLoanId, new PayLoanRequest(new BigDecimal("10000.00")));
+        loanId = loanService.createLoan(loanRequest(24)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // The loan list projection; the customer lookup is served by the second-level cache
+    @Test
+    @QueryBudget(1)
+    @DisplayName("listLoans should not query per loan")
+    void listLoansBudget() {
+        assertThat(loanService.listLoans(customerId, null, null)).hasSize(2);
+    }
+
+    @Test
+    @QueryBudget(1)
+    @DisplayName("listLoanInstallments should run a single query")
+    void listLoanInstallmentsBudget() {
+        assertThat(loanService.listLoanInstallments(loanId)).hasSize(24);
+    }
+
+    // Customer (locked), loan, one installment batch and the customer's used credit; the installment
+    // sequence is read once per 50 installments
+    @Test
+    @QueryBudget(5)
+    @DisplayName("createLoan should batch the installment inserts")
+    void createLoanBudget() {
+        assertThat(loanService.createLoan(loanRequest(24)).getId()).isNotNull();
+    }
+
+    // Loan, paid installment count, scheduled installments, the customer (locked), the loan version check,
+    // one batch of ledger entries (at most three are payable), customer and loan version updates; the ledger
+    // sequence is read once per 50 entries
+    @Test
+    @QueryBudget(8)
+    @DisplayName("payLoan should record the paid installments without updating them")
+    void payLoanBudget() {
+        assertThat(loanService.payLoan(loanId, new PayLoanRequest(new BigDecimal("100000.00"))).getInstallmentsPaid())
+                .isEqualTo(3);
+    }
+
+    private CreateLoanRequest loanRequest(int numberOfInstallments) {
+        return CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(new BigDecimal("10000.00"))
+                .interestRate(new BigDecimal("0.2"))
+                .numberOfInstallments(numberOfInstallments)
+                .build();
+    }
+}
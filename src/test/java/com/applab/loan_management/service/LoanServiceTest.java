@@ -2,30 +2,51 @@ package com.applab.loan_management.service;
 
 import com.applab.loan_management.constants.Role;
 import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.LoanListProjection;
 import com.applab.loan_management.dto.LoanListResponse;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
 import com.applab.loan_management.dto.PayLoanRequest;
 import com.applab.loan_management.dto.PayLoanResponse;
 import com.applab.loan_management.entity.Customer;
 import com.applab.loan_management.entity.Loan;
 import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
 import com.applab.loan_management.exception.AdminCannotCreateLoanException;
 import com.applab.loan_management.exception.CustomerNotFoundException;
 import com.applab.loan_management.exception.InsufficientCreditLimitException;
+import com.applab.loan_management.exception.InvalidPaymentAmountException;
 import com.applab.loan_management.exception.InvalidParameterException;
 import com.applab.loan_management.exception.LoanAlreadyPaidException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.exception.NoPayableInstallmentsException;
+import com.applab.loan_management.jdbc.ReadYourWritesTracker;
 import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.repository.LoanInstallmentRepository;
 import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.security.CurrentUser;
 import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -46,9 +67,34 @@ class LoanServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private LoanInstallmentRepository loanInstallmentRepository;
+
     @Mock
     private CurrentUserService currentUserService;
 
+    @Mock
+    private PaymentRetryExecutor paymentRetryExecutor;
+
+    @Mock
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Mock
+    private LoanLedgerService loanLedgerService;
+
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry());
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Unsharded: every call runs on the single database
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter("", false);
+
     @InjectMocks
     private LoanService loanService;
 
@@ -58,14 +104,20 @@ class LoanServiceTest {
 
     @BeforeEach
     void setUp() {
+        // Run payment callbacks directly, without a real transaction or retries
+        lenient().when(paymentRetryExecutor.execute(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(1).doInTransaction(null));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
         testCustomer = Customer.builder()
                 .id(1L)
                 .email("customer@test.com")
                 .name("John")
                 .surname("Doe")
                 .role(Role.CUSTOMER)
-                .creditLimit(new BigDecimal("50000.00"))
-                .usedCreditLimit(new BigDecimal("10000.00"))
+                .creditLimit(Money.of(new BigDecimal("50000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("10000.00")))
                 .build();
 
         validLoanRequest = CreateLoanRequest.builder()
@@ -78,7 +130,7 @@ class LoanServiceTest {
         testLoan = Loan.builder()
                 .id(1L)
                 .customer(testCustomer)
-                .loanAmount(new BigDecimal("10000.00"))
+                .loanAmount(Money.of(new BigDecimal("10000.00")))
                 .interestRate(new BigDecimal("0.2"))
                 .numberOfInstallments(12)
                 .createDate(LocalDateTime.now())
@@ -86,20 +138,19 @@ class LoanServiceTest {
                 .build();
 
         List<LoanInstallment> installments = Arrays.asList(
-                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1), false),
-                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2), false),
-                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3), true)
+                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1)),
+                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2)),
+                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3))
         );
         testLoan.setInstallments(installments);
     }
 
-    private LoanInstallment createTestInstallment(Long id, Loan loan, BigDecimal amount, LocalDate dueDate, boolean isPaid) {
+    private LoanInstallment createTestInstallment(Long id, Loan loan, BigDecimal amount, LocalDate dueDate) {
         return LoanInstallment.builder()
                 .id(id)
                 .loan(loan)
-                .amount(amount)
+                .amount(Money.of(amount))
                 .dueDate(dueDate)
-                .isPaid(isPaid)
                 .build();
     }
 
@@ -109,7 +160,7 @@ class LoanServiceTest {
         Loan savedLoan = Loan.builder()
                 .id(1L)
                 .customer(testCustomer)
-                .loanAmount(validLoanRequest.getAmount())
+                .loanAmount(Money.of(validLoanRequest.getAmount()))
                 .interestRate(validLoanRequest.getInterestRate())
                 .numberOfInstallments(validLoanRequest.getNumberOfInstallments())
                 .createDate(LocalDateTime.now())
@@ -125,10 +176,32 @@ class LoanServiceTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
-        assertThat(result.getLoanAmount()).isEqualTo(new BigDecimal("10000.00"));
+        assertThat(result.getLoanAmount()).isEqualTo(Money.of(new BigDecimal("10000.00")));
         assertThat(result.getInterestRate()).isEqualTo(new BigDecimal("0.2"));
         assertThat(result.getNumberOfInstallments()).isEqualTo(12);
         assertThat(result.getIsPaid()).isFalse();
+
+        assertThat(meterRegistry.get("loan.service.transaction")
+                .tags("operation", "createLoan", "outcome", "success").timer().count()).isEqualTo(1);
+
+        // Totals are stored at origination: 10000 * (1 + 0.2) = 12000, in 12 installments of 1000
+        verify(loanRepository).save(argThat(loan ->
+                loan.getTotalAmount().equals(Money.of(new BigDecimal("12000.00")))
+                        && loan.getInstallmentAmount().equals(Money.of(new BigDecimal("1000.00")))));
+    }
+
+    @Test
+    @DisplayName("Should reject a loan amount too large to be held in cents as an invalid parameter")
+    void shouldRejectOutOfRangeLoanAmount() {
+        validLoanRequest.setAmount(new BigDecimal("1E+20"));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        assertThatThrownBy(() -> loanService.createLoan(validLoanRequest))
+                .isInstanceOf(InvalidParameterException.class)
+                .hasMessage("Invalid parameter 'amount': is out of range");
+
+        verify(loanRepository, never()).save(any(Loan.class));
     }
 
     @Test
@@ -156,8 +229,8 @@ class LoanServiceTest {
                 .name("John")
                 .surname("Doe")
                 .role(Role.CUSTOMER)
-                .creditLimit(new BigDecimal("15000.00"))
-                .usedCreditLimit(new BigDecimal("10000.00"))
+                .creditLimit(Money.of(new BigDecimal("15000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("10000.00")))
                 .build();
 
         when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
@@ -172,6 +245,37 @@ class LoanServiceTest {
         verify(loanRepository, never()).save(any(Loan.class));
     }
 
+    @Test
+    @DisplayName("Should record a Flight Recorder event with the credit check outcome")
+    void shouldRecordLoanCreationEventWithCreditCheckOutcome() throws Exception {
+        Customer customerWithLowCredit = Customer.builder()
+                .id(1L)
+                .role(Role.CUSTOMER)
+                .creditLimit(Money.of(new BigDecimal("15000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("10000.00")))
+                .build();
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customerWithLowCredit));
+
+        Path dump = Files.createTempFile("loan-creation", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.applab.loan.LoanCreation");
+            recording.start();
+            assertThatThrownBy(() -> loanService.createLoan(validLoanRequest))
+                    .isInstanceOf(InsufficientCreditLimitException.class);
+            recording.stop();
+            recording.dump(dump);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getLong("customerId")).isEqualTo(1L);
+            assertThat(events.get(0).getInt("numberOfInstallments")).isEqualTo(validLoanRequest.getNumberOfInstallments());
+            assertThat(events.get(0).getString("creditCheckOutcome")).isEqualTo("INSUFFICIENT_CREDIT_LIMIT");
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+    }
+
     @Test
     @DisplayName("Should throw AdminCannotCreateLoanException when customer is admin")
     void shouldThrowAdminCannotCreateLoanExceptionWhenCustomerIsAdmin() {
@@ -200,11 +304,13 @@ class LoanServiceTest {
     @Test
     @DisplayName("Should successfully list loans with filters")
     void shouldSuccessfullyListLoansWithFilters() {
-        List<Loan> mockLoans = Arrays.asList(testLoan);
+        List<LoanListProjection> mockLoans = List.of(new LoanListProjection(1L, 1L, "John", "Doe",
+                Money.of(new BigDecimal("10000.00")), new BigDecimal("0.2"), 12, LocalDateTime.now(), false,
+                Money.of(new BigDecimal("12000.00")), 12L));
         
-        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(currentUserService.getCurrentUser()).thenReturn(new CurrentUser(Role.CUSTOMER, 1L));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(loanRepository.findByCustomerIdAndIsPaid(1L, false)).thenReturn(mockLoans);
+        when(loanRepository.findListProjections(1L, false, null)).thenReturn(mockLoans);
 
         List<LoanListResponse> result = loanService.listLoans(1L, false, null);
 
@@ -215,28 +321,69 @@ class LoanServiceTest {
         assertThat(result.get(0).getLoanAmount()).isEqualTo(new BigDecimal("10000.00"));
         assertThat(result.get(0).getIsPaid()).isFalse();
 
-        verify(currentUserService).canAccessCustomerData(1L);
+        verify(currentUserService).getCurrentUser();
         verify(customerRepository).findById(1L);
-        verify(loanRepository).findByCustomerIdAndIsPaid(1L, false);
+        verify(loanRepository).findListProjections(1L, false, null);
+    }
+
+    @Test
+    @DisplayName("Should run listings through single flight keyed by arguments and access scope")
+    void shouldKeyListLoansSingleFlightByArgumentsAndAccessScope() {
+        when(currentUserService.getCurrentUser()).thenReturn(new CurrentUser(Role.CUSTOMER, 1L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(loanRepository.findListProjections(1L, true, 12)).thenReturn(List.of());
+
+        loanService.listLoans(1L, true, 12);
+
+        verify(singleFlight).execute(argThat(key -> key.toString()
+                .equals("ListLoansKey[accessScope=CUSTOMER:1, primary=false, customerId=1, isPaid=true, numberOfInstallments=12]")), any());
+    }
+
+    @Test
+    @DisplayName("Should not share a listing between admins routed to different databases")
+    void shouldKeyListLoansSingleFlightByReadRouting() {
+        when(currentUserService.getCurrentUser())
+                .thenReturn(new CurrentUser(Role.ADMIN, 10L), new CurrentUser(Role.ADMIN, 20L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(loanRepository.findListProjections(1L, null, null)).thenReturn(List.of());
+        when(readYourWritesTracker.isEnabled()).thenReturn(true);
+        // Only the first admin has just written
+        when(readYourWritesTracker.requiresPrimary(10L)).thenReturn(true);
+        when(readYourWritesTracker.requiresPrimary(20L)).thenReturn(false);
+
+        loanService.listLoans(1L, null, null);
+        loanService.listLoans(1L, null, null);
+
+        verify(singleFlight).execute(argThat(key -> key.toString()
+                .equals("ListLoansKey[accessScope=ADMIN, primary=true, customerId=1, isPaid=null, numberOfInstallments=null]")), any());
+        verify(singleFlight).execute(argThat(key -> key.toString()
+                .equals("ListLoansKey[accessScope=ADMIN, primary=false, customerId=1, isPaid=null, numberOfInstallments=null]")), any());
     }
 
     @Test
     @DisplayName("Should throw InvalidParameterException for invalid customerId in listLoans")
     void shouldThrowInvalidParameterExceptionForInvalidCustomerIdInListLoans() {
+        when(currentUserService.getCurrentUser()).thenReturn(new CurrentUser(Role.CUSTOMER, 1L));
+
         assertThatThrownBy(() -> loanService.listLoans(-1L, null, null))
                 .isInstanceOf(InvalidParameterException.class)
                 .hasMessage("Invalid parameter 'customerId': must be a positive number");
 
-        verify(currentUserService, never()).canAccessCustomerData(anyLong());
         verify(customerRepository, never()).findById(anyLong());
-        verify(loanRepository, never()).findByCustomerId(anyLong());
+        verify(loanRepository, never()).findListProjections(anyLong(), any(), any());
     }
 
     @Test
     @DisplayName("Should successfully list loan installments")
     void shouldSuccessfullyListLoanInstallments() {
-        when(loanRepository.findById(1L)).thenReturn(Optional.of(testLoan));
-        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        List<LoanInstallmentProjection> projections = Arrays.asList(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1), null, null, false),
+                new LoanInstallmentProjection(2L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(2), null, null, false),
+                new LoanInstallmentProjection(3L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(3), LocalDate.now(), Money.of(new BigDecimal("1000.00")), true)
+        );
+
+        when(loanInstallmentRepository.findProjectionsByLoanId(1L)).thenReturn(projections);
+        when(currentUserService.getCurrentUser()).thenReturn(new CurrentUser(Role.CUSTOMER, 1L));
 
         List<LoanInstallmentResponse> result = loanService.listLoanInstallments(1L);
 
@@ -245,28 +392,48 @@ class LoanServiceTest {
         assertThat(result.get(0).getLoanId()).isEqualTo(1L);
         assertThat(result.get(0).getAmount()).isEqualTo(new BigDecimal("1000.00"));
         assertThat(result.get(0).getIsPaid()).isFalse();
+        assertThat(result.get(0).getInstallmentNumber()).isEqualTo(1);
         assertThat(result.get(2).getIsPaid()).isTrue();
+        assertThat(result.get(2).getInstallmentNumber()).isEqualTo(3);
 
-        verify(loanRepository).findById(1L);
-        verify(currentUserService).canAccessCustomerData(1L);
+        verify(loanInstallmentRepository).findProjectionsByLoanId(1L);
+        verify(currentUserService).getCurrentUser();
+        verify(loanRepository, never()).findById(anyLong());
     }
 
     @Test
-    @DisplayName("Should successfully pay loan installments")
+    @DisplayName("Should throw LoanNotFoundException when listing installments of a missing loan")
+    void shouldThrowLoanNotFoundExceptionWhenListingInstallmentsOfMissingLoan() {
+        when(currentUserService.getCurrentUser()).thenReturn(new CurrentUser(Role.CUSTOMER, 1L));
+        when(loanInstallmentRepository.findProjectionsByLoanId(99L)).thenReturn(List.of());
+        when(loanRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> loanService.listLoanInstallments(99L))
+                .isInstanceOf(LoanNotFoundException.class)
+                .hasMessage("Loan not found with ID: 99");
+    }
+
+    @Test
+    @DisplayName("Should pay the installments after those already paid according to the ledger")
     void shouldSuccessfullyPayLoanInstallments() {
         PayLoanRequest payRequest = PayLoanRequest.builder()
                 .amount(new BigDecimal("2500.00"))
                 .build();
 
-        List<LoanInstallment> installments = Arrays.asList(
-                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1), false),
-                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2), false),
-                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3), false)
+        List<LoanInstallmentProjection> scheduledInstallments = Arrays.asList(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().minusMonths(1)),
+                new LoanInstallmentProjection(2L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1)),
+                new LoanInstallmentProjection(3L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(2)),
+                new LoanInstallmentProjection(4L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(3))
         );
-        testLoan.setInstallments(installments);
+        testLoan.setVersion(3L);
 
-        when(loanRepository.findById(1L)).thenReturn(Optional.of(testLoan));
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
         when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanLedgerService.countPaidInstallments(1L)).thenReturn(1L);
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(loanRepository.findVersionById(1L)).thenReturn(Optional.of(3L));
         when(customerRepository.save(any(Customer.class))).thenReturn(testCustomer);
         when(loanRepository.save(any(Loan.class))).thenReturn(testLoan);
 
@@ -278,19 +445,72 @@ class LoanServiceTest {
         assertThat(result.isLoanFullyPaid()).isFalse();
         assertThat(result.getMessage()).contains("Successfully paid 2 installment(s)");
 
-        verify(loanRepository).findById(1L);
+        verify(loanRepository).findForPaymentById(1L);
         verify(currentUserService).canAccessCustomerData(1L);
+        verify(loanLedgerService).recordPayment(eq(1L), eq(1L), eq(1L), eq(scheduledInstallments.subList(1, 3)), any(LocalDate.class));
+        verify(customerRepository).findById(1L);
         verify(customerRepository).save(any(Customer.class));
         verify(loanRepository).save(any(Loan.class));
     }
 
+    @Test
+    @DisplayName("Should mark the loan paid when the payment covers its last installment")
+    void shouldMarkLoanPaidWhenLastInstallmentIsPaid() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("1000.00"))
+                .build();
+
+        testLoan.setNumberOfInstallments(3);
+        List<LoanInstallmentProjection> scheduledInstallments = Arrays.asList(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().minusMonths(1)),
+                new LoanInstallmentProjection(2L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1)),
+                new LoanInstallmentProjection(3L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(2))
+        );
+
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanLedgerService.countPaidInstallments(1L)).thenReturn(2L);
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        PayLoanResponse result = loanService.payLoan(1L, payRequest);
+
+        assertThat(result.getInstallmentsPaid()).isEqualTo(1);
+        assertThat(result.isLoanFullyPaid()).isTrue();
+        assertThat(testLoan.getIsPaid()).isTrue();
+        verify(loanLedgerService).recordPayment(eq(1L), eq(1L), eq(2L), eq(scheduledInstallments.subList(2, 3)), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a payment when every installment within the window is already paid")
+    void shouldRejectPaymentWhenScheduledInstallmentsArePaid() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("1000.00"))
+                .build();
+
+        List<LoanInstallmentProjection> scheduledInstallments = List.of(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1))
+        );
+
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanLedgerService.countPaidInstallments(1L)).thenReturn(1L);
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+
+        assertThatThrownBy(() -> loanService.payLoan(1L, payRequest))
+                .isInstanceOf(NoPayableInstallmentsException.class);
+
+        verify(customerRepository, never()).findById(anyLong());
+        verify(loanLedgerService, never()).recordPayment(anyLong(), anyLong(), anyLong(), anyList(), any(LocalDate.class));
+    }
+
     @Test
     @DisplayName("Should throw LoanAlreadyPaidException when trying to pay an already paid loan")
     void shouldThrowLoanAlreadyPaidExceptionWhenTryingToPayAlreadyPaidLoan() {
         Loan paidLoan = Loan.builder()
                 .id(1L)
                 .customer(testCustomer)
-                .loanAmount(new BigDecimal("10000.00"))
+                .loanAmount(Money.of(new BigDecimal("10000.00")))
                 .interestRate(new BigDecimal("0.2"))
                 .numberOfInstallments(12)
                 .createDate(LocalDateTime.now())
@@ -301,16 +521,109 @@ class LoanServiceTest {
                 .amount(new BigDecimal("1000.00"))
                 .build();
 
-        when(loanRepository.findById(1L)).thenReturn(Optional.of(paidLoan));
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(paidLoan));
         when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
 
         assertThatThrownBy(() -> loanService.payLoan(1L, payRequest))
                 .isInstanceOf(LoanAlreadyPaidException.class)
                 .hasMessage("Loan with ID 1 is already fully paid");
 
-        verify(loanRepository).findById(1L);
+        verify(loanRepository).findForPaymentById(1L);
         verify(currentUserService).canAccessCustomerData(1L);
         verify(customerRepository, never()).save(any(Customer.class));
         verify(loanRepository, never()).save(any(Loan.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should signal an optimistic lock conflict when installments were paid concurrently")
+    void shouldSignalOptimisticLockConflictWhenInstallmentsWerePaidConcurrently() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("2000.00"))
+                .build();
+
+        List<LoanInstallmentProjection> scheduledInstallments = Arrays.asList(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1)),
+                new LoanInstallmentProjection(2L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(2))
+        );
+        testLoan.setVersion(3L);
+
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        // A payment on the loan committed while this one waited for the customer lock
+        when(loanRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertThatThrownBy(() -> loanService.payLoan(1L, payRequest))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        verify(paymentRetryExecutor).execute(eq(1L), any());
+        verify(loanLedgerService, never()).recordPayment(anyLong(), anyLong(), anyLong(), anyList(), any(LocalDate.class));
+        verify(customerRepository, never()).save(any(Customer.class));
+        verify(loanRepository, never()).save(any(Loan.class));
+    }
+
+    @Test
+    @DisplayName("Should apply a pre-authorized payment without checking the current user")
+    void shouldApplyPreAuthorizedPaymentWithoutCheckingCurrentUser() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("1000.00"))
+                .build();
+
+        List<LoanInstallmentProjection> scheduledInstallments = List.of(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1))
+        );
+
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+
+        PayLoanResponse result = loanService.applyPreAuthorizedPayment(1L, payRequest);
+
+        assertThat(result.getInstallmentsPaid()).isEqualTo(1);
+        verify(currentUserService, never()).canAccessCustomerData(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not let a fraction of a cent cover an installment")
+    void shouldRejectPaymentShortOfInstallmentByLessThanOneCent() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("999.995"))
+                .build();
+
+        List<LoanInstallmentProjection> scheduledInstallments = List.of(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1))
+        );
+
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+
+        assertThatThrownBy(() -> loanService.payLoan(1L, payRequest))
+                .isInstanceOf(InvalidPaymentAmountException.class);
+
+        verify(loanLedgerService, never()).recordPayment(anyLong(), anyLong(), anyLong(), anyList(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a payment amount too large to be held in cents as an invalid parameter")
+    void shouldRejectOutOfRangePaymentAmount() {
+        PayLoanRequest payRequest = PayLoanRequest.builder()
+                .amount(new BigDecimal("1E+999999999"))
+                .build();
+
+        List<LoanInstallmentProjection> scheduledInstallments = List.of(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1))
+        );
+
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(loanRepository.findForPaymentById(1L)).thenReturn(Optional.of(testLoan));
+        when(loanInstallmentRepository.findScheduledInstallments(eq(1L), any(LocalDate.class))).thenReturn(scheduledInstallments);
+
+        assertThatThrownBy(() -> loanService.payLoan(1L, payRequest))
+                .isInstanceOf(InvalidParameterException.class)
+                .hasMessage("Invalid parameter 'amount': is out of range");
+
+        verify(loanLedgerService, never()).recordPayment(anyLong(), anyLong(), anyLong(), anyList(), any(LocalDate.class));
+    }
+}
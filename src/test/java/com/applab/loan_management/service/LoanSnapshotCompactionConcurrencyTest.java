@@ -0,0 +1,116 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.LoanSnapshot;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.repository.LoanSnapshotRepository;
+import com.applab.loan_management.security.JwtUtil;
+import com.applab.loan_management.util.AuthMapperUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+
+/* Snapshot compactions running concurrently, as on several instances: a ledger tail is folded into its
+ * loan's snapshot only once.
+ */
+@SpringBootTest
+@DisplayName("Loan Snapshot Compaction Concurrency Tests")
+class LoanSnapshotCompactionConcurrencyTest {
+
+    private static final PayLoanRequest ONE_INSTALLMENT = new PayLoanRequest(new BigDecimal("110.00"));
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanLedgerService loanLedgerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanSnapshotRepository loanSnapshotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    private Long loanId;
+
+    @BeforeEach
+    void setUp() {
+        Customer admin = customerRepository.save(Customer.builder()
+                .email("compaction-admin-" + System.nanoTime() + "@test.com").password("n/a").role(Role.ADMIN)
+                .name("Compaction").surname("Admin").build());
+        SecurityContext adminContext = SecurityContextHolder.createEmptyContext();
+        adminContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                admin.getEmail(), AuthMapperUtil.generateJwtToken(admin, jwtUtil), List.of()));
+        SecurityContextHolder.setContext(adminContext);
+        Long customerId = customerRepository.save(Customer.builder()
+                .email("compaction-customer-" + System.nanoTime() + "@test.com").password("n/a").role(Role.CUSTOMER)
+                .name("Compaction").surname("Customer").creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.ZERO).build()).getId();
+
+        // A loan of 1200.00 at 10% in 12 installments of 110.00, with a snapshot of its first installment
+        loanId = loanService.createLoan(CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(new BigDecimal("1200.00"))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(12)
+                .build()).getId();
+        loanService.payLoan(loanId, ONE_INSTALLMENT);
+        loanLedgerService.compactSnapshots();
+        loanService.payLoan(loanId, ONE_INSTALLMENT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should fail a compaction that overlaps a committed compaction of the same tail")
+    void shouldConflictOnConcurrentCompaction() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            loanLedgerService.compactSnapshots();
+            // Another instance folds the same tail in and commits first
+            assertThat(CompletableFuture.supplyAsync(loanLedgerService::compactSnapshots).join()).isEqualTo(1);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        LoanSnapshot snapshot = loanSnapshotRepository.findById(loanId).orElseThrow();
+        assertThat(snapshot.getInstallmentsPaid()).isEqualTo(2L);
+        assertThat(snapshot.getTotalPaid()).isEqualByComparingTo("220.00");
+    }
+
+    @Test
+    @DisplayName("Should fold each tail in once when compactions run one after another")
+    void shouldNotFoldCompactedTailAgain() {
+        assertThat(loanLedgerService.compactSnapshots()).isEqualTo(1);
+        assertThat(loanLedgerService.compactSnapshots()).isZero();
+
+        LoanSnapshot snapshot = loanSnapshotRepository.findById(loanId).orElseThrow();
+        assertThat(snapshot.getInstallmentsPaid()).isEqualTo(2L);
+        assertThat(snapshot.getTotalPaid()).isEqualByComparingTo("220.00");
+        assertThat(loanLedgerService.getPaymentSummary(loanId).getInstallmentsPaid()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.entity.Loan;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Loan Totals Backfill Tests")
+class LoanTotalsBackfillTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LoanTotalsBackfill loanTotalsBackfill;
+
+    @BeforeEach
+    void setUp() {
+        loanTotalsBackfill = new LoanTotalsBackfill(loanRepository, transactionTemplate, new ShardRouter("", false), true, 10, 2, true);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when every loan already has its totals")
+    void shouldDoNothingWhenNoLoanIsMissingTotals() {
+        when(loanRepository.findMinIdWithoutTotals()).thenReturn(Optional.empty());
+        when(loanRepository.findMaxIdWithoutTotals()).thenReturn(Optional.empty());
+
+        int result = loanTotalsBackfill.backfill();
+
+        assertThat(result).isZero();
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Should split the missing ID range into chunks, each in its own transaction")
+    void shouldSplitIdRangeIntoChunks() {
+        when(loanRepository.findMinIdWithoutTotals()).thenReturn(Optional.of(1L));
+        when(loanRepository.findMaxIdWithoutTotals()).thenReturn(Optional.of(25L));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+        when(loanRepository.findByIdBetweenAndTotalAmountIsNull(anyLong(), anyLong())).thenReturn(List.of());
+
+        loanTotalsBackfill.backfill();
+
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(loanRepository).findByIdBetweenAndTotalAmountIsNull(1L, 10L);
+        verify(loanRepository).findByIdBetweenAndTotalAmountIsNull(11L, 20L);
+        verify(loanRepository).findByIdBetweenAndTotalAmountIsNull(21L, 25L);
+    }
+
+    @Test
+    @DisplayName("Should store totals computed with the origination rounding")
+    void shouldBackfillTotalsOfChunk() {
+        Loan loan = Loan.builder()
+                .id(7L)
+                .loanAmount(Money.of(new BigDecimal("1000.00")))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(6)
+                .build();
+        when(loanRepository.findByIdBetweenAndTotalAmountIsNull(1L, 10L)).thenReturn(List.of(loan));
+        when(loanRepository.backfillTotals(anyLong(), any(), any())).thenReturn(1);
+
+        int result = loanTotalsBackfill.backfillChunk(1L, 10L);
+
+        assertThat(result).isEqualTo(1);
+        verify(loanRepository).backfillTotals(7L, Money.of(new BigDecimal("1100.00")), Money.of(new BigDecimal("183.33")));
+    }
+}
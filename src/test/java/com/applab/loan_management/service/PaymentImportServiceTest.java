@@ -0,0 +1,146 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Import Service Tests")
+class PaymentImportServiceTest {
+
+    @Mock
+    private LoanService loanService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentImportService paymentImportService;
+
+    @BeforeEach
+    void setUp() {
+        paymentImportService = new PaymentImportService(loanService, transactionTemplate, new ShardRouter("", false), 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private PayLoanResponse paidResponse(int installments, String amount) {
+        return PayLoanResponse.builder()
+                .installmentsPaid(installments)
+                .totalAmountSpent(new BigDecimal(amount))
+                .message("Successfully paid")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should apply rows in chunked transactions and report each row")
+    void shouldApplyRowsInChunkedTransactions() throws Exception {
+        when(loanService.applyPayment(eq(1L), any(PayLoanRequest.class))).thenReturn(paidResponse(1, "1000.00"));
+        when(loanService.applyPayment(eq(2L), any(PayLoanRequest.class))).thenReturn(paidResponse(2, "2000.00"));
+
+        String csv = "loanId,amount\n1,1000.00\n2,2000.00\n1,1000.00\n";
+        StringWriter report = new StringWriter();
+
+        PaymentImportService.ImportSummary summary = paymentImportService.importPayments(new StringReader(csv), report);
+
+        assertThat(summary.getProcessed()).isEqualTo(3);
+        assertThat(summary.getSucceeded()).isEqualTo(3);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(loanService, times(3)).applyPayment(anyLong(), any(PayLoanRequest.class));
+        verify(loanService, never()).payLoan(anyLong(), any(PayLoanRequest.class));
+
+        String[] lines = report.toString().split("\n");
+        assertThat(lines[0]).isEqualTo(PaymentImportService.REPORT_HEADER);
+        assertThat(lines[1]).startsWith("2,1,1000.00,APPLIED,1,1000.00");
+        assertThat(lines[2]).startsWith("3,2,2000.00,APPLIED,2,2000.00");
+        assertThat(lines[3]).startsWith("4,1,1000.00,APPLIED,1,1000.00");
+        assertThat(lines[4]).isEqualTo("# processed=3, succeeded=3, failed=0");
+        assertThat(report.toString()).endsWith("failed=0\n");
+    }
+
+    @Test
+    @DisplayName("Should report business rejections and malformed rows without aborting the import")
+    void shouldReportRejectionsAndMalformedRows() throws Exception {
+        when(loanService.applyPayment(eq(9L), any(PayLoanRequest.class))).thenThrow(new LoanNotFoundException(9L));
+        when(loanService.applyPayment(eq(1L), any(PayLoanRequest.class))).thenReturn(paidResponse(1, "1000.00"));
+
+        String csv = "9,1000.00\nnot-a-row\n1,-5\n1,1000.00\n";
+        StringWriter report = new StringWriter();
+
+        PaymentImportService.ImportSummary summary = paymentImportService.importPayments(new StringReader(csv), report);
+
+        assertThat(summary.getProcessed()).isEqualTo(4);
+        assertThat(summary.getSucceeded()).isEqualTo(1);
+        assertThat(summary.getFailed()).isEqualTo(3);
+        assertThat(report.toString())
+                .contains("1,9,1000.00,LOAN_NOT_FOUND")
+                .contains("2,,,INVALID_ROW")
+                .contains("3,,,INVALID_ROW")
+                .contains("4,1,1000.00,APPLIED");
+    }
+
+    @Test
+    @DisplayName("Should report a malformed first row instead of skipping it as a header")
+    void shouldReportMalformedFirstRow() throws Exception {
+        StringWriter report = new StringWriter();
+
+        PaymentImportService.ImportSummary summary =
+                paymentImportService.importPayments(new StringReader("loan 1;1000.00\n"), report);
+
+        assertThat(summary.getFailed()).isEqualTo(1);
+        assertThat(report.toString()).contains("1,,,INVALID_ROW");
+    }
+
+    @Test
+    @DisplayName("Should skip a header and apply a first row behind a UTF-8 byte order mark")
+    void shouldStripByteOrderMarkOfFirstLine() throws Exception {
+        when(loanService.applyPayment(eq(1L), any(PayLoanRequest.class))).thenReturn(paidResponse(1, "1000.00"));
+
+        StringWriter withHeader = new StringWriter();
+        StringWriter withoutHeader = new StringWriter();
+
+        PaymentImportService.ImportSummary headerSummary = paymentImportService.importPayments(
+                new StringReader("\uFEFFLoanId, Amount\n1,1000.00\n"), withHeader);
+        PaymentImportService.ImportSummary rowSummary = paymentImportService.importPayments(
+                new StringReader("\uFEFF1,1000.00\n"), withoutHeader);
+
+        assertThat(headerSummary.getProcessed()).isEqualTo(1);
+        assertThat(withHeader.toString()).contains("2,1,1000.00,APPLIED");
+        assertThat(rowSummary.getSucceeded()).isEqualTo(1);
+        assertThat(withoutHeader.toString()).contains("1,1,1000.00,APPLIED");
+    }
+
+    @Test
+    @DisplayName("Should replay a failed chunk row by row through payLoan")
+    void shouldReplayFailedChunkRowByRow() throws Exception {
+        doThrow(new OptimisticLockingFailureException("conflict")).when(transactionTemplate).execute(any());
+        when(loanService.payLoan(eq(1L), any(PayLoanRequest.class))).thenReturn(paidResponse(1, "1000.00"));
+        when(loanService.payLoan(eq(2L), any(PayLoanRequest.class))).thenReturn(paidResponse(1, "500.00"));
+
+        StringWriter report = new StringWriter();
+
+        PaymentImportService.ImportSummary summary =
+                paymentImportService.importPayments(new StringReader("1,1000.00\n2,500.00\n"), report);
+
+        assertThat(summary.getSucceeded()).isEqualTo(2);
+        verify(loanService).payLoan(eq(1L), any(PayLoanRequest.class));
+        verify(loanService).payLoan(eq(2L), any(PayLoanRequest.class));
+    }
+}
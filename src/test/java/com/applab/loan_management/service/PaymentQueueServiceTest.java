@@ -0,0 +1,216 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.constants.QueuedPaymentStatus;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
+import com.applab.loan_management.entity.QueuedPayment;
+import com.applab.loan_management.exception.CustomerAccessDeniedException;
+import com.applab.loan_management.exception.LoanNotFoundException;
+import com.applab.loan_management.exception.NoPayableInstallmentsException;
+import com.applab.loan_management.exception.PaymentConflictException;
+import com.applab.loan_management.exception.QueuedPaymentNotFoundException;
+import com.applab.loan_management.repository.LoanRepository;
+import com.applab.loan_management.repository.QueuedPaymentRepository;
+import com.applab.loan_management.security.CurrentUserService;
+import com.applab.loan_management.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Queue Service Tests")
+class PaymentQueueServiceTest {
+
+    @Mock
+    private QueuedPaymentRepository queuedPaymentRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private LoanService loanService;
+
+    @Mock
+    private CurrentUserService currentUserService;
+
+    @Mock
+    private PaymentRetryExecutor paymentRetryExecutor;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PaymentQueueService paymentQueueService;
+
+    @BeforeEach
+    void setUp() {
+        paymentQueueService = new PaymentQueueService(queuedPaymentRepository, loanRepository, loanService,
+                currentUserService, paymentRetryExecutor, transactionTemplate, new ShardRouter("", false), 10);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(paymentRetryExecutor.execute(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(1).doInTransaction(null));
+    }
+
+    private QueuedPayment pendingPayment(Long id, Long loanId) {
+        return QueuedPayment.builder()
+                .id(id)
+                .loanId(loanId)
+                .customerId(1L)
+                .amount(new BigDecimal("1000.00"))
+                .status(QueuedPaymentStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private PayLoanResponse paidResponse() {
+        return PayLoanResponse.builder()
+                .installmentsPaid(1)
+                .totalAmountSpent(new BigDecimal("1000.00"))
+                .message("Successfully paid 1 installment(s) for a total of 1000.00")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should enqueue an authorized payment as PENDING")
+    void shouldEnqueueAuthorizedPaymentAsPending() {
+        when(loanRepository.findCustomerIdById(5L)).thenReturn(Optional.of(1L));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(true);
+        when(queuedPaymentRepository.save(any(QueuedPayment.class))).thenAnswer(invocation -> {
+            QueuedPayment payment = invocation.getArgument(0);
+            payment.setId(42L);
+            return payment;
+        });
+
+        QueuedPaymentResponse response = paymentQueueService.enqueuePayment(5L,
+                PayLoanRequest.builder().amount(new BigDecimal("1000.00")).build());
+
+        assertThat(response.getPaymentId()).isEqualTo(42L);
+        assertThat(response.getLoanId()).isEqualTo(5L);
+        assertThat(response.getStatus()).isEqualTo(QueuedPaymentStatus.PENDING);
+        verify(loanService, never()).payLoan(anyLong(), any(PayLoanRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should reject enqueueing a payment for a missing loan")
+    void shouldRejectEnqueueForMissingLoan() {
+        when(loanRepository.findCustomerIdById(5L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentQueueService.enqueuePayment(5L,
+                PayLoanRequest.builder().amount(new BigDecimal("1000.00")).build()))
+                .isInstanceOf(LoanNotFoundException.class);
+
+        verify(queuedPaymentRepository, never()).save(any(QueuedPayment.class));
+    }
+
+    @Test
+    @DisplayName("Should deny polling another customer's payment")
+    void shouldDenyPollingAnotherCustomersPayment() {
+        when(queuedPaymentRepository.findById(42L)).thenReturn(Optional.of(pendingPayment(42L, 5L)));
+        when(currentUserService.canAccessCustomerData(1L)).thenReturn(false);
+
+        assertThatThrownBy(() -> paymentQueueService.getPaymentStatus(42L))
+                .isInstanceOf(CustomerAccessDeniedException.class);
+    }
+
+    @Test
+    @DisplayName("Should throw QueuedPaymentNotFoundException for an unknown payment")
+    void shouldThrowNotFoundForUnknownPayment() {
+        when(queuedPaymentRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> paymentQueueService.getPaymentStatus(42L))
+                .isInstanceOf(QueuedPaymentNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should apply a batch in one transaction and record each outcome")
+    void shouldApplyBatchAndRecordOutcomes() {
+        QueuedPayment first = pendingPayment(1L, 5L);
+        QueuedPayment second = pendingPayment(2L, 6L);
+        when(queuedPaymentRepository.findIdsByStatus(eq(QueuedPaymentStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(queuedPaymentRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(loanService.applyPreAuthorizedPayment(eq(5L), any(PayLoanRequest.class))).thenReturn(paidResponse());
+        when(loanService.applyPreAuthorizedPayment(eq(6L), any(PayLoanRequest.class)))
+                .thenThrow(new NoPayableInstallmentsException(6L));
+
+        int processed = paymentQueueService.processNextBatch();
+
+        assertThat(processed).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo(QueuedPaymentStatus.APPLIED);
+        assertThat(first.getInstallmentsPaid()).isEqualTo(1);
+        assertThat(first.getProcessedAt()).isNotNull();
+        assertThat(second.getStatus()).isEqualTo(QueuedPaymentStatus.REJECTED);
+        assertThat(second.getErrorCode()).isEqualTo("NO_PAYABLE_INSTALLMENTS");
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(paymentRetryExecutor, never()).execute(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should replay payments individually when the batch transaction fails")
+    void shouldReplayIndividuallyWhenBatchFails() {
+        QueuedPayment payment = pendingPayment(1L, 5L);
+        when(queuedPaymentRepository.findIdsByStatus(eq(QueuedPaymentStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        doThrow(new OptimisticLockingFailureException("conflict")).when(transactionTemplate).executeWithoutResult(any());
+        when(queuedPaymentRepository.findById(1L)).thenReturn(Optional.of(payment));
+        when(loanService.applyPreAuthorizedPayment(eq(5L), any(PayLoanRequest.class))).thenReturn(paidResponse());
+
+        paymentQueueService.processNextBatch();
+
+        assertThat(payment.getStatus()).isEqualTo(QueuedPaymentStatus.APPLIED);
+        verify(paymentRetryExecutor).execute(eq(5L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject a replayed payment by its loan ID when retries are exhausted")
+    void shouldRejectReplayedPaymentWithLoanIdWhenRetriesExhausted() {
+        QueuedPayment payment = pendingPayment(42L, 5L);
+        when(queuedPaymentRepository.findIdsByStatus(eq(QueuedPaymentStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of(42L));
+        doThrow(new OptimisticLockingFailureException("conflict"))
+                .doAnswer(invocation -> {
+                    invocation.<Consumer<Object>>getArgument(0).accept(null);
+                    return null;
+                })
+                .when(transactionTemplate).executeWithoutResult(any());
+        when(queuedPaymentRepository.findById(42L)).thenReturn(Optional.of(payment));
+        doThrow(new PaymentConflictException(5L, 3, new OptimisticLockingFailureException("conflict")))
+                .when(paymentRetryExecutor).execute(eq(5L), any());
+
+        paymentQueueService.processNextBatch();
+
+        assertThat(payment.getStatus()).isEqualTo(QueuedPaymentStatus.REJECTED);
+        assertThat(payment.getMessage()).contains("loan ID 5").doesNotContain("42");
+    }
+
+    @Test
+    @DisplayName("Should not touch the queue when nothing is pending")
+    void shouldDoNothingWhenQueueIsEmpty() {
+        when(queuedPaymentRepository.findIdsByStatus(eq(QueuedPaymentStatus.PENDING), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        paymentQueueService.drainQueue();
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+}
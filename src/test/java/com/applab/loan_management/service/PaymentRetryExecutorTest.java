@@ -0,0 +1,97 @@
+package com.applab.loan_management.service;
+
+import com.applab.loan_management.exception.PaymentConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Retry Executor Tests")
+class PaymentRetryExecutorTest {
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentRetryExecutor paymentRetryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        paymentRetryExecutor = new PaymentRetryExecutor(transactionTemplate, meterRegistry, 3, 1, 5);
+    }
+
+    @Test
+    @DisplayName("Should return the result when the first attempt succeeds")
+    void shouldReturnResultWhenFirstAttemptSucceeds() {
+        when(transactionTemplate.execute(any())).thenReturn("paid");
+
+        String result = paymentRetryExecutor.execute(1L, status -> "paid");
+
+        assertThat(result).isEqualTo("paid");
+        verify(transactionTemplate, times(1)).execute(any());
+        assertThat(meterRegistry.counter("loan.payment.conflicts").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should retry after an optimistic lock conflict and record it")
+    void shouldRetryAfterOptimisticLockConflict() {
+        when(transactionTemplate.execute(any()))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn("paid");
+
+        String result = paymentRetryExecutor.execute(1L, status -> "paid");
+
+        assertThat(result).isEqualTo("paid");
+        verify(transactionTemplate, times(2)).execute(any());
+        assertThat(meterRegistry.counter("loan.payment.conflicts").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("loan.payment.retries.succeeded").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should throw PaymentConflictException after exhausting all attempts")
+    void shouldThrowPaymentConflictExceptionAfterExhaustingAttempts() {
+        when(transactionTemplate.execute(any())).thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        TransactionCallback<String> action = status -> "paid";
+        assertThatThrownBy(() -> paymentRetryExecutor.execute(7L, action))
+                .isInstanceOf(PaymentConflictException.class)
+                .hasMessageContaining("loan ID 7")
+                .hasMessageContaining("3 attempt(s)");
+
+        verify(transactionTemplate, times(3)).execute(any());
+        assertThat(meterRegistry.counter("loan.payment.conflicts").count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("loan.payment.retries.exhausted").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not retry business exceptions")
+    void shouldNotRetryBusinessExceptions() {
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("business rule"));
+
+        TransactionCallback<String> action = status -> "paid";
+        assertThatThrownBy(() -> paymentRetryExecutor.execute(1L, action))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Should keep jittered backoff within the configured cap")
+    void shouldKeepJitteredBackoffWithinCap() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            assertThat(paymentRetryExecutor.backoffMillis(attempt)).isBetween(0L, 5L);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.applab.loan_management.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Shard Router Tests")
+class ShardRouterTest {
+
+    private final ShardRouter shardRouter = new ShardRouter("jdbc:h2:mem:a, jdbc:h2:mem:b, jdbc:h2:mem:c", false);
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.destroy();
+    }
+
+    @Test
+    @DisplayName("Should route an ID to the shard encoded in it, and IDs of no shard to shard 0")
+    void shouldRouteIdsToTheirShard() {
+        assertThat(shardRouter.getShardCount()).isEqualTo(3);
+        assertThat(shardRouter.shardOf(42L)).isZero();
+        assertThat(shardRouter.shardOf(ShardIds.firstIdOf(2))).isEqualTo(2);
+        assertThat(shardRouter.shardOf(ShardIds.firstIdOf(2) + 5_000)).isEqualTo(2);
+        assertThat(shardRouter.shardOf(ShardIds.firstIdOf(3))).isZero();
+        assertThat(shardRouter.shardOf(null)).isZero();
+        assertThat(shardRouter.shardOf(-1L)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should place an email on the same shard every time")
+    void shouldPlaceEmailOnStableHomeShard() {
+        int homeShard = shardRouter.homeShardOf("john@example.com");
+
+        assertThat(homeShard).isBetween(0, 2);
+        assertThat(shardRouter.homeShardOf("john@example.com")).isEqualTo(homeShard);
+    }
+
+    @Test
+    @DisplayName("Should look up the other shards in turn until one finds a result")
+    void shouldFindOnOtherShards() {
+        List<Integer> visited = new ArrayList<>();
+
+        Optional<Integer> found = shardRouter.findOnOtherShards(1, () -> {
+            visited.add(ShardContext.current());
+            return Optional.of(ShardContext.current()).filter(shard -> shard == 2);
+        });
+
+        assertThat(found).contains(2);
+        assertThat(visited).containsExactly(0, 2);
+        assertThat(shardRouter.findOnOtherShards(1, Optional::empty)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should set the shard for the duration of a call and restore the previous one")
+    void shouldSetShardForCall() {
+        Integer inner = shardRouter.onShard(1, () -> {
+            assertThat(ShardContext.current()).isEqualTo(1);
+            return shardRouter.onShard(2, ShardContext::current);
+        });
+
+        assertThat(inner).isEqualTo(2);
+        assertThat(ShardContext.current()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep a transaction on the shard it first routed to")
+    void shouldRejectOtherShardInTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            shardRouter.onShard(1, () -> "first");
+            assertThat(shardRouter.onShard(1, () -> "same shard")).isEqualTo("same shard");
+
+            assertThatThrownBy(() -> shardRouter.onShard(2, () -> "other shard"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("shard 1 cannot access shard 2");
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(0));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(TransactionSynchronizationManager.hasResource(shardRouter)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should gather the results of all shards in shard order")
+    void shouldScatterGatherInShardOrder() {
+        List<Integer> shards = shardRouter.scatterGather(ShardContext::current);
+
+        assertThat(shards).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("Should run every call on the single database without sharding")
+    void shouldRunUnshardedCallsDirectly() {
+        ShardRouter unsharded = new ShardRouter("", false);
+
+        assertThat(unsharded.isSharded()).isFalse();
+        assertThat(unsharded.shardOf(ShardIds.firstIdOf(1))).isZero();
+        assertThat(unsharded.onShard(0, ShardContext::current)).isNull();
+        assertThat(unsharded.scatterGather(() -> "all")).containsExactly("all");
+    }
+}
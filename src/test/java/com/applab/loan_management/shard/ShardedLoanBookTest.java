@@ -0,0 +1,205 @@
+package com.applab.loan_management.shard;
+
+import com.applab.loan_management.constants.Role;
+import com.applab.loan_management.dto.AuthenticationRequest;
+import com.applab.loan_management.dto.CreateLoanRequest;
+import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanPortfolioReportResponse;
+import com.applab.loan_management.dto.PayLoanRequest;
+import com.applab.loan_management.dto.PayLoanResponse;
+import com.applab.loan_management.dto.QueuedPaymentResponse;
+import com.applab.loan_management.dto.RegisterRequest;
+import com.applab.loan_management.dto.RegisterResponse;
+import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
+import com.applab.loan_management.exception.EmailAlreadyExistsException;
+import com.applab.loan_management.repository.CustomerRepository;
+import com.applab.loan_management.service.AuthenticationService;
+import com.applab.loan_management.service.LoanLedgerService;
+import com.applab.loan_management.service.LoanReportService;
+import com.applab.loan_management.service.LoanService;
+import com.applab.loan_management.service.PaymentQueueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Two local H2 databases as the shards of one loan book
+@SpringBootTest(properties = "loan.sharding.urls=" + ShardedLoanBookTest.SHARD_0_URL + "," + ShardedLoanBookTest.SHARD_1_URL)
+@DisplayName("Sharded Loan Book Tests")
+class ShardedLoanBookTest {
+
+    static final String SHARD_0_URL = "jdbc:h2:mem:sharded-book-0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1_URL = "jdbc:h2:mem:sharded-book-1;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanLedgerService loanLedgerService;
+
+    @Autowired
+    private PaymentQueueService paymentQueueService;
+
+    @Autowired
+    private LoanReportService loanReportService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should store a customer and their loan on the customer's home shard, with IDs of that shard")
+    void shouldStoreCustomerAndLoanOnHomeShard() {
+        String email = emailOnShard(1);
+        RegisterResponse customer = register(email, Role.CUSTOMER);
+        authenticate(customer);
+
+        Long loanId = loanService.createLoan(loanRequest(customer.getUserId())).getId();
+        List<LoanInstallmentResponse> installments = loanService.listLoanInstallments(loanId);
+
+        assertThat(ShardIds.shardOf(customer.getUserId())).isEqualTo(1);
+        assertThat(ShardIds.shardOf(loanId)).isEqualTo(1);
+        assertThat(installments).hasSize(6).extracting("loanId").containsOnly(loanId);
+        assertThat(countLoans(SHARD_1_URL, loanId)).isEqualTo(1);
+        assertThat(countLoans(SHARD_0_URL, loanId)).isZero();
+        assertThat(authenticationService.authenticate(new AuthenticationRequest(email, "password123")).getToken())
+                .isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Should find a customer of a pre-populated shard 0 whose email belongs on another shard")
+    void shouldFindExistingCustomerOffHomeShard() {
+        // A customer of the database that became shard 0, stored before sharding placed emails by hash
+        String email = emailOnShard(1);
+        shardRouter.onShard(0, () -> customerRepository.save(Customer.builder()
+                .email(email).password(passwordEncoder.encode("password123")).role(Role.CUSTOMER)
+                .name("Unsharded").surname("Customer").creditLimit(Money.of(new BigDecimal("100000.00")))
+                .usedCreditLimit(Money.ZERO).build()));
+
+        assertThat(authenticationService.authenticate(new AuthenticationRequest(email, "password123")).getToken())
+                .isNotBlank();
+        assertThatThrownBy(() -> register(email, Role.CUSTOMER)).isInstanceOf(EmailAlreadyExistsException.class);
+        assertThat(shardRouter.onShard(1, () -> customerRepository.existsByEmail(email))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should route loan ID only requests to the loan's shard")
+    void shouldRouteLoanIdRequestsToLoanShard() {
+        RegisterResponse first = register(emailOnShard(0), Role.CUSTOMER);
+        RegisterResponse second = register(emailOnShard(1), Role.CUSTOMER);
+        authenticate(first);
+        Long firstLoanId = loanService.createLoan(loanRequest(first.getUserId())).getId();
+        authenticate(second);
+        Long secondLoanId = loanService.createLoan(loanRequest(second.getUserId())).getId();
+
+        PayLoanResponse payment = loanService.payLoan(secondLoanId, PayLoanRequest.builder().amount(new BigDecimal("220.00")).build());
+        QueuedPaymentResponse queued = paymentQueueService.enqueuePayment(secondLoanId,
+                PayLoanRequest.builder().amount(new BigDecimal("220.00")).build());
+
+        assertThat(ShardIds.shardOf(firstLoanId)).isZero();
+        assertThat(payment.getInstallmentsPaid()).isEqualTo(1);
+        assertThat(loanLedgerService.getPaymentSummary(secondLoanId).getInstallmentsPaid()).isEqualTo(1);
+        assertThat(loanService.listLoans(second.getUserId(), null, null)).extracting("id").containsExactly(secondLoanId);
+        assertThat(ShardIds.shardOf(queued.getPaymentId())).isEqualTo(1);
+        assertThat(paymentQueueService.getPaymentStatus(queued.getPaymentId()).getLoanId()).isEqualTo(secondLoanId);
+    }
+
+    @Test
+    @DisplayName("Should gather the portfolio report from every shard")
+    void shouldGatherPortfolioReportFromAllShards() {
+        authenticate(register(emailOnShard(0), Role.ADMIN));
+        LoanPortfolioReportResponse before = loanReportService.getPortfolioReport();
+
+        RegisterResponse first = register(emailOnShard(0), Role.CUSTOMER);
+        RegisterResponse second = register(emailOnShard(1), Role.CUSTOMER);
+        loanService.createLoan(loanRequest(first.getUserId()));
+        loanService.createLoan(loanRequest(second.getUserId()));
+        LoanPortfolioReportResponse after = loanReportService.getPortfolioReport();
+
+        assertThat(after.getShards()).hasSize(2);
+        for (int shard = 0; shard < 2; shard++) {
+            assertThat(after.getShards().get(shard).getLoanCount() - before.getShards().get(shard).getLoanCount()).isEqualTo(1);
+        }
+        assertThat(after.getLoanCount())
+                .isEqualTo(after.getShards().get(0).getLoanCount() + after.getShards().get(1).getLoanCount());
+        assertThat(after.getTotalLoanAmount().subtract(before.getTotalLoanAmount())).isEqualByComparingTo("2400.00");
+        assertThat(after.getOutstandingAmount().subtract(before.getOutstandingAmount())).isEqualByComparingTo("2640.00");
+    }
+
+    @Test
+    @DisplayName("Should reject a transaction that accesses two shards")
+    void shouldRejectTransactionAcrossShards() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            shardRouter.onShard(0, customerRepository::count);
+            shardRouter.onShard(1, customerRepository::count);
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    private String emailOnShard(int shard) {
+        String email;
+        do {
+            email = "sharded-" + System.nanoTime() + "@test.com";
+        } while (shardRouter.homeShardOf(email) != shard);
+        return email;
+    }
+
+    private RegisterResponse register(String email, Role role) {
+        return authenticationService.register(RegisterRequest.builder()
+                .email(email)
+                .password("password123")
+                .role(role)
+                .name("Sharded")
+                .surname(role.name())
+                .creditLimit(role == Role.CUSTOMER ? new BigDecimal("100000.00") : null)
+                .usedCreditLimit(role == Role.CUSTOMER ? BigDecimal.ZERO : null)
+                .build());
+    }
+
+    private void authenticate(RegisterResponse user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getUser().getEmail(), user.getToken(), List.of()));
+    }
+
+    private static CreateLoanRequest loanRequest(Long customerId) {
+        return CreateLoanRequest.builder()
+                .customerId(customerId)
+                .amount(new BigDecimal("1200.00"))
+                .interestRate(new BigDecimal("0.1"))
+                .numberOfInstallments(6)
+                .build();
+    }
+
+    private static int countLoans(String shardUrl, Long loanId) {
+        JdbcTemplate shard = new JdbcTemplate(new DriverManagerDataSource(shardUrl, "sa", "password"));
+        return shard.queryForObject("SELECT COUNT(*) FROM loans WHERE id = ?", Integer.class, loanId);
+    }
+}
@@ -5,6 +5,7 @@ import com.applab.loan_management.dto.AuthenticationResponse;
 import com.applab.loan_management.dto.RegisterRequest;
 import com.applab.loan_management.dto.RegisterResponse;
 import com.applab.loan_management.entity.Customer;
+import com.applab.loan_management.entity.Money;
 import com.applab.loan_management.security.JwtUtil;
 import com.applab.loan_management.security.CustomerUserDetails;
 import org.junit.jupiter.api.BeforeEach;
@@ -65,8 +66,8 @@ class AuthMapperUtilTest {
                 .role(Role.CUSTOMER)
                 .name("John")
                 .surname("Doe")
-                .creditLimit(new BigDecimal("10000.00"))
-                .usedCreditLimit(new BigDecimal("0.00"))
+                .creditLimit(Money.of(new BigDecimal("10000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("0.00")))
                 .build();
 
         testAdmin = Customer.builder()
@@ -94,8 +95,8 @@ class AuthMapperUtilTest {
         assertThat(result.getRole()).isEqualTo(Role.CUSTOMER);
         assertThat(result.getName()).isEqualTo("John");
         assertThat(result.getSurname()).isEqualTo("Doe");
-        assertThat(result.getCreditLimit()).isEqualTo(new BigDecimal("10000.00"));
-        assertThat(result.getUsedCreditLimit()).isEqualTo(new BigDecimal("0.00"));
+        assertThat(result.getCreditLimit()).isEqualTo(Money.of(new BigDecimal("10000.00")));
+        assertThat(result.getUsedCreditLimit()).isEqualTo(Money.ZERO);
 
         verify(passwordEncoder).encode("password123");
     }
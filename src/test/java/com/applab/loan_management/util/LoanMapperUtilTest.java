@@ -2,16 +2,20 @@ package com.applab.loan_management.util;
 
 import com.applab.loan_management.constants.Role;
 import com.applab.loan_management.dto.CreateLoanResponse;
+import com.applab.loan_management.dto.LoanInstallmentProjection;
 import com.applab.loan_management.dto.LoanInstallmentResponse;
+import com.applab.loan_management.dto.LoanListProjection;
 import com.applab.loan_management.dto.LoanListResponse;
 import com.applab.loan_management.entity.Customer;
 import com.applab.loan_management.entity.Loan;
 import com.applab.loan_management.entity.LoanInstallment;
+import com.applab.loan_management.entity.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -34,14 +38,14 @@ class LoanMapperUtilTest {
                 .name("John")
                 .surname("Doe")
                 .role(Role.CUSTOMER)
-                .creditLimit(new BigDecimal("50000.00"))
-                .usedCreditLimit(new BigDecimal("10000.00"))
+                .creditLimit(Money.of(new BigDecimal("50000.00")))
+                .usedCreditLimit(Money.of(new BigDecimal("10000.00")))
                 .build();
 
         testLoan = Loan.builder()
                 .id(1L)
                 .customer(testCustomer)
-                .loanAmount(new BigDecimal("10000.00"))
+                .loanAmount(Money.of(new BigDecimal("10000.00")))
                 .interestRate(new BigDecimal("0.2"))
                 .numberOfInstallments(12)
                 .createDate(LocalDateTime.now())
@@ -49,23 +53,19 @@ class LoanMapperUtilTest {
                 .build();
 
         testInstallments = Arrays.asList(
-                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1), false, null, null),
-                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2), true, new BigDecimal("1000.00"), LocalDate.now()),
-                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3), false, null, null)
+                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1)),
+                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2)),
+                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3))
         );
         testLoan.setInstallments(testInstallments);
     }
 
-    private LoanInstallment createTestInstallment(Long id, Loan loan, BigDecimal amount, LocalDate dueDate, 
-                                                 boolean isPaid, BigDecimal paidAmount, LocalDate paymentDate) {
+    private LoanInstallment createTestInstallment(Long id, Loan loan, BigDecimal amount, LocalDate dueDate) {
         return LoanInstallment.builder()
                 .id(id)
                 .loan(loan)
-                .amount(amount)
+                .amount(Money.of(amount))
                 .dueDate(dueDate)
-                .isPaid(isPaid)
-                .paidAmount(paidAmount)
-                .paymentDate(paymentDate)
                 .build();
     }
 
@@ -88,9 +88,13 @@ class LoanMapperUtilTest {
     }
 
     @Test
-    @DisplayName("Should convert loan entity to LoanListResponse DTO")
-    void shouldConvertLoanEntityToLoanListResponse() {
-        LoanListResponse result = LoanMapperUtil.toLoanListResponse(testLoan);
+    @DisplayName("Should convert loan list projection to LoanListResponse DTO using the stored total")
+    void shouldConvertLoanListProjectionToLoanListResponse() {
+        LoanListProjection projection = new LoanListProjection(1L, 1L, "John", "Doe",
+                Money.of(new BigDecimal("10000.00")), new BigDecimal("0.2"), 12, testLoan.getCreateDate(), false,
+                Money.of(new BigDecimal("12000.00")), 2L);
+
+        LoanListResponse result = LoanMapperUtil.toLoanListResponse(projection);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
@@ -107,9 +111,23 @@ class LoanMapperUtilTest {
     }
 
     @Test
-    @DisplayName("Should convert loan installment entity to LoanInstallmentResponse DTO")
-    void shouldConvertLoanInstallmentEntityToLoanInstallmentResponse() {
-        LoanInstallment paidInstallment = testInstallments.get(1);
+    @DisplayName("Should compute the total of a loan list projection not yet backfilled")
+    void shouldComputeTotalWhenProjectionHasNoStoredTotal() {
+        LoanListProjection projection = new LoanListProjection(1L, 1L, "John", "Doe",
+                Money.of(new BigDecimal("10000.00")), new BigDecimal("0.2"), 12, testLoan.getCreateDate(), false,
+                null, 12L);
+
+        LoanListResponse result = LoanMapperUtil.toLoanListResponse(projection);
+
+        assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("12000.00"));
+    }
+
+    @Test
+    @DisplayName("Should convert an installment paid by a ledger entry to LoanInstallmentResponse DTO")
+    void shouldConvertPaidInstallmentProjectionToLoanInstallmentResponse() {
+        LocalDate dueDate = LocalDate.now().plusMonths(2);
+        LoanInstallmentProjection paidInstallment = new LoanInstallmentProjection(
+                2L, 1L, 1L, Money.of(new BigDecimal("1000.00")), dueDate, 7L, LocalDate.now(), new BigDecimal("1000.00"));
         int installmentNumber = 2;
 
         LoanInstallmentResponse result = LoanMapperUtil.toLoanInstallmentResponse(paidInstallment, installmentNumber);
@@ -118,83 +136,121 @@ class LoanMapperUtilTest {
         assertThat(result.getId()).isEqualTo(2L);
         assertThat(result.getLoanId()).isEqualTo(1L);
         assertThat(result.getAmount()).isEqualTo(new BigDecimal("1000.00"));
-        assertThat(result.getDueDate()).isEqualTo(paidInstallment.getDueDate());
-        assertThat(result.getPaymentDate()).isEqualTo(paidInstallment.getPaymentDate());
+        assertThat(result.getDueDate()).isEqualTo(dueDate);
+        assertThat(result.getPaymentDate()).isEqualTo(LocalDate.now());
         assertThat(result.getPaidAmount()).isEqualTo(new BigDecimal("1000.00"));
         assertThat(result.getIsPaid()).isTrue();
         assertThat(result.getInstallmentNumber()).isEqualTo(2);
     }
 
+    @Test
+    @DisplayName("Should number installment projections by their position")
+    void shouldNumberInstallmentProjectionsByPosition() {
+        List<LoanInstallmentProjection> projections = Arrays.asList(
+                new LoanInstallmentProjection(10L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(1), null, null, false),
+                new LoanInstallmentProjection(11L, 1L, 1L, Money.of(new BigDecimal("1000.00")), LocalDate.now().plusMonths(2), null, null, false)
+        );
+
+        List<LoanInstallmentResponse> result = LoanMapperUtil.toLoanInstallmentResponseListFromProjections(projections);
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getId()).isEqualTo(10L);
+        assertThat(result.get(0).getLoanId()).isEqualTo(1L);
+        assertThat(result.get(0).getInstallmentNumber()).isEqualTo(1);
+        assertThat(result.get(1).getId()).isEqualTo(11L);
+        assertThat(result.get(1).getInstallmentNumber()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Should calculate total loan amount with interest correctly")
     void shouldCalculateTotalLoanAmountWithInterestCorrectly() {
-        BigDecimal loanAmount = new BigDecimal("10000.00");
+        Money loanAmount = Money.of(new BigDecimal("10000.00"));
         BigDecimal interestRate = new BigDecimal("0.15");
-        BigDecimal result = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
+        Money result = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
 
-        assertThat(result).isEqualTo(new BigDecimal("11500.00")); // 10000 * (1 + 0.15)
+        assertThat(result).isEqualTo(Money.of(new BigDecimal("11500.00"))); // 10000 * (1 + 0.15)
     }
 
     @Test
     @DisplayName("Should calculate total loan amount with zero interest")
     void shouldCalculateTotalLoanAmountWithZeroInterest() {
-        BigDecimal loanAmount = new BigDecimal("5000.00");
+        Money loanAmount = Money.of(new BigDecimal("5000.00"));
         BigDecimal interestRate = new BigDecimal("0.0");
-        BigDecimal result = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
+        Money result = LoanMapperUtil.calculateTotalLoanAmount(loanAmount, interestRate);
 
-        assertThat(result).isEqualTo(new BigDecimal("5000.00"));
+        assertThat(result).isEqualTo(Money.of(new BigDecimal("5000.00")));
     }
 
     @Test
-    @DisplayName("Should calculate installment amount correctly")
-    void shouldCalculateInstallmentAmountCorrectly() {
-        BigDecimal totalAmount = new BigDecimal("12000.00");
-        int numberOfInstallments = 12;
-        BigDecimal result = LoanMapperUtil.calculateInstallmentAmount(totalAmount, numberOfInstallments);
+    @DisplayName("Should round a requested amount with fractions of a cent only once, after the interest")
+    void shouldRoundRequestedTotalLoanAmountOnce() {
+        Money result = LoanMapperUtil.calculateTotalLoanAmount(new BigDecimal("100.005"), new BigDecimal("0.5"));
 
-        assertThat(result).isEqualTo(new BigDecimal("1000.00"));
+        assertThat(result).isEqualTo(Money.of(new BigDecimal("150.01"))); // 150.0075, not 100.01 * 1.5 = 150.015
     }
 
     @Test
-    @DisplayName("Should calculate remaining installments correctly")
-    void shouldCalculateRemainingInstallmentsCorrectly() {
-        int result = LoanMapperUtil.calculateRemainingInstallments(testInstallments);
+    @DisplayName("Should calculate installment amount correctly")
+    void shouldCalculateInstallmentAmountCorrectly() {
+        Money totalAmount = Money.of(new BigDecimal("12000.00"));
+        int numberOfInstallments = 12;
+        Money result = LoanMapperUtil.calculateInstallmentAmount(totalAmount, numberOfInstallments);
 
-        assertThat(result).isEqualTo(2);
+        assertThat(result).isEqualTo(Money.of(new BigDecimal("1000.00")));
     }
 
     @Test
-    @DisplayName("Should return zero remaining installments when all are paid")
-    void shouldReturnZeroRemainingInstallmentsWhenAllArePaid() {
-        List<LoanInstallment> allPaidInstallments = Arrays.asList(
-                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1), true, new BigDecimal("1000.00"), LocalDate.now()),
-                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2), true, new BigDecimal("1000.00"), LocalDate.now()),
-                createTestInstallment(3L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(3), true, new BigDecimal("1000.00"), LocalDate.now())
-        );
-
-        int result = LoanMapperUtil.calculateRemainingInstallments(allPaidInstallments);
-
-        assertThat(result).isEqualTo(0);
+    @DisplayName("Should round loan math HALF_UP exactly like the BigDecimal calculation")
+    void shouldRoundLoanMathLikeBigDecimal() {
+        String[] amounts = {"100.00", "100.05", "333.33", "1234.55", "999.99", "10000.01", "0.05"};
+        String[] rates = {"0.1", "0.15", "0.125", "0.333", "0.4999", "0.5", "0.105"};
+        int[] installmentCounts = {6, 9, 12, 24};
+
+        for (String amount : amounts) {
+            for (String rate : rates) {
+                BigDecimal expectedTotal = new BigDecimal(amount)
+                        .multiply(BigDecimal.ONE.add(new BigDecimal(rate)))
+                        .setScale(2, RoundingMode.HALF_UP);
+                Money total = LoanMapperUtil.calculateTotalLoanAmount(Money.of(new BigDecimal(amount)), new BigDecimal(rate));
+                assertThat(total.toBigDecimal()).as("%s * (1 + %s)", amount, rate).isEqualTo(expectedTotal);
+
+                for (int count : installmentCounts) {
+                    BigDecimal expectedInstallment = expectedTotal.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+                    assertThat(LoanMapperUtil.calculateInstallmentAmount(total, count).toBigDecimal())
+                            .as("%s / %d", expectedTotal, count)
+                            .isEqualTo(expectedInstallment);
+                }
+            }
+        }
     }
 
     @Test
-    @DisplayName("Should return true when loan is fully paid")
-    void shouldReturnTrueWhenLoanIsFullyPaid() {
-        List<LoanInstallment> allPaidInstallments = Arrays.asList(
-                createTestInstallment(1L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(1), true, new BigDecimal("1000.00"), LocalDate.now()),
-                createTestInstallment(2L, testLoan, new BigDecimal("1000.00"), LocalDate.now().plusMonths(2), true, new BigDecimal("1000.00"), LocalDate.now())
-        );
-
-        boolean result = LoanMapperUtil.isLoanFullyPaid(allPaidInstallments);
-
-        assertThat(result).isTrue();
+    @DisplayName("Should create one installment per month from the first due date")
+    void shouldCreateMonthlyInstallmentSchedule() {
+        LocalDate firstDueDate = LocalDate.of(2025, 1, 1);
+
+        List<LoanInstallment> schedule = LoanMapperUtil.createInstallmentSchedule(
+                testLoan, Money.of(new BigDecimal("500.00")), 6, firstDueDate);
+
+        assertThat(schedule).hasSize(6);
+        assertThat(schedule).allSatisfy(installment -> {
+            assertThat(installment.getLoan()).isSameAs(testLoan);
+            assertThat(installment.getAmount()).isEqualTo(Money.of(new BigDecimal("500.00")));
+        });
+        assertThat(schedule.get(5).getDueDate()).isEqualTo(LocalDate.of(2025, 6, 1));
     }
 
     @Test
-    @DisplayName("Should return false when loan is not fully paid")
-    void shouldReturnFalseWhenLoanIsNotFullyPaid() {
-        boolean result = LoanMapperUtil.isLoanFullyPaid(testInstallments);
+    @DisplayName("Should allocate a payment to the leading installments it fully covers")
+    void shouldAllocatePaymentToLeadingInstallments() {
+        List<LoanInstallmentProjection> payable = List.of(
+                new LoanInstallmentProjection(1L, 1L, 1L, Money.of(new BigDecimal("100.00")), LocalDate.now(), null, null, false),
+                new LoanInstallmentProjection(2L, 1L, 1L, Money.of(new BigDecimal("100.00")), LocalDate.now().plusMonths(1), null, null, false),
+                new LoanInstallmentProjection(3L, 1L, 1L, Money.of(new BigDecimal("100.00")), LocalDate.now().plusMonths(2), null, null, false));
+
+        LoanMapperUtil.PaymentAllocation allocation = LoanMapperUtil.allocatePayment(payable, 25_000);
 
-        assertThat(result).isFalse();
+        assertThat(allocation.installmentIds()).containsExactly(1L, 2L);
+        assertThat(allocation.spentMinorUnits()).isEqualTo(20_000);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package com.applab.loan_management.web;
+
+import com.applab.loan_management.web.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Adaptive Concurrency Limit Filter Tests")
+class AdaptiveConcurrencyLimitFilterTest {
+
+    @Mock
+    private AdaptiveConcurrencyLimiter limiter;
+
+    private AdaptiveConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new AdaptiveConcurrencyLimitFilter(limiter, true, 3);
+    }
+
+    @Test
+    @DisplayName("Should shed a listing with 503 and Retry-After when the limiter rejects it")
+    void shouldShedListingWhenRejected() throws Exception {
+        when(limiter.tryAcquire(Priority.LOW)).thenReturn(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/loans"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(response.getContentAsString()).contains("SERVICE_OVERLOADED");
+        assertThat(chain.getRequest()).isNull();
+        verify(limiter, never()).onComplete(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should admit payments as high priority and report latency per endpoint")
+    void shouldAdmitPaymentsAsHighPriority() throws Exception {
+        when(limiter.tryAcquire(Priority.HIGH)).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/loans/42/pay"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(limiter).onComplete(eq("POST /api/loans/{id}/pay"), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should not limit requests outside the loan API")
+    void shouldNotLimitOtherPaths() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        verifyNoInteractions(limiter);
+    }
+}
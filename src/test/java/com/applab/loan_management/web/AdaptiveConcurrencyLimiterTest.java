@@ -0,0 +1,103 @@
+package com.applab.loan_management.web;
+
+import com.applab.loan_management.web.AdaptiveConcurrencyLimiter.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Adaptive Concurrency Limiter Tests")
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_MILLIS = 100;
+
+    private final AtomicLong clock = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 10, 4, 20, 0.5, 2.0, 0.5, WINDOW_MILLIS, 5, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should admit low priority requests only up to their share of the limit")
+    void shouldAdmitLowPriorityOnlyUpToItsShare() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Priority.LOW)).isTrue();
+        }
+
+        assertThat(limiter.tryAcquire(Priority.LOW)).isFalse();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+        }
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isFalse();
+        assertThat(meterRegistry.counter("loan.concurrency.rejected", "priority", "low").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("loan.concurrency.rejected", "priority", "high").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should cut the limit when an endpoint's latency rises above its baseline")
+    void shouldCutLimitWhenLatencyRises() {
+        runWindow("GET /api/loans", 10, 10);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        runWindow("GET /api/loans", 10, 50);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        assertThat(meterRegistry.get("loan.concurrency.limit").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should judge each endpoint against its own baseline")
+    void shouldJudgeEachEndpointAgainstItsOwnBaseline() {
+        runWindow("GET /api/loans", 10, 5);
+        runWindow("POST /api/loans/{id}/pay", 10, 40);
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should never cut the limit below its minimum")
+    void shouldNotCutBelowMinimum() {
+        runWindow("GET /api/loans", 10, 10);
+        runWindow("GET /api/loans", 10, 100);
+        runWindow("GET /api/loans", 10, 1000);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should grow the limit by one when latency is steady and the limit is in use")
+    void shouldGrowLimitWhenSteadyAndUtilized() {
+        runWindow("POST /api/loans/{id}/pay", 10, 10);
+        for (int i = 0; i < 8; i++) {
+            assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+        }
+        for (int i = 0; i < 8; i++) {
+            limiter.onComplete("POST /api/loans/{id}/pay", TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+        assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+        limiter.onComplete("POST /api/loans/{id}/pay", TimeUnit.MILLISECONDS.toNanos(10));
+
+        assertThat(limiter.getLimit()).isEqualTo(11);
+    }
+
+    // Completes the given number of sequential requests of the same latency, then closes the window
+    private void runWindow(String endpoint, int requests, long latencyMillis) {
+        for (int i = 0; i < requests; i++) {
+            assertThat(limiter.tryAcquire(Priority.HIGH)).isTrue();
+            if (i == requests - 1) {
+                clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MILLIS));
+            }
+            limiter.onComplete(endpoint, TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.applab.loan_management.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Bulkhead Filter Tests")
+class BulkheadFilterTest {
+
+    private Bulkhead authBulkhead;
+    private Bulkhead readBulkhead;
+    private Bulkhead writeBulkhead;
+    private BulkheadFilter bulkheadFilter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        authBulkhead = new Bulkhead("auth", 1, 0, 0, 2, meterRegistry);
+        readBulkhead = new Bulkhead("read", 1, 0, 0, 1, meterRegistry);
+        writeBulkhead = new Bulkhead("write", 1, 0, 0, 1, meterRegistry);
+        bulkheadFilter = new BulkheadFilter(authBulkhead, readBulkhead, writeBulkhead, true);
+    }
+
+    @Test
+    @DisplayName("Should answer 503 with Retry-After when the request's group is saturated")
+    void shouldRejectWhenGroupIsSaturated() throws Exception {
+        assertThat(authBulkhead.tryAcquire()).isTrue();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        bulkheadFilter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("SERVICE_BUSY");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep payments flowing while auth and reads are saturated")
+    void shouldKeepWritesFlowingWhileOtherGroupsAreSaturated() throws Exception {
+        assertThat(authBulkhead.tryAcquire()).isTrue();
+        assertThat(readBulkhead.tryAcquire()).isTrue();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        bulkheadFilter.doFilter(new MockHttpServletRequest("POST", "/api/loans/1/pay"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should route GET loan requests to the read group and release the permit afterwards")
+    void shouldRouteReadsAndReleasePermit() throws Exception {
+        assertThat(writeBulkhead.tryAcquire()).isTrue();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        bulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/api/loans"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(readBulkhead.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the request fails")
+    void shouldReleasePermitWhenRequestFails() throws Exception {
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        assertThatThrownBy(() -> bulkheadFilter.doFilter(
+                new MockHttpServletRequest("POST", "/api/loans"), new MockHttpServletResponse(), failingChain))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(writeBulkhead.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not limit paths outside the API groups or when disabled")
+    void shouldNotLimitOtherPathsOrWhenDisabled() throws Exception {
+        assertThat(readBulkhead.tryAcquire()).isTrue();
+        MockHttpServletResponse consoleResponse = new MockHttpServletResponse();
+        MockHttpServletResponse disabledResponse = new MockHttpServletResponse();
+
+        bulkheadFilter.doFilter(new MockHttpServletRequest("GET", "/h2-console"), consoleResponse, new MockFilterChain());
+        new BulkheadFilter(authBulkhead, readBulkhead, writeBulkhead, false)
+                .doFilter(new MockHttpServletRequest("GET", "/api/loans"), disabledResponse, new MockFilterChain());
+
+        assertThat(consoleResponse.getStatus()).isEqualTo(200);
+        assertThat(disabledResponse.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,104 @@
+package com.applab.loan_management.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Bulkhead Tests")
+class BulkheadTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should grant permits up to the concurrency limit")
+    void shouldGrantPermitsUpToLimit() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("read", 2, 0, 0, 1, meterRegistry);
+
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(bulkhead.tryAcquire()).isFalse();
+
+        bulkhead.release();
+        assertThat(bulkhead.tryAcquire()).isTrue();
+        assertThat(meterRegistry.counter("loan.bulkhead.rejected", "group", "read").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should let a queued request through when a permit is released in time")
+    void shouldLetQueuedRequestThroughWhenPermitReleased() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("write", 1, 1, 5000, 1, meterRegistry);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> queued = executor.submit(bulkhead::tryAcquire);
+            waitUntilQueued(1);
+
+            bulkhead.release();
+
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should shed a request straight away when the queue is full")
+    void shouldShedWhenQueueIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("auth", 1, 1, 5000, 2, meterRegistry);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                bulkhead.tryAcquire();
+                done.countDown();
+                return null;
+            });
+            waitUntilQueued(1);
+
+            long start = System.nanoTime();
+            assertThat(bulkhead.tryAcquire()).isFalse();
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+            assertThat(bulkhead.getRetryAfterSeconds()).isEqualTo(2);
+
+            bulkhead.release();
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should shed a queued request once its maximum wait has passed")
+    void shouldShedQueuedRequestAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("read", 1, 10, 20, 1, meterRegistry);
+        assertThat(bulkhead.tryAcquire()).isTrue();
+
+        assertThat(bulkhead.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("loan.bulkhead.queued").tag("group", "read").gauge().value()).isZero();
+    }
+
+    private void waitUntilQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("loan.bulkhead.queued").gauge().value() < expected) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+}
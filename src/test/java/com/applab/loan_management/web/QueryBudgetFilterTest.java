@@ -0,0 +1,79 @@
+package com.applab.loan_management.web;
+
+import com.applab.loan_management.jdbc.QueryCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Query Budget Filter Tests")
+class QueryBudgetFilterTest {
+
+    private final QueryCounter queryCounter = new QueryCounter();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should parse per-endpoint budgets")
+    void shouldParseBudgets() {
+        assertThat(QueryBudgetFilter.parseBudgets("GET /api/loans=2, POST /api/loans/{id}/pay=9,"))
+                .isEqualTo(Map.of("GET /api/loans", 2, "POST /api/loans/{id}/pay", 9));
+        assertThatThrownBy(() -> QueryBudgetFilter.parseBudgets("GET /api/loans"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should let a request over budget complete and count it when not enforcing")
+    void shouldCountRequestOverBudget() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(meterRegistry, true, false, 0, "POST /api/loans/{id}/pay=2");
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/loans/42/pay"), new MockHttpServletResponse(),
+                executing(3));
+
+        assertThat(meterRegistry.counter("loan.query_budget.exceeded", "endpoint", "POST /api/loans/{id}/pay").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fail the statement that exceeds the budget when enforcing")
+    void shouldFailStatementOverBudget() {
+        QueryBudgetFilter filter = new QueryBudgetFilter(meterRegistry, true, true, 1, "");
+
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/api/loans"),
+                new MockHttpServletResponse(), executing(2)))
+                .hasMessageContaining("select 2");
+        assertThat(meterRegistry.counter("loan.query_budget.exceeded", "endpoint", "other").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not count requests within budget or without one")
+    void shouldIgnoreRequestsWithinBudget() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(meterRegistry, true, true, 0, "GET /api/loans=2");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/loans"), new MockHttpServletResponse(), executing(2));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/loans/7/installments"), new MockHttpServletResponse(),
+                executing(5));
+
+        assertThat(meterRegistry.find("loan.query_budget.exceeded").counters()).isEmpty();
+    }
+
+    // A filter chain whose request executes the given number of statements
+    private FilterChain executing(int statements) {
+        return (request, response) -> {
+            for (int i = 1; i <= statements; i++) {
+                queryCounter.beforeExecute("select " + i);
+            }
+        };
+    }
+}